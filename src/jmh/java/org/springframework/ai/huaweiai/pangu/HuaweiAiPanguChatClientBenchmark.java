@@ -0,0 +1,57 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatReq;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link HuaweiAiPanguChatClient#createRequest(Prompt, boolean)} 构建请求的耗时与分配。
+ * 与客户端同包，以便访问包级可见的 createRequest；PanguClient 为 mock，不发起网络请求。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HuaweiAiPanguChatClientBenchmark {
+
+    private HuaweiAiPanguChatClient chatClient;
+    private Prompt prompt;
+    private Prompt promptWithOptions;
+
+    @Setup
+    public void setup() {
+        chatClient = new HuaweiAiPanguChatClient(Mockito.mock(PanguClient.class));
+        List<Message> messages = List.of(
+                new SystemMessage("You are a helpful assistant."),
+                new UserMessage("What is the capital of France?"),
+                new AssistantMessage("The capital of France is Paris."),
+                new UserMessage("And what is its population?"));
+        prompt = new Prompt(messages);
+        promptWithOptions = new Prompt(messages, HuaweiAiPanguChatOptions.builder()
+                .withTemperature(0.2f)
+                .withMaxTokens(512)
+                .build());
+    }
+
+    @Benchmark
+    public PanguChatReq createRequest() {
+        return chatClient.createRequest(prompt, false);
+    }
+
+    @Benchmark
+    public PanguChatReq createRequestWithOptions() {
+        return chatClient.createRequest(promptWithOptions, false);
+    }
+
+}
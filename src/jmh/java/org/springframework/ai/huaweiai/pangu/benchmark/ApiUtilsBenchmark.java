@@ -0,0 +1,81 @@
+package org.springframework.ai.huaweiai.pangu.benchmark;
+
+import com.huaweicloud.pangu.dev.sdk.api.llms.request.ConversationMessage;
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguUsage;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatChoice;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatMessage;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatResp;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 SDK 响应转换（{@code toChatResponse} 两个重载）与消息转换（{@code toConversationMessage}）的耗时与分配。
+ * SDK 响应对象均为 mock，各基准共享同样的 mock 调用开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiUtilsBenchmark {
+
+    private PanguChatResp chatResp;
+    private LLMResp llmResp;
+    private List<Message> messages;
+
+    @Setup
+    public void setup() {
+        PanguUsage usage = Mockito.mock(PanguUsage.class);
+        Mockito.when(usage.getPromptTokens()).thenReturn(42L);
+        Mockito.when(usage.getCompletionTokens()).thenReturn(128L);
+        Mockito.when(usage.getTotalTokens()).thenReturn(170L);
+
+        PanguChatChoice choice = Mockito.mock(PanguChatChoice.class);
+        Mockito.when(choice.getMessage()).thenReturn(PanguChatMessage.builder()
+                .role("assistant")
+                .content("The capital of France is Paris.")
+                .build());
+
+        chatResp = Mockito.mock(PanguChatResp.class);
+        Mockito.when(chatResp.getId()).thenReturn("chatcmpl-benchmark");
+        Mockito.when(chatResp.getChoices()).thenReturn(List.of(choice));
+        Mockito.when(chatResp.getUsage()).thenReturn(usage);
+
+        llmResp = Mockito.mock(LLMResp.class);
+        Mockito.when(llmResp.getAnswer()).thenReturn("Paris");
+        Mockito.when(llmResp.isFromCache()).thenReturn(false);
+
+        messages = List.of(
+                new SystemMessage("You are a helpful assistant."),
+                new UserMessage("What is the capital of France?"),
+                new AssistantMessage("The capital of France is Paris."),
+                new UserMessage("And what is its population?"));
+    }
+
+    @Benchmark
+    public ChatResponse toChatResponse() {
+        return ApiUtils.toChatResponse(chatResp);
+    }
+
+    @Benchmark
+    public ChatResponse toChatResponseFromLLMResp() {
+        return ApiUtils.toChatResponse("callback-benchmark", llmResp, true);
+    }
+
+    @Benchmark
+    public List<ConversationMessage> toConversationMessage() {
+        return ApiUtils.toConversationMessage(messages);
+    }
+
+}
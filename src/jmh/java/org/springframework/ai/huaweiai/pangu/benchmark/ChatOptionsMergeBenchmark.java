@@ -0,0 +1,71 @@
+package org.springframework.ai.huaweiai.pangu.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatOptions;
+import org.springframework.ai.huaweiai.pangu.util.ChatOptionsMerger;
+import org.springframework.ai.model.ModelOptionsUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link ModelOptionsUtils} 反射合并（原实现）与 {@link ChatOptionsMerger} 逐字段合并的耗时与分配。
+ * 使用 {@code -prof gc} 查看每次操作的分配字节数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatOptionsMergeBenchmark {
+
+    private HuaweiAiPanguChatOptions defaultOptions;
+    private HuaweiAiPanguChatOptions runtimeOptions;
+    private ChatOptionsMerger merger;
+
+    @Setup
+    public void setup() {
+        defaultOptions = HuaweiAiPanguChatOptions.builder()
+                .withMaxTokens(1024)
+                .withTemperature(0.7f)
+                .withTopP(0.9f)
+                .withStop(List.of("</s>"))
+                .build();
+        runtimeOptions = HuaweiAiPanguChatOptions.builder()
+                .withTemperature(0.2f)
+                .withPresencePenalty(0.5)
+                .build();
+        merger = new ChatOptionsMerger(defaultOptions);
+    }
+
+    /**
+     * The merge used before {@link ChatOptionsMerger}: copyToTarget plus merge, both via Jackson.
+     */
+    @Benchmark
+    public HuaweiAiPanguChatOptions reflectiveMerge() {
+        HuaweiAiPanguChatOptions copied = ModelOptionsUtils.copyToTarget(runtimeOptions, ChatOptions.class, HuaweiAiPanguChatOptions.class);
+        HuaweiAiPanguChatOptions merged = ModelOptionsUtils.merge(copied, defaultOptions, HuaweiAiPanguChatOptions.class);
+        merged.setStream(Boolean.FALSE);
+        return merged;
+    }
+
+    @Benchmark
+    public HuaweiAiPanguChatOptions reflectiveMergeWithoutRuntimeOptions() {
+        HuaweiAiPanguChatOptions merged = ModelOptionsUtils.merge(null, defaultOptions, HuaweiAiPanguChatOptions.class);
+        merged.setStream(Boolean.FALSE);
+        return merged;
+    }
+
+    @Benchmark
+    public HuaweiAiPanguChatOptions typedMerge() {
+        return merger.merge(runtimeOptions, false);
+    }
+
+    @Benchmark
+    public HuaweiAiPanguChatOptions typedMergeWithoutRuntimeOptions() {
+        return merger.merge(null, false);
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.springframework.ai.huaweiai.pangu.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 对比 SDK 向量转换为 {@code List<Double>}（原实现与当前实现）与 {@code float[]} 的耗时与分配。
+ * 使用 {@code -prof gc} 查看每次操作的分配字节数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingConversionBenchmark {
+
+    @Param({"1024"})
+    private int dimensions;
+
+    @Param({"32"})
+    private int batchSize;
+
+    private List<List<Float>> embeddings;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        embeddings = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            List<Float> embedding = new ArrayList<>(dimensions);
+            for (int j = 0; j < dimensions; j++) {
+                embedding.add(random.nextFloat());
+            }
+            embeddings.add(embedding);
+        }
+    }
+
+    /**
+     * The conversion used before the float[] path: a stream of boxed values per embedding.
+     */
+    @Benchmark
+    public List<List<Double>> streamToDoubleList() {
+        List<List<Double>> vectors = new ArrayList<>(batchSize);
+        for (List<Float> embedding : embeddings) {
+            vectors.add(embedding.stream().map(Float::doubleValue).collect(Collectors.toList()));
+        }
+        return vectors;
+    }
+
+    @Benchmark
+    public List<List<Double>> toDoubleList() {
+        List<List<Double>> vectors = new ArrayList<>(batchSize);
+        for (List<Float> embedding : embeddings) {
+            vectors.add(ApiUtils.toDoubleList(embedding));
+        }
+        return vectors;
+    }
+
+    @Benchmark
+    public float[][] toFloatArray() {
+        float[][] vectors = new float[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            vectors[i] = ApiUtils.toFloatArray(embeddings.get(i));
+        }
+        return vectors;
+    }
+
+}
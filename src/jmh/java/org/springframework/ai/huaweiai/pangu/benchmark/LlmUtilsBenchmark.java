@@ -0,0 +1,46 @@
+package org.springframework.ai.huaweiai.pangu.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatTenantOptions;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguIamOptions;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguModuleOptions;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量租户联合键 {@link LlmUtils#getUnionKey} 的耗时与分配，每个租户请求都会计算一次。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LlmUtilsBenchmark {
+
+    private HuaweiAiPanguChatTenantOptions tenantOptions;
+
+    @Setup
+    public void setup() {
+        tenantOptions = HuaweiAiPanguChatTenantOptions.tenantBuilder()
+                .withIamOptions(HuaweiAiPanguIamOptions.builder()
+                        .withUrl("https://iam.cn-southwest-2.myhuaweicloud.com/v3/auth/tokens")
+                        .withDomain("benchmark-domain")
+                        .withProjectName("cn-southwest-2")
+                        .withUser("benchmark-user")
+                        .withPassword("benchmark-password")
+                        .build())
+                .withModuleOptions(HuaweiAiPanguModuleOptions.builder()
+                        .withUrl("https://pangu.cn-southwest-2.myhuaweicloud.com/v1/infers/benchmark")
+                        .withModuleVersion("N2_agent_v2")
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public String getUnionKey() {
+        return LlmUtils.getUnionKey(tenantOptions);
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.springframework.ai.huaweiai.pangu.benchmark;
+
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamCallBack;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamOverflowStrategy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 测量流式回调 {@link HuaweiAiPanguStreamCallBack#onNewToken} 单个 token 的耗时与分配：
+ * 入缓冲区、按下游需求出队并转换为 {@link ChatResponse}。下游为无界请求的订阅者，结果交给 Blackhole。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamCallBackBenchmark {
+
+    private HuaweiAiPanguStreamCallBack callBack;
+    private Disposable subscription;
+    private LLMResp llmResp;
+
+    @Setup(Level.Iteration)
+    public void setup(Blackhole blackhole) {
+        llmResp = Mockito.mock(LLMResp.class);
+        Mockito.when(llmResp.getAnswer()).thenReturn("token");
+        AtomicReference<HuaweiAiPanguStreamCallBack> holder = new AtomicReference<>();
+        subscription = Flux.<ChatResponse>create(sink -> holder.set(new HuaweiAiPanguStreamCallBack(sink,
+                        HuaweiAiPanguStreamCallBack.DEFAULT_BUFFER_SIZE, HuaweiAiPanguStreamOverflowStrategy.COALESCE)))
+                .subscribe(blackhole::consume);
+        callBack = holder.get();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        subscription.dispose();
+    }
+
+    @Benchmark
+    public void onNewToken() {
+        callBack.onNewToken("callback-benchmark", llmResp);
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步请求执行器：在有界调度器上执行阻塞的 SDK 调用，重试退避由 Reactor 定时器调度，等待期间不占用线程。
+ */
+public class HuaweiAiPanguAsyncExecutor implements AutoCloseable {
+
+    /**
+     * Default executor backed by the shared {@link Schedulers#boundedElastic()}.
+     */
+    public static final HuaweiAiPanguAsyncExecutor DEFAULT = new HuaweiAiPanguAsyncExecutor(Schedulers.boundedElastic(), false,
+            10000, null, 3, Duration.ofMillis(500), Duration.ofSeconds(10), 0.5);
+
+    private final Scheduler scheduler;
+    private final boolean disposeScheduler;
+    private final RetryBackoffSpec retrySpec;
+    private final Duration timeout;
+    private final int queueDepth;
+    private final AtomicInteger pendingCalls = new AtomicInteger();
+
+    /**
+     * @param scheduler 执行阻塞调用的调度器
+     * @param disposeScheduler 关闭时是否释放调度器
+     * @param queueDepth 允许排队等待的异步请求数量（所有线程共用）
+     * @param timeout 默认超时时间（含重试），可为 null
+     * @param maxAttempts 最大尝试次数（含首次请求）
+     * @param initialBackoff 首次重试的退避时间
+     * @param maxBackoff 最大退避时间
+     * @param jitter 退避时间的随机抖动比例
+     */
+    public HuaweiAiPanguAsyncExecutor(Scheduler scheduler, boolean disposeScheduler, int queueDepth, Duration timeout,
+                                      int maxAttempts, Duration initialBackoff, Duration maxBackoff, double jitter) {
+        Assert.notNull(scheduler, "Scheduler must not be null");
+        Assert.notNull(initialBackoff, "initialBackoff must not be null");
+        Assert.notNull(maxBackoff, "maxBackoff must not be null");
+        this.scheduler = scheduler;
+        this.disposeScheduler = disposeScheduler;
+        this.retrySpec = Retry.backoff(Math.max(0, maxAttempts - 1), initialBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter)
+                .filter(HuaweiAiPanguAsyncExecutor::isRetryable)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        this.timeout = timeout;
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * 在调度器上执行一次阻塞调用
+     * @param call 阻塞调用，返回 null 时 Mono 为空
+     * @return Mono，排队的调用数超过队列深度时以 {@link RejectedExecutionException} 结束
+     */
+    public <T> Mono<T> submit(Callable<T> call) {
+        return Mono.defer(() -> {
+            // The queue of a bounded elastic scheduler is per thread, so bound the queued calls of all threads here.
+            if (pendingCalls.incrementAndGet() > queueDepth) {
+                pendingCalls.decrementAndGet();
+                return Mono.error(new RejectedExecutionException("Async queue is full, queueDepth: " + queueDepth));
+            }
+            AtomicBoolean started = new AtomicBoolean();
+            return Mono.fromCallable(() -> {
+                        if (started.compareAndSet(false, true)) {
+                            pendingCalls.decrementAndGet();
+                        }
+                        return call.call();
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> {
+                        if (started.compareAndSet(false, true)) {
+                            pendingCalls.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 在调度器上执行阻塞调用，失败后按指数退避重新提交
+     * @param call 阻塞调用，每次重试都会重新执行
+     * @return Mono
+     */
+    public <T> Mono<T> submitWithRetry(Callable<T> call) {
+        return submit(call).retryWhen(retrySpec);
+    }
+
+    /**
+     * 为请求增加超时，超时后取消仍在执行的调用
+     * @param mono 请求
+     * @param timeout 本次请求的超时时间，为空时使用默认超时时间
+     * @return Mono
+     */
+    public <T> Mono<T> withTimeout(Mono<T> mono, Duration timeout) {
+        Duration effectiveTimeout = Objects.nonNull(timeout) ? timeout : this.timeout;
+        return Objects.nonNull(effectiveTimeout) ? mono.timeout(effectiveTimeout) : mono;
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        return !(error instanceof IllegalArgumentException
+                || error instanceof NonTransientAiException
+                || error instanceof RejectedExecutionException
+                || error instanceof TimeoutException);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return 排队等待执行的异步请求数
+     */
+    public int getPendingCalls() {
+        return pendingCalls.get();
+    }
+
+    @Override
+    public void close() {
+        if (disposeScheduler) {
+            scheduler.dispose();
+        }
+    }
+
+}
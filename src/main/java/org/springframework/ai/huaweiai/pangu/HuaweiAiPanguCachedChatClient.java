@@ -1,13 +1,14 @@
 package org.springframework.ai.huaweiai.pangu;
 
-import com.huaweicloud.pangu.dev.sdk.api.llms.LLM;
-import com.huaweicloud.pangu.dev.sdk.api.llms.LLMs;
 import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
 import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMParamConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatResp;
 import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
 import com.huaweicloud.pangu.dev.sdk.llms.module.Pangu;
 import com.huaweicloud.pangu.dev.sdk.llms.response.LLMRespPangu;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.ChatClient;
@@ -15,12 +16,16 @@ import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.Generation;
 import org.springframework.ai.chat.StreamingChatClient;
 import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
-import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.huaweiai.pangu.metadata.HuaweiAiPanguChatResponseMetadata;
+import org.springframework.ai.huaweiai.pangu.metrics.DefaultHuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationContext;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationDocumentation;
 import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.ChatOptionsMerger;
 import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
-import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.huaweiai.pangu.util.PanguLlmPool;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
@@ -28,6 +33,8 @@ import org.springframework.util.CollectionUtils;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class HuaweiAiPanguCachedChatClient implements ChatClient, StreamingChatClient {
 
@@ -36,12 +43,53 @@ public class HuaweiAiPanguCachedChatClient implements ChatClient, StreamingChatC
      * Default options to be used for all chat requests.
      */
     private final HuaweiAiPanguChatOptions defaultOptions;
+    /**
+     * Merges runtime options with the default options.
+     */
+    private final ChatOptionsMerger optionsMerger;
     /**
      * 华为 盘古大模型 LLM Config.
      */
     private final LLMConfig defaultLlmConfig;
     private final Pangu pangu;
+    /**
+     * Pre-built LLM instances shared by streaming requests.
+     */
+    private PanguLlmPool streamLlmPool;
     private final RetryTemplate retryTemplate;
+    /**
+     * Executes the blocking SDK stream calls off the subscribing thread.
+     */
+    private HuaweiAiPanguStreamExecutor streamExecutor = HuaweiAiPanguStreamExecutor.DEFAULT;
+    /**
+     * Limits the in-flight SDK calls per tenant.
+     */
+    private HuaweiAiPanguConcurrencyLimiter concurrencyLimiter = HuaweiAiPanguConcurrencyLimiter.UNLIMITED;
+    /**
+     * Limits the requests and tokens per minute per tenant and model.
+     */
+    private HuaweiAiPanguRateLimiter rateLimiter = HuaweiAiPanguRateLimiter.UNLIMITED;
+    /**
+     * Caches the SDK clients of tenant requests, this client's own unless shared ones are injected.
+     */
+    private HuaweiAiPanguTenantClients tenantClients = new HuaweiAiPanguTenantClients();
+    /**
+     * Fails fast while the endpoint of a request is degraded.
+     */
+    private HuaweiAiPanguCircuitBreaker circuitBreaker = HuaweiAiPanguCircuitBreaker.DISABLED;
+    /**
+     * Keeps long conversation histories within the context budget of the model.
+     */
+    private HuaweiAiPanguHistoryCompactor historyCompactor = HuaweiAiPanguHistoryCompactor.DISABLED;
+    /**
+     * Records an observation per request, no-op unless a registry is configured.
+     */
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    private HuaweiAiPanguObservationConvention observationConvention;
+    /**
+     * Optional response cache shared by the default and tenant LLM instances, disabled when null.
+     */
+    private HuaweiAiPanguChatResponseCache responseCache;
 
     public HuaweiAiPanguCachedChatClient(LLMConfig llmConfig) {
         this(llmConfig, HuaweiAiPanguChatOptions.builder()
@@ -61,131 +109,227 @@ public class HuaweiAiPanguCachedChatClient implements ChatClient, StreamingChatC
         Assert.notNull(options, "Options must not be null");
         Assert.notNull(retryTemplate, "RetryTemplate must not be null");
         this.defaultOptions = options;
+        this.optionsMerger = new ChatOptionsMerger(options);
         this.defaultLlmConfig = llmConfig;
         this.pangu = LlmUtils.createLlm(llmConfig);
+        this.streamLlmPool = this.tenantClients.createLlmPool(llmConfig);
         this.retryTemplate = retryTemplate;
     }
 
     @Override
-    public ChatResponse call(Prompt prompt) {
-        Assert.notEmpty(prompt.getInstructions(), "At least one text is required!");
-        // execute the request
-        return retryTemplate.execute(ctx -> {
-
-            // Use tenant specific client if available.
-            Pangu llm;
-            if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
-                // Create the Pangu LLM for Tenant.
-                llm = LlmUtils.getOrCreatePanguLLM(chatOptions)
-                        .orElseThrow(() -> new PanguDevSDKException("Pangu LLM initialization failed for Tenant Request."));
-            } else {
-                // Use the default client.
-                llm = this.pangu;
+    public ChatResponse call(Prompt request) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        Prompt prompt = this.compactHistory(request);
+        HuaweiAiPanguObservationContext observationContext = ApiUtils.toObservationContext(HuaweiAiPanguObservationContext.OPERATION_CHAT, prompt);
+        return this.observation(observationContext).observe(() -> {
+            HuaweiAiPanguChatOptions mergedOptions = this.toMergedOptions(prompt, Boolean.FALSE);
+            // Serve repeated prompts from the response cache.
+            String cacheKey = null;
+            if (Objects.nonNull(this.responseCache)) {
+                cacheKey = this.responseCache.key(LlmUtils.getTenantKey(prompt.getOptions()), prompt.getInstructions(), mergedOptions);
+                LLMResp cached = this.responseCache.lookup(cacheKey);
+                if (Objects.nonNull(cached)) {
+                    return this.observeResponse(this.toChatCompletion(cached, true), observationContext);
+                }
             }
+            String responseCacheKey = cacheKey;
+            // execute the request
+            return retryTemplate.execute(ctx -> {
+                observationContext.setRetryCount(ctx.getRetryCount());
 
-            // runtime options
-            HuaweiAiPanguChatOptions runtimeOptions = null;
-            if (prompt.getOptions() != null) {
-                if (prompt.getOptions() instanceof ChatOptions runtimeChatOptions) {
-                    runtimeOptions = ModelOptionsUtils.copyToTarget(runtimeChatOptions, ChatOptions.class, HuaweiAiPanguChatOptions.class);
+                // Use tenant specific client if available.
+                Pangu llm;
+                if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
+                    // Create the Pangu LLM for Tenant.
+                    llm = this.tenantClients.getOrCreatePanguLLM(chatOptions)
+                            .orElseThrow(() -> new PanguDevSDKException("Pangu LLM initialization failed for Tenant Request."));
+                } else {
+                    // Use the default client.
+                    llm = this.pangu;
                 }
-                else {
-                    throw new IllegalArgumentException("Prompt options are not of type ChatOptions: " + prompt.getOptions().getClass().getSimpleName());
+
+                // Build LLMParamConfig from the merged options.
+                LLMParamConfig paramConfig = ApiUtils.toLLMParamConfig(mergedOptions);
+
+                // Ask the model within the tenant's rate and concurrency limits.
+                Pangu tenantLlm = llm;
+                String tenant = LlmUtils.getTenantKey(prompt.getOptions());
+                LLMRespPangu panguChatResp = this.rateLimiter.execute(tenant, LlmUtils.getModuleVersion(prompt.getOptions()),
+                        this.rateLimiter.estimateTokens(observationContext.getRequestSize()),
+                        () -> this.circuitBreaker.execute(LlmUtils.getEndpointKey(prompt.getOptions()), () -> this.concurrencyLimiter.execute(tenant, () -> {
+                            // If there is only one instruction, ask the model by prompt.
+                            if(prompt.getInstructions().size() == 1){
+                                var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
+                                return tenantLlm.ask(inputContent, paramConfig);
+                            }
+                            return tenantLlm.ask(ApiUtils.toConversationMessage(prompt.getInstructions()), paramConfig);
+                        })),
+                        resp -> Objects.nonNull(resp.getPanguChatResp()) ? ApiUtils.totalTokens(resp.getPanguChatResp().getUsage()) : -1);
+                if (panguChatResp == null) {
+                    log.warn("No chat completion returned for prompt: {}", prompt);
+                    return new ChatResponse(List.of());
                 }
-            }
+                if (Objects.nonNull(responseCacheKey) && Objects.nonNull(panguChatResp.getPanguChatResp())) {
+                    this.responseCache.update(responseCacheKey, panguChatResp);
+                }
+                return this.observeResponse(this.toChatCompletion(panguChatResp, false), observationContext);
+            });
+        });
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt request) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        Prompt prompt = this.compactHistory(request);
+        return Flux.defer(() -> {
+            HuaweiAiPanguObservationContext observationContext = ApiUtils.toObservationContext(HuaweiAiPanguObservationContext.OPERATION_CHAT_STREAM, prompt);
+            Observation observation = this.observation(observationContext).start();
+            return this.internalStream(prompt, observationContext)
+                    .doOnNext(chatResponse -> observationContext.addResponseSize(ApiUtils.contentLength(chatResponse)))
+                    .doOnError(observation::error)
+                    .doOnCancel(() -> observationContext.setCancelled(true))
+                    .doFinally(signalType -> observation.stop());
+        });
+    }
 
-            // Merge runtime options with default options.
-            HuaweiAiPanguChatOptions mergedOptions = ModelOptionsUtils.merge(runtimeOptions, this.defaultOptions, HuaweiAiPanguChatOptions.class);
-            mergedOptions.setStream(Boolean.FALSE);
+    private Flux<ChatResponse> internalStream(Prompt prompt, HuaweiAiPanguObservationContext observationContext) {
+        // Retry the subscription itself: failures before the first token are retried with backoff, later ones resumed or surfaced.
+        return streamExecutor.executeWithRetry(LlmUtils.getTenantKey(prompt.getOptions()), LlmUtils.getModuleVersion(prompt.getOptions()), (attempt, callBack) -> {
+            observationContext.setRetryCount(attempt.retryCount());
+            Prompt attemptPrompt = attempt.isResume() ? ApiUtils.toResumePrompt(prompt, attempt.partialAnswer()) : prompt;
 
-            // Build LLMParamConfig from the merged options.
-            LLMParamConfig paramConfig = ApiUtils.toLLMParamConfig(mergedOptions);
+            // Build LLMParamConfig from the merged options, it is passed per request so pooled LLM instances can be shared.
+            LLMParamConfig paramConfig = ApiUtils.toLLMParamConfig(this.toMergedOptions(prompt, Boolean.TRUE));
 
-            // Ask the model.
-            LLMRespPangu panguChatResp;
-            // If there is only one instruction, ask the model by prompt.
-            if(prompt.getInstructions().size() == 1){
-                var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
-                panguChatResp = llm.ask(inputContent, paramConfig);
+            // Use tenant specific LLM pool if available.
+            PanguLlmPool llmPool;
+            if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
+                llmPool = this.tenantClients.getOrCreatePanguLLMPool(chatOptions)
+                        .orElseThrow(() -> new PanguDevSDKException("Pangu LLM initialization failed for Tenant Request."));
             } else {
-                panguChatResp = llm.ask(ApiUtils.toConversationMessage(prompt.getInstructions()), paramConfig);
-            }
-            if (panguChatResp == null) {
-                log.warn("No chat completion returned for prompt: {}", prompt);
-                return new ChatResponse(List.of());
+                llmPool = this.streamLlmPool;
             }
-            return this.toChatCompletion(panguChatResp);
+
+            // Ask the model within the tenant's rate and concurrency limits, the call blocks until the stream terminates.
+            String tenant = LlmUtils.getTenantKey(prompt.getOptions());
+            long promptTokens = this.rateLimiter.estimateTokens(observationContext.getRequestSize());
+            this.rateLimiter.run(tenant, LlmUtils.getModuleVersion(prompt.getOptions()), promptTokens,
+                    () -> this.circuitBreaker.run(LlmUtils.getEndpointKey(prompt.getOptions()), () -> this.concurrencyLimiter.run(tenant, () -> {
+                        // The stream callback is bound to the LLM instance, so borrow one exclusively once the limits admit the stream
+                        // and return it only after the blocking call has unwound on this thread.
+                        Pangu llm = llmPool.borrow();
+                        try {
+                            llm.setStreamCallback(callBack);
+                            // If there is only one instruction, ask the model by prompt.
+                            if(attemptPrompt.getInstructions().size() == 1){
+                                var inputContent = CollectionUtils.firstElement(attemptPrompt.getInstructions()).getContent();
+                                llm.ask(inputContent, paramConfig);
+                            } else {
+                                llm.ask(ApiUtils.toConversationMessage(attemptPrompt.getInstructions()), paramConfig);
+                            }
+                        } finally {
+                            llmPool.release(llm);
+                        }
+                    })),
+                    // The stream reports no usage, charge the prompt plus the answer it read, even if it broke off.
+                    () -> callBack.getAnswerLength() > 0 ? promptTokens + this.rateLimiter.estimateTokens(callBack.getAnswerLength()) : -1);
         });
     }
 
-    @Override
-    public Flux<ChatResponse> stream(Prompt prompt) {
+    public void setStreamExecutor(HuaweiAiPanguStreamExecutor streamExecutor) {
+        Assert.notNull(streamExecutor, "StreamExecutor must not be null");
+        this.streamExecutor = streamExecutor;
+    }
 
-        Assert.notEmpty(prompt.getInstructions(), "At least one text is required!");
+    public void setConcurrencyLimiter(HuaweiAiPanguConcurrencyLimiter concurrencyLimiter) {
+        Assert.notNull(concurrencyLimiter, "ConcurrencyLimiter must not be null");
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
 
-        // execute the request
-        return retryTemplate.execute(ctx -> Flux.create(sink -> {
+    public void setRateLimiter(HuaweiAiPanguRateLimiter rateLimiter) {
+        Assert.notNull(rateLimiter, "RateLimiter must not be null");
+        this.rateLimiter = rateLimiter;
+    }
 
-            // runtime options
-            HuaweiAiPanguChatOptions runtimeOptions = null;
-            if (prompt.getOptions() != null) {
-                if (prompt.getOptions() instanceof ChatOptions runtimeChatOptions) {
-                    runtimeOptions = ModelOptionsUtils.copyToTarget(runtimeChatOptions, ChatOptions.class, HuaweiAiPanguChatOptions.class);
-                }
-                else {
-                    throw new IllegalArgumentException("Prompt options are not of type ChatOptions: " + prompt.getOptions().getClass().getSimpleName());
-                }
-            }
+    public void setTenantClients(HuaweiAiPanguTenantClients tenantClients) {
+        Assert.notNull(tenantClients, "TenantClients must not be null");
+        this.tenantClients = tenantClients;
+        // Pool the default LLM instances with the same limits as the tenant pools, nothing is borrowed yet.
+        PanguLlmPool previous = this.streamLlmPool;
+        this.streamLlmPool = tenantClients.createLlmPool(this.defaultLlmConfig);
+        previous.close();
+    }
 
-            // Merge runtime options with default options.
-            HuaweiAiPanguChatOptions mergedOptions = ModelOptionsUtils.merge(runtimeOptions, this.defaultOptions, HuaweiAiPanguChatOptions.class);
-            mergedOptions.setStream(Boolean.TRUE);
+    public void setCircuitBreaker(HuaweiAiPanguCircuitBreaker circuitBreaker) {
+        Assert.notNull(circuitBreaker, "CircuitBreaker must not be null");
+        this.circuitBreaker = circuitBreaker;
+    }
 
-            // Use tenant specific client if available.
-            LLM llm;
-            if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
-                // Build LLMConfig from the chat options.
-                LLMConfig llmConfig = LLMConfig.builder()
-                        .httpConfig(ApiUtils.toHTTPConfig(chatOptions.getHttpProxyOptions()))
-                        .iamConfig(ApiUtils.toIAMConfig(chatOptions.getIamOptions()))
-                        .llmParamConfig(ApiUtils.toLLMParamConfig(chatOptions))
-                        .llmModuleConfig(ApiUtils.toLLMModuleConfig(chatOptions.getModuleOptions()))
-                        .build();
-                // Create the LLM.
-                llm = LLMs.of(LLMs.PANGU, llmConfig);
-            } else {
-                // Build LLMConfig from the merged options.
-                LLMConfig llmConfig = LLMConfig.builder()
-                        .llmParamConfig(ApiUtils.toLLMParamConfig(mergedOptions))
-                        .build();
-                // Merge the default LLMConfig with the merged options.
-                LLMConfig mergedLLMConfig = ModelOptionsUtils.merge(llmConfig, this.defaultLlmConfig, LLMConfig.class);
-                // Create the LLM.
-                llm = LLMs.of(LLMs.PANGU, mergedLLMConfig);
-            }
-            llm.setStreamCallback(new HuaweiAiPanguStreamCallBack(sink));
-            // Ask the model.
-            // If there is only one instruction, ask the model by prompt.
-            if(prompt.getInstructions().size() == 1){
-                var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
-                llm.ask(inputContent);
-            } else {
-                llm.ask(ApiUtils.toConversationMessage(prompt.getInstructions()));
-            }
-        }));
+    public void setHistoryCompactor(HuaweiAiPanguHistoryCompactor historyCompactor) {
+        Assert.notNull(historyCompactor, "HistoryCompactor must not be null");
+        this.historyCompactor = historyCompactor;
     }
 
-    private ChatResponse toChatCompletion(LLMRespPangu chunk) {
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        Assert.notNull(observationRegistry, "ObservationRegistry must not be null");
+        this.observationRegistry = observationRegistry;
+    }
 
-        PanguChatResp resp = chunk.getPanguChatResp();
+    public void setObservationConvention(HuaweiAiPanguObservationConvention observationConvention) {
+        this.observationConvention = observationConvention;
+    }
+
+    /**
+     * Compact the history before anything is derived from the prompt, the answer reserved by maxTokens counts against the budget.
+     */
+    private Prompt compactHistory(Prompt prompt) {
+        if (!this.historyCompactor.isEnabled()) {
+            return prompt;
+        }
+        return this.historyCompactor.compact(prompt, this.toMergedOptions(prompt, Boolean.FALSE).getMaxTokens());
+    }
+
+    private Observation observation(HuaweiAiPanguObservationContext observationContext) {
+        return HuaweiAiPanguObservationDocumentation.CLIENT_OPERATION.observation(this.observationConvention,
+                DefaultHuaweiAiPanguObservationConvention.INSTANCE, () -> observationContext, this.observationRegistry);
+    }
+
+    private HuaweiAiPanguChatOptions toMergedOptions(Prompt prompt, Boolean stream) {
+        // Merge runtime options with default options.
+        return this.optionsMerger.merge(prompt.getOptions(), stream);
+    }
+
+    private ChatResponse observeResponse(ChatResponse chatResponse, HuaweiAiPanguObservationContext observationContext) {
+        observationContext.setUsage(chatResponse.getMetadata().getUsage());
+        observationContext.setResponseSize(ApiUtils.contentLength(chatResponse));
+        return chatResponse;
+    }
+
+    private ChatResponse toChatCompletion(LLMResp chunk, boolean fromCache) {
+
+        if (!(chunk instanceof LLMRespPangu panguChunk) || Objects.isNull(panguChunk.getPanguChatResp())) {
+            // Entries not written by this client only carry the answer.
+            return ApiUtils.toChatResponse(null, chunk, true);
+        }
+
+        PanguChatResp resp = panguChunk.getPanguChatResp();
+        boolean isFromCache = fromCache || chunk.isFromCache();
 
         List<Generation> generations = resp.getChoices()
                 .stream()
-                .map(choice -> new Generation(choice.getMessage().getContent(), ApiUtils.toMap(resp.getId(), choice))
-                        .withGenerationMetadata(ChatGenerationMetadata.from("chat.completion", ApiUtils.extractUsage(resp))))
+                .map(choice -> {
+                    Map<String, Object> properties = ApiUtils.toMap(resp.getId(), choice);
+                    properties.put("isFromCache", isFromCache);
+                    return new Generation(choice.getMessage().getContent(), properties)
+                            .withGenerationMetadata(ChatGenerationMetadata.from("chat.completion", ApiUtils.extractUsage(resp)));
+                })
                 .toList();
 
         return new ChatResponse(generations, HuaweiAiPanguChatResponseMetadata.from(resp));
     }
 
+    public void setResponseCache(HuaweiAiPanguChatResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
 }
@@ -5,40 +5,107 @@ import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatMessage;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatReq;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatResp;
 import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.StreamingChatClient;
 import org.springframework.ai.chat.messages.MessageType;
-import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.huaweiai.pangu.metrics.DefaultHuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationContext;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationDocumentation;
 import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.ChatOptionsMerger;
 import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
-import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HuaweiAiPanguChatClient implements ChatClient, StreamingChatClient {
 
+    /**
+     * Circuit breaker key of hedge requests sent to the alternate endpoint.
+     */
+    public static final String HEDGE_ENDPOINT_KEY = "hedge";
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     /**
      * Default options to be used for all chat requests.
      */
     private final HuaweiAiPanguChatOptions defaultOptions;
+    /**
+     * Merges runtime options with the default options.
+     */
+    private final ChatOptionsMerger optionsMerger;
     /**
      * 华为 盘古大模型 LLM library.
      */
     private final PanguClient panguClient;
 
     private final RetryTemplate retryTemplate;
+    /**
+     * Executes the blocking SDK stream calls off the subscribing thread.
+     */
+    private HuaweiAiPanguStreamExecutor streamExecutor = HuaweiAiPanguStreamExecutor.DEFAULT;
+    /**
+     * Executes {@link #callAsync(Prompt)} requests.
+     */
+    private HuaweiAiPanguAsyncExecutor asyncExecutor = HuaweiAiPanguAsyncExecutor.DEFAULT;
+    /**
+     * Limits the in-flight SDK calls per tenant.
+     */
+    private HuaweiAiPanguConcurrencyLimiter concurrencyLimiter = HuaweiAiPanguConcurrencyLimiter.UNLIMITED;
+    /**
+     * Limits the requests and tokens per minute per tenant and model.
+     */
+    private HuaweiAiPanguRateLimiter rateLimiter = HuaweiAiPanguRateLimiter.UNLIMITED;
+    /**
+     * Caches the SDK clients of tenant requests, this client's own unless shared ones are injected.
+     */
+    private HuaweiAiPanguTenantClients tenantClients = new HuaweiAiPanguTenantClients();
+    /**
+     * Fails fast while the endpoint of a request is degraded.
+     */
+    private HuaweiAiPanguCircuitBreaker circuitBreaker = HuaweiAiPanguCircuitBreaker.DISABLED;
+    /**
+     * Keeps long conversation histories within the context budget of the model.
+     */
+    private HuaweiAiPanguHistoryCompactor historyCompactor = HuaweiAiPanguHistoryCompactor.DISABLED;
+    /**
+     * Shares one upstream call between identical concurrent requests.
+     */
+    private HuaweiAiPanguRequestCoalescer coalescer = HuaweiAiPanguRequestCoalescer.DISABLED;
+    /**
+     * Records an observation per request, no-op unless a registry is configured.
+     */
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    private HuaweiAiPanguObservationConvention observationConvention;
+    /**
+     * Optional hedging of {@link #call(Prompt)}, disabled when null.
+     */
+    private HuaweiAiPanguHedger hedger;
+    /**
+     * Optional client of an alternate endpoint for hedge requests, the hedge uses {@link #panguClient} when null.
+     */
+    private PanguClient hedgeClient;
+    /**
+     * Optional semantic response cache, disabled when null.
+     */
+    private HuaweiAiPanguSemanticCache semanticCache;
 
     public HuaweiAiPanguChatClient(PanguClient panguClient) {
         this(panguClient, HuaweiAiPanguChatOptions.builder()
@@ -58,64 +125,301 @@ public class HuaweiAiPanguChatClient implements ChatClient, StreamingChatClient
         Assert.notNull(options, "Options must not be null");
         Assert.notNull(retryTemplate, "RetryTemplate must not be null");
         this.defaultOptions = options;
+        this.optionsMerger = new ChatOptionsMerger(options);
         this.panguClient = panguClient;
         this.retryTemplate = retryTemplate;
     }
 
     @Override
-    public ChatResponse call(Prompt prompt) {
-        // execute the request
-        return retryTemplate.execute(ctx -> {
-            Assert.notEmpty(prompt.getInstructions(), "At least one text is required!");
-            // Use tenant specific client if available.
-            PanguClient llmClient;
-            if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
-                llmClient = LlmUtils.getOrCreatePanguClient(chatOptions)
-                        .orElseThrow(() -> new PanguDevSDKException("PanguClient initialization failed for Tenant Request."));
-            } else {
-                llmClient = this.panguClient;
+    public ChatResponse call(Prompt request) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        Prompt prompt = this.compactHistory(request);
+        HuaweiAiPanguObservationContext observationContext = ApiUtils.toObservationContext(HuaweiAiPanguObservationContext.OPERATION_CHAT, prompt);
+        return this.observation(observationContext).observe(() -> {
+            // Serve paraphrased questions from the semantic cache.
+            HuaweiAiPanguSemanticCache.Lookup lookup = Objects.nonNull(this.semanticCache)
+                    ? this.semanticLookup(prompt) : null;
+            if (Objects.nonNull(lookup) && lookup.isHit()) {
+                observationContext.setResponseSize(ApiUtils.contentLength(lookup.response()));
+                return lookup.response();
             }
-            // Ask the model.
-            PanguChatResp panguChatResp;
-            // If there is only one instruction, ask the model by prompt.
-            if(prompt.getInstructions().size() == 1){
-                var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
-                panguChatResp = llmClient.createChat(inputContent);
-            } else {
-                var request = createRequest(prompt, false);
-                panguChatResp = llmClient.createChat(request);
+            ChatResponse chatResponse = this.coalescedCall(prompt, observationContext);
+            if (Objects.nonNull(lookup)) {
+                this.semanticCache.put(lookup, chatResponse);
             }
-            if (panguChatResp == null) {
-                log.warn("No chat completion returned for prompt: {}", prompt);
-                return new ChatResponse(List.of());
+            return chatResponse;
+        });
+    }
+
+    /**
+     * Identical concurrent requests wait for the one already in flight instead of asking the model again.
+     */
+    private ChatResponse coalescedCall(Prompt prompt, HuaweiAiPanguObservationContext observationContext) {
+        if (!this.coalescer.isEnabled()) {
+            return this.internalCall(prompt, observationContext);
+        }
+        ChatResponse chatResponse = this.coalescer.execute(this.coalescingKey(prompt, false), () -> this.internalCall(prompt, observationContext));
+        // Requests sharing another call consumed no tokens, only their response size is recorded.
+        observationContext.setResponseSize(ApiUtils.contentLength(chatResponse));
+        return chatResponse;
+    }
+
+    private HuaweiAiPanguSemanticCache.Lookup semanticLookup(Prompt prompt) {
+        return this.semanticCache.lookup(LlmUtils.getTenantKey(prompt.getOptions()), prompt, this.optionsMerger.merge(prompt.getOptions(), false));
+    }
+
+    private String coalescingKey(Prompt prompt, boolean stream) {
+        return this.coalescer.key(LlmUtils.getTenantKey(prompt.getOptions()), LlmUtils.getEndpointKey(prompt.getOptions()),
+                prompt.getInstructions(), this.optionsMerger.merge(prompt.getOptions(), stream));
+    }
+
+    private ChatResponse internalCall(Prompt prompt, HuaweiAiPanguObservationContext observationContext) {
+        // execute the request
+        return retryTemplate.execute(ctx -> {
+            observationContext.setRetryCount(ctx.getRetryCount());
+            if (Objects.nonNull(this.hedger)) {
+                // Race a slow attempt with a duplicate, the loser is cancelled and only the winner is recorded.
+                return HuaweiAiPanguCircuitBreaker.attempt(ctx, () -> this.hedger.execute(hedge -> this.asyncExecutor.submit(() -> this.limitedCall(prompt, observationContext, hedge)))
+                        .doOnNext(chatResponse -> this.recordResponse(observationContext, chatResponse))
+                        .block());
             }
-            return ApiUtils.toChatResponse(panguChatResp);
+            ChatResponse chatResponse = this.limitedCall(prompt, observationContext, false);
+            this.recordResponse(observationContext, chatResponse);
+            return chatResponse;
+        });
+    }
+
+    /**
+     * Record the usage and size of the response the caller receives.
+     */
+    private void recordResponse(HuaweiAiPanguObservationContext observationContext, ChatResponse chatResponse) {
+        observationContext.setUsage(chatResponse.getMetadata().getUsage());
+        observationContext.setResponseSize(ApiUtils.contentLength(chatResponse));
+    }
+
+    /**
+     * Ask the model once within the tenant's rate and concurrency limits.
+     */
+    private ChatResponse limitedCall(Prompt prompt, HuaweiAiPanguObservationContext observationContext, boolean hedge) {
+        String tenant = LlmUtils.getTenantKey(prompt.getOptions());
+        String endpoint = this.getEndpointKey(prompt, hedge);
+        // Wait for the rate quota before taking a concurrency permit, so requests waiting for quota hold no permit.
+        return this.rateLimiter.execute(tenant, LlmUtils.getModuleVersion(prompt.getOptions()),
+                this.rateLimiter.estimateTokens(observationContext.getRequestSize()),
+                () -> this.circuitBreaker.execute(endpoint,
+                        () -> this.concurrencyLimiter.execute(tenant, () -> this.createChat(prompt, hedge))),
+                chatResponse -> ApiUtils.totalTokens(chatResponse));
+    }
+
+    /**
+     * Hedge requests sent to the alternate endpoint have a circuit of their own.
+     */
+    private String getEndpointKey(Prompt prompt, boolean hedge) {
+        if (hedge && Objects.nonNull(this.hedgeClient) && !(prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions)) {
+            return HEDGE_ENDPOINT_KEY;
+        }
+        return LlmUtils.getEndpointKey(prompt.getOptions());
+    }
+
+    /**
+     * 异步调用，在异步执行器上执行阻塞的 SDK 调用，重试退避不占用线程；取消订阅即放弃请求。
+     * 需要 {@link java.util.concurrent.CompletableFuture} 时使用 {@code callAsync(prompt).toFuture()}。
+     * @param prompt 提示词
+     * @return Mono
+     */
+    public Mono<ChatResponse> callAsync(Prompt prompt) {
+        return this.callAsync(prompt, null);
+    }
+
+    /**
+     * 异步调用，在异步执行器上执行阻塞的 SDK 调用，重试退避不占用线程；取消订阅即放弃请求。
+     * @param request 提示词
+     * @param timeout 本次调用的超时时间（含重试），为空时使用异步执行器的默认超时时间
+     * @return Mono
+     */
+    public Mono<ChatResponse> callAsync(Prompt request, Duration timeout) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        Prompt prompt = this.compactHistory(request);
+        return Mono.defer(() -> {
+            HuaweiAiPanguObservationContext observationContext = ApiUtils.toObservationContext(HuaweiAiPanguObservationContext.OPERATION_CHAT, prompt);
+            Observation observation = this.observation(observationContext).start();
+            // The semantic lookup embeds the question, so it runs on the async executor as well.
+            Mono<Optional<HuaweiAiPanguSemanticCache.Lookup>> lookup = Objects.nonNull(this.semanticCache)
+                    ? this.asyncExecutor.submit(() -> Optional.ofNullable(this.semanticLookup(prompt)))
+                    : Mono.just(Optional.empty());
+            Mono<ChatResponse> response = lookup.flatMap(semanticLookup -> {
+                if (semanticLookup.isPresent() && semanticLookup.get().isHit()) {
+                    observationContext.setResponseSize(ApiUtils.contentLength(semanticLookup.get().response()));
+                    return Mono.just(semanticLookup.get().response());
+                }
+                AtomicInteger attempts = new AtomicInteger();
+                return this.asyncExecutor.submitWithRetry(() -> {
+                            observationContext.setRetryCount(attempts.getAndIncrement());
+                            return this.limitedCall(prompt, observationContext, false);
+                        })
+                        .doOnNext(chatResponse -> {
+                            this.recordResponse(observationContext, chatResponse);
+                            semanticLookup.ifPresent(hit -> this.semanticCache.put(hit, chatResponse));
+                        });
+            });
+            return this.asyncExecutor.withTimeout(response, timeout)
+                    .doOnError(observation::error)
+                    .doOnCancel(() -> observationContext.setCancelled(true))
+                    .doFinally(signalType -> observation.stop());
         });
     }
 
+    /**
+     * Ask the model once, retries are left to the caller. Hedge requests use the alternate client if configured.
+     * The response carries the usage, the caller records it once it knows which attempt won.
+     */
+    private ChatResponse createChat(Prompt prompt, boolean hedge) {
+        // Use tenant specific client if available.
+        PanguClient llmClient;
+        if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
+            llmClient = this.tenantClients.getOrCreatePanguClient(chatOptions)
+                    .orElseThrow(() -> new PanguDevSDKException("PanguClient initialization failed for Tenant Request."));
+        } else {
+            llmClient = hedge && Objects.nonNull(this.hedgeClient) ? this.hedgeClient : this.panguClient;
+        }
+        // Ask the model.
+        PanguChatResp panguChatResp;
+        // If there is only one instruction, ask the model by prompt.
+        if(prompt.getInstructions().size() == 1){
+            var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
+            panguChatResp = llmClient.createChat(inputContent);
+        } else {
+            var request = createRequest(prompt, false);
+            panguChatResp = llmClient.createChat(request);
+        }
+        if (panguChatResp == null) {
+            log.warn("No chat completion returned for prompt: {}", prompt);
+            return new ChatResponse(List.of());
+        }
+        return ApiUtils.toChatResponse(panguChatResp);
+    }
 
     @Override
-    public Flux<ChatResponse> stream(Prompt prompt) {
-        // execute the request
-        return retryTemplate.execute(ctx -> Flux.create(sink -> {
-            Assert.notEmpty(prompt.getInstructions(), "At least one text is required!");
+    public Flux<ChatResponse> stream(Prompt request) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        Prompt prompt = this.compactHistory(request);
+        return Flux.defer(() -> {
+            HuaweiAiPanguObservationContext observationContext = ApiUtils.toObservationContext(HuaweiAiPanguObservationContext.OPERATION_CHAT_STREAM, prompt);
+            Observation observation = this.observation(observationContext).start();
+            return this.coalescer.stream(this.coalescingKey(prompt, true), () -> this.internalStream(prompt, observationContext))
+                    .doOnNext(chatResponse -> observationContext.addResponseSize(ApiUtils.contentLength(chatResponse)))
+                    .doOnError(observation::error)
+                    .doOnCancel(() -> observationContext.setCancelled(true))
+                    .doFinally(signalType -> observation.stop());
+        });
+    }
+
+    private Flux<ChatResponse> internalStream(Prompt prompt, HuaweiAiPanguObservationContext observationContext) {
+        // Retry the subscription itself: failures before the first token are retried with backoff, later ones resumed or surfaced.
+        return streamExecutor.executeWithRetry(LlmUtils.getTenantKey(prompt.getOptions()), LlmUtils.getModuleVersion(prompt.getOptions()), (attempt, callBack) -> {
+            observationContext.setRetryCount(attempt.retryCount());
+            Prompt attemptPrompt = attempt.isResume() ? ApiUtils.toResumePrompt(prompt, attempt.partialAnswer()) : prompt;
             // Use tenant specific client if available.
             PanguClient llmClient;
             if(prompt.getOptions() != null && prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions){
-                llmClient = LlmUtils.getOrCreatePanguClient(chatOptions)
+                llmClient = this.tenantClients.getOrCreatePanguClient(chatOptions)
                         .orElseThrow(() -> new PanguDevSDKException("PanguClient initialization failed for Tenant Request."));
             } else {
                 llmClient = this.panguClient;
             }
-            // Ask the model.
-            if(prompt.getInstructions().size() == 1){
-                var inputContent = CollectionUtils.firstElement(prompt.getInstructions()).getContent();
-                llmClient.createStreamChat(inputContent, new HuaweiAiPanguStreamCallBack(sink));
-            } else {
-                var request = createRequest(prompt, true);
-                llmClient.createStreamChat(request, new HuaweiAiPanguStreamCallBack(sink));
-            }
-        }));
+            // Ask the model within the tenant's rate and concurrency limits, the call blocks until the stream terminates.
+            PanguClient tenantClient = llmClient;
+            String tenant = LlmUtils.getTenantKey(prompt.getOptions());
+            long promptTokens = this.rateLimiter.estimateTokens(observationContext.getRequestSize());
+            this.rateLimiter.run(tenant, LlmUtils.getModuleVersion(prompt.getOptions()), promptTokens,
+                    () -> this.circuitBreaker.run(LlmUtils.getEndpointKey(prompt.getOptions()), () -> this.concurrencyLimiter.run(tenant, () -> {
+                        if(attemptPrompt.getInstructions().size() == 1){
+                            var inputContent = CollectionUtils.firstElement(attemptPrompt.getInstructions()).getContent();
+                            tenantClient.createStreamChat(inputContent, callBack);
+                        } else {
+                            var request = createRequest(attemptPrompt, true);
+                            tenantClient.createStreamChat(request, callBack);
+                        }
+                    })),
+                    // The stream reports no usage, charge the prompt plus the answer it read, even if it broke off.
+                    () -> callBack.getAnswerLength() > 0 ? promptTokens + this.rateLimiter.estimateTokens(callBack.getAnswerLength()) : -1);
+        });
+    }
+
+    public void setStreamExecutor(HuaweiAiPanguStreamExecutor streamExecutor) {
+        Assert.notNull(streamExecutor, "StreamExecutor must not be null");
+        this.streamExecutor = streamExecutor;
+    }
+
+    public void setAsyncExecutor(HuaweiAiPanguAsyncExecutor asyncExecutor) {
+        Assert.notNull(asyncExecutor, "AsyncExecutor must not be null");
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public void setConcurrencyLimiter(HuaweiAiPanguConcurrencyLimiter concurrencyLimiter) {
+        Assert.notNull(concurrencyLimiter, "ConcurrencyLimiter must not be null");
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public void setRateLimiter(HuaweiAiPanguRateLimiter rateLimiter) {
+        Assert.notNull(rateLimiter, "RateLimiter must not be null");
+        this.rateLimiter = rateLimiter;
+    }
+
+    public void setTenantClients(HuaweiAiPanguTenantClients tenantClients) {
+        Assert.notNull(tenantClients, "TenantClients must not be null");
+        this.tenantClients = tenantClients;
+    }
+
+    public void setCircuitBreaker(HuaweiAiPanguCircuitBreaker circuitBreaker) {
+        Assert.notNull(circuitBreaker, "CircuitBreaker must not be null");
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public void setHistoryCompactor(HuaweiAiPanguHistoryCompactor historyCompactor) {
+        Assert.notNull(historyCompactor, "HistoryCompactor must not be null");
+        this.historyCompactor = historyCompactor;
+    }
+
+    public void setCoalescer(HuaweiAiPanguRequestCoalescer coalescer) {
+        Assert.notNull(coalescer, "RequestCoalescer must not be null");
+        this.coalescer = coalescer;
+    }
+
+    public void setHedger(HuaweiAiPanguHedger hedger) {
+        this.hedger = hedger;
+    }
+
+    public void setHedgeClient(PanguClient hedgeClient) {
+        this.hedgeClient = hedgeClient;
+    }
+
+    public void setSemanticCache(HuaweiAiPanguSemanticCache semanticCache) {
+        this.semanticCache = semanticCache;
+    }
+
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        Assert.notNull(observationRegistry, "ObservationRegistry must not be null");
+        this.observationRegistry = observationRegistry;
+    }
+
+    public void setObservationConvention(HuaweiAiPanguObservationConvention observationConvention) {
+        this.observationConvention = observationConvention;
+    }
+
+    /**
+     * Compact the history before anything is derived from the prompt, the answer reserved by maxTokens counts against the budget.
+     */
+    private Prompt compactHistory(Prompt prompt) {
+        if (!this.historyCompactor.isEnabled()) {
+            return prompt;
+        }
+        return this.historyCompactor.compact(prompt, this.optionsMerger.merge(prompt.getOptions(), false).getMaxTokens());
+    }
+
+    private Observation observation(HuaweiAiPanguObservationContext observationContext) {
+        return HuaweiAiPanguObservationDocumentation.CLIENT_OPERATION.observation(this.observationConvention,
+                DefaultHuaweiAiPanguObservationConvention.INSTANCE, () -> observationContext, this.observationRegistry);
     }
 
     /**
@@ -132,19 +436,8 @@ public class HuaweiAiPanguChatClient implements ChatClient, StreamingChatClient
                 .map(m -> PanguChatMessage.builder().role(ApiUtils.toRole(m).getText()).content(m.getContent()).build())
                 .toList();
 
-        // runtime options
-        HuaweiAiPanguChatOptions runtimeOptions = null;
-        if (prompt.getOptions() != null) {
-            if (prompt.getOptions() instanceof ChatOptions runtimeChatOptions) {
-                runtimeOptions = ModelOptionsUtils.copyToTarget(runtimeChatOptions, ChatOptions.class, HuaweiAiPanguChatOptions.class);
-            }
-            else {
-                throw new IllegalArgumentException("Prompt options are not of type ChatOptions: " + prompt.getOptions().getClass().getSimpleName());
-            }
-        }
-
         // Merge runtime options with default options.
-        HuaweiAiPanguChatOptions mergedOptions = ModelOptionsUtils.merge(runtimeOptions, this.defaultOptions, HuaweiAiPanguChatOptions.class);
+        HuaweiAiPanguChatOptions mergedOptions = this.optionsMerger.merge(prompt.getOptions(), stream);
 
         // Build the PanguChatReq.
         return PanguChatReq.builder()
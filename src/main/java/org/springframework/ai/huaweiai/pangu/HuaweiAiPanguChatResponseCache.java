@@ -0,0 +1,117 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
+import com.huaweicloud.pangu.dev.sdk.api.memory.cache.Cache;
+import com.huaweicloud.pangu.dev.sdk.api.memory.cache.Caches;
+import com.huaweicloud.pangu.dev.sdk.api.memory.config.CacheStoreConfig;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 聊天响应缓存：基于 SDK 内存缓存，以租户、模型参数及规范化后的消息为键，
+ * 同时适用于默认 Pangu 实例与租户 Pangu 实例。
+ */
+public class HuaweiAiPanguChatResponseCache {
+
+    private static final Pattern LINE_BREAKS = Pattern.compile("\\r\\n?");
+    private static final Pattern TRAILING_SPACES = Pattern.compile("[ \\t\\x0B\\f]+(?=\\n|$)");
+    private static final Pattern SPACES = Pattern.compile("[ \\t\\x0B\\f]{2,}");
+
+    private final Cache cache;
+    private final boolean normalizeWhitespace;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maximumSize 最多缓存的响应数量
+     * @param expireAfterWrite 写入后过期时间，可为 null
+     * @param expireAfterAccess 访问后过期时间，可为 null
+     * @param sessionTag SDK 内存缓存的会话标识
+     * @param normalizeWhitespace 计算缓存键前是否规范化空白字符
+     */
+    public HuaweiAiPanguChatResponseCache(int maximumSize, Duration expireAfterWrite, Duration expireAfterAccess,
+                                          String sessionTag, boolean normalizeWhitespace) {
+        CacheStoreConfig.CacheStoreConfigBuilder builder = CacheStoreConfig.builder()
+                .maximumSize(maximumSize)
+                .sessionTag(sessionTag);
+        if (Objects.nonNull(expireAfterWrite)) {
+            builder.expireAfterWrite((int) expireAfterWrite.toSeconds());
+        }
+        if (Objects.nonNull(expireAfterAccess)) {
+            builder.expireAfterAccess((int) expireAfterAccess.toSeconds());
+        }
+        this.cache = Caches.of(Caches.IN_MEMORY, builder.build());
+        this.normalizeWhitespace = normalizeWhitespace;
+    }
+
+    /**
+     * 计算缓存键，仅包含影响模型输出的参数，忽略 stream 等传输参数
+     * @param tenantKey 租户标识
+     * @param messages 消息
+     * @param options 合并后的聊天配置
+     * @return 缓存键
+     */
+    public String key(String tenantKey, List<Message> messages, HuaweiAiPanguChatOptions options) {
+        StringJoiner joiner = new StringJoiner("\u0000");
+        joiner.add(Objects.toString(tenantKey, LlmUtils.DEFAULT_TENANT_KEY));
+        joiner.add(Objects.toString(options.getMaxTokens(), ""));
+        joiner.add(Objects.toString(options.getTemperature(), ""));
+        joiner.add(Objects.toString(options.getTopP(), ""));
+        joiner.add(Objects.toString(options.getPresencePenalty(), ""));
+        joiner.add(Objects.toString(options.getFrequencyPenalty(), ""));
+        joiner.add(Objects.toString(options.getWithPrompt(), ""));
+        joiner.add(Objects.toString(options.getBestOf(), ""));
+        for (Message message : messages) {
+            joiner.add(message.getMessageType().getValue() + ":" + this.canonicalize(message.getContent()));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * 查找缓存的响应，同时记录命中与未命中次数
+     * @param key 缓存键
+     * @return 缓存的响应，未命中时返回 null
+     */
+    public LLMResp lookup(String key) {
+        LLMResp llmResp = cache.lookup(key);
+        if (Objects.nonNull(llmResp)) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return llmResp;
+    }
+
+    public void update(String key, LLMResp llmResp) {
+        cache.update(key, llmResp);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private String canonicalize(String content) {
+        if (Objects.isNull(content) || !normalizeWhitespace) {
+            return Objects.toString(content, "");
+        }
+        String canonical = LINE_BREAKS.matcher(content.strip()).replaceAll("\n");
+        canonical = TRAILING_SPACES.matcher(canonical).replaceAll("");
+        return SPACES.matcher(canonical).replaceAll(" ");
+    }
+
+}
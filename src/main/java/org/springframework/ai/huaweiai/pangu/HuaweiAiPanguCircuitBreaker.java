@@ -0,0 +1,350 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguCircuitBreakerMetrics;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 熔断器：按租户与服务地址统计最近调用的错误率与慢调用率，超过阈值时打开并快速失败，避免请求线程在重试中长时间阻塞。
+ * 打开一段时间后进入半开状态，放行有限的探测调用，根据探测结果关闭或重新打开。
+ * 在 {@link org.springframework.retry.support.RetryTemplate} 中执行时，熔断器打开后剩余的重试会被跳过。
+ */
+public class HuaweiAiPanguCircuitBreaker {
+
+    /**
+     * Circuit breaker that always permits, used when circuit breaking is disabled.
+     */
+    public static final HuaweiAiPanguCircuitBreaker DISABLED = new HuaweiAiPanguCircuitBreaker(false, 1, 1, 100, Duration.ZERO, 100,
+            Duration.ZERO, 1, 0, Duration.ZERO);
+
+    private static final int FAILURE = 1;
+    private static final int SLOW = 2;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final boolean enabled;
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallDurationNanos;
+    private final double slowCallRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPermittedCalls;
+    private final Cache<String, EndpointCircuit> endpoints;
+    private HuaweiAiPanguCircuitBreakerMetrics circuitBreakerMetrics = HuaweiAiPanguCircuitBreakerMetrics.NOOP;
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param slidingWindowSize 统计错误率与慢调用率的滑动窗口大小
+     * @param minimumCalls 计算错误率前窗口内至少需要的调用数
+     * @param failureRateThreshold 错误率阈值（百分比）
+     * @param slowCallDuration 耗时超过该时间的调用视为慢调用
+     * @param slowCallRateThreshold 慢调用率阈值（百分比）
+     * @param openDuration 熔断器打开后快速失败的时间
+     * @param halfOpenPermittedCalls 半开状态允许通过的探测调用数
+     * @param maxEndpoints 最多跟踪的租户与服务地址数量
+     * @param endpointExpireAfterAccess 熔断状态在未访问后的过期时间
+     */
+    public HuaweiAiPanguCircuitBreaker(int slidingWindowSize, int minimumCalls, double failureRateThreshold, Duration slowCallDuration,
+                                       double slowCallRateThreshold, Duration openDuration, int halfOpenPermittedCalls,
+                                       long maxEndpoints, Duration endpointExpireAfterAccess) {
+        this(true, slidingWindowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold, openDuration,
+                halfOpenPermittedCalls, maxEndpoints, endpointExpireAfterAccess);
+    }
+
+    private HuaweiAiPanguCircuitBreaker(boolean enabled, int slidingWindowSize, int minimumCalls, double failureRateThreshold,
+                                        Duration slowCallDuration, double slowCallRateThreshold, Duration openDuration,
+                                        int halfOpenPermittedCalls, long maxEndpoints, Duration endpointExpireAfterAccess) {
+        Assert.isTrue(slidingWindowSize > 0, "slidingWindowSize must be positive");
+        Assert.isTrue(halfOpenPermittedCalls > 0, "halfOpenPermittedCalls must be positive");
+        Assert.notNull(slowCallDuration, "slowCallDuration must not be null");
+        Assert.notNull(openDuration, "openDuration must not be null");
+        Assert.notNull(endpointExpireAfterAccess, "endpointExpireAfterAccess must not be null");
+        this.enabled = enabled;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenPermittedCalls = halfOpenPermittedCalls;
+        this.endpoints = Caffeine.newBuilder()
+                .maximumSize(maxEndpoints)
+                .expireAfterAccess(endpointExpireAfterAccess)
+                // Runs atomically with the eviction, so an endpoint tracked again registers its meters afterwards.
+                .evictionListener((String endpoint, EndpointCircuit circuit, RemovalCause cause) -> circuitBreakerMetrics.onEndpointEvicted(endpoint))
+                .build();
+    }
+
+    /**
+     * 在服务地址的熔断器保护下执行调用，统计结果与耗时
+     * @param endpoint 租户与服务地址的联合键
+     * @param call 阻塞的 SDK 调用
+     * @return 调用结果
+     * @throws HuaweiAiPanguCircuitOpenException 熔断器打开时
+     */
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        return this.execute(endpoint, call, true);
+    }
+
+    /**
+     * 在服务地址的熔断器保护下执行调用，只统计结果不统计耗时（如流式请求，耗时取决于回答长度）
+     * @param endpoint 租户与服务地址的联合键
+     * @param call 阻塞的 SDK 调用
+     * @throws HuaweiAiPanguCircuitOpenException 熔断器打开时
+     */
+    public void run(String endpoint, Runnable call) {
+        this.execute(endpoint, () -> {
+            call.run();
+            return null;
+        }, false);
+    }
+
+    private <T> T execute(String endpoint, Supplier<T> call, boolean sampleDuration) {
+        if (!enabled) {
+            return call.get();
+        }
+        String endpointKey = Objects.toString(endpoint, "default");
+        EndpointCircuit circuit = this.endpoints.get(endpointKey, key -> {
+            circuitBreakerMetrics.onEndpoint(key, this);
+            return new EndpointCircuit(key);
+        });
+        circuit.acquire();
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.get();
+            circuit.onResult(0, sampleDuration, System.nanoTime() - startNanos);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (isIgnored(e)) {
+                circuit.onIgnored();
+            } else {
+                circuit.onResult(FAILURE, sampleDuration, System.nanoTime() - startNanos);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 在重试回调中执行一次尝试，请求被打开的熔断器拒绝时结束重试。
+     * 用于尝试在其他线程执行（如对冲请求）、重试上下文未绑定到该线程的情况
+     * @param context 当前的重试上下文
+     * @param attempt 一次尝试
+     * @return 尝试结果
+     */
+    public static <T> T attempt(RetryContext context, Supplier<T> attempt) {
+        try {
+            return attempt.get();
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause() == cause ? null : cause.getCause()) {
+                if (cause instanceof HuaweiAiPanguCircuitOpenException) {
+                    context.setExhaustedOnly();
+                    break;
+                }
+            }
+            throw e;
+        }
+    }
+
+    public State getState(String endpoint) {
+        EndpointCircuit circuit = this.endpoints.getIfPresent(endpoint);
+        return Objects.nonNull(circuit) ? circuit.state : State.CLOSED;
+    }
+
+    public void setCircuitBreakerMetrics(HuaweiAiPanguCircuitBreakerMetrics circuitBreakerMetrics) {
+        Assert.notNull(circuitBreakerMetrics, "CircuitBreakerMetrics must not be null");
+        this.circuitBreakerMetrics = circuitBreakerMetrics;
+    }
+
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Failures that say nothing about the endpoint: local rejections, invalid requests and cancelled hedges.
+     */
+    private static boolean isIgnored(Throwable error) {
+        return error instanceof IllegalArgumentException
+                || error instanceof RejectedExecutionException
+                || error instanceof CancellationException
+                || error instanceof HuaweiAiPanguCircuitOpenException
+                || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Stop the enclosing retry, the remaining attempts would only be rejected after their backoff.
+     */
+    private static void skipRetries() {
+        RetryContext retryContext = RetrySynchronizationManager.getContext();
+        if (Objects.nonNull(retryContext)) {
+            retryContext.setExhaustedOnly();
+        }
+    }
+
+    public enum State {
+
+        CLOSED, OPEN, HALF_OPEN
+
+    }
+
+    /**
+     * Circuit of one endpoint over a count based sliding window of recent outcomes.
+     */
+    private class EndpointCircuit {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String endpoint;
+        private final String redactedEndpoint;
+        private final byte[] outcomes;
+        private volatile State state = State.CLOSED;
+        private int size;
+        private int next;
+        private int failures;
+        private int slowCalls;
+        private long openedAt;
+        private int halfOpenCalls;
+
+        EndpointCircuit(String endpoint) {
+            this.endpoint = endpoint;
+            this.redactedEndpoint = LlmUtils.redactKey(endpoint);
+            this.outcomes = new byte[slidingWindowSize];
+        }
+
+        void acquire() {
+            State fromState = null;
+            lock.lock();
+            try {
+                if (state == State.OPEN) {
+                    if (System.nanoTime() - openedAt < openDurationNanos) {
+                        throw reject();
+                    }
+                    fromState = this.transition(State.HALF_OPEN);
+                }
+                if (state == State.HALF_OPEN) {
+                    if (halfOpenCalls >= halfOpenPermittedCalls) {
+                        throw reject();
+                    }
+                    halfOpenCalls++;
+                }
+            } finally {
+                lock.unlock();
+                this.publish(fromState, State.HALF_OPEN);
+            }
+        }
+
+        void onResult(int outcome, boolean sampleDuration, long durationNanos) {
+            if (sampleDuration && durationNanos > slowCallDurationNanos) {
+                outcome |= SLOW;
+            }
+            State fromState = null;
+            State toState;
+            lock.lock();
+            try {
+                if (state != State.OPEN) {
+                    this.record(outcome);
+                    if (state == State.CLOSED && size >= minimumCalls && this.isTripped()) {
+                        fromState = this.transition(State.OPEN);
+                    } else if (state == State.HALF_OPEN && size >= Math.min(halfOpenPermittedCalls, outcomes.length)) {
+                        fromState = this.transition(this.isTripped() ? State.OPEN : State.CLOSED);
+                    }
+                }
+                toState = state;
+            } finally {
+                lock.unlock();
+            }
+            this.publish(fromState, toState);
+            if (toState == State.OPEN) {
+                skipRetries();
+            }
+        }
+
+        void onIgnored() {
+            lock.lock();
+            try {
+                // Hand the probe back, the call told nothing about the endpoint.
+                if (state == State.HALF_OPEN && halfOpenCalls > 0) {
+                    halfOpenCalls--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private HuaweiAiPanguCircuitOpenException reject() {
+            circuitBreakerMetrics.onRejected(endpoint);
+            skipRetries();
+            return new HuaweiAiPanguCircuitOpenException(redactedEndpoint, state);
+        }
+
+        private void record(int outcome) {
+            if (size == outcomes.length) {
+                int evicted = outcomes[next];
+                failures -= evicted & FAILURE;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                size++;
+            }
+            outcomes[next] = (byte) outcome;
+            next = (next + 1) % outcomes.length;
+            failures += outcome & FAILURE;
+            slowCalls += (outcome & SLOW) >> 1;
+        }
+
+        private boolean isTripped() {
+            return failures * 100.0 / size >= failureRateThreshold
+                    || slowCalls * 100.0 / size >= slowCallRateThreshold;
+        }
+
+        /**
+         * @return the previous state
+         */
+        private State transition(State toState) {
+            State fromState = state;
+            state = toState;
+            size = 0;
+            next = 0;
+            failures = 0;
+            slowCalls = 0;
+            halfOpenCalls = 0;
+            if (toState == State.OPEN) {
+                openedAt = System.nanoTime();
+            }
+            return fromState;
+        }
+
+        /**
+         * Report a state change outside the lock, listeners may be slow.
+         */
+        private void publish(State fromState, State toState) {
+            if (Objects.isNull(fromState)) {
+                return;
+            }
+            if (toState == State.OPEN) {
+                log.warn("Circuit breaker of endpoint {} changed from {} to {}", redactedEndpoint, fromState, toState);
+            } else {
+                log.info("Circuit breaker of endpoint {} changed from {} to {}", redactedEndpoint, fromState, toState);
+            }
+            circuitBreakerMetrics.onStateChange(endpoint, fromState, toState);
+            if (Objects.nonNull(eventPublisher)) {
+                eventPublisher.publishEvent(new HuaweiAiPanguCircuitBreakerEvent(HuaweiAiPanguCircuitBreaker.this, redactedEndpoint, fromState, toState));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 熔断器状态变化事件，在状态变化后发布，服务地址为联合键的哈希值。
+ */
+public class HuaweiAiPanguCircuitBreakerEvent extends ApplicationEvent {
+
+    private final String endpoint;
+    private final HuaweiAiPanguCircuitBreaker.State fromState;
+    private final HuaweiAiPanguCircuitBreaker.State toState;
+
+    public HuaweiAiPanguCircuitBreakerEvent(HuaweiAiPanguCircuitBreaker source, String endpoint,
+                                            HuaweiAiPanguCircuitBreaker.State fromState, HuaweiAiPanguCircuitBreaker.State toState) {
+        super(source);
+        this.endpoint = endpoint;
+        this.fromState = fromState;
+        this.toState = toState;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public HuaweiAiPanguCircuitBreaker.State getFromState() {
+        return fromState;
+    }
+
+    public HuaweiAiPanguCircuitBreaker.State getToState() {
+        return toState;
+    }
+
+}
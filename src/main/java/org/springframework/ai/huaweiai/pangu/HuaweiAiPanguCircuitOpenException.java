@@ -0,0 +1,22 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 熔断器打开（或半开状态的探测名额已用完）时请求被快速拒绝，该异常不应重试。
+ * 异常中的服务地址为联合键的哈希值，不包含租户凭据。
+ */
+public class HuaweiAiPanguCircuitOpenException extends NonTransientAiException {
+
+    private final String endpoint;
+
+    public HuaweiAiPanguCircuitOpenException(String endpoint, HuaweiAiPanguCircuitBreaker.State state) {
+        super("Circuit breaker is " + state + " for endpoint: " + endpoint);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+}
@@ -0,0 +1,281 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguLimiterMetrics;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 租户并发限制器：按租户联合键限制同时执行的 SDK 调用，避免单个租户占满上游配额。
+ * 并发上限按 AIMD 自适应调整：延迟接近最小延迟时每轮加一，延迟超出容忍倍数或被限流（429）时按比例缩减。
+ * 达到上限的请求在有界队列中等待，等待超时或队列已满时抛出 {@link RejectedExecutionException}。
+ */
+public class HuaweiAiPanguConcurrencyLimiter {
+
+    /**
+     * Limiter that never blocks, used when concurrency limiting is disabled.
+     */
+    public static final HuaweiAiPanguConcurrencyLimiter UNLIMITED = new HuaweiAiPanguConcurrencyLimiter(false, 1, 1, 1, Duration.ZERO, 0,
+            1, 1, 1, 1, 0, Duration.ZERO);
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration maxWait;
+    private final int maxQueued;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final double throttleBackoffRatio;
+    private final int rttWindow;
+    private final Cache<String, TenantLimit> tenants;
+    private HuaweiAiPanguLimiterMetrics limiterMetrics = HuaweiAiPanguLimiterMetrics.NOOP;
+
+    /**
+     * @param initialLimit 每个租户的初始并发上限
+     * @param minLimit 并发上限的下界
+     * @param maxLimit 并发上限的上界
+     * @param maxWait 达到上限后最长排队等待时间
+     * @param maxQueued 每个租户最多排队等待的请求数
+     * @param latencyTolerance 延迟超过最小延迟的该倍数时视为过载
+     * @param backoffRatio 延迟过高时上限的缩减比例
+     * @param throttleBackoffRatio 被限流（429）时上限的缩减比例
+     * @param rttWindow 最小延迟的统计窗口（样本数）
+     * @param maxTenants 最多跟踪的租户数量
+     * @param tenantExpireAfterAccess 租户状态在未访问后的过期时间
+     */
+    public HuaweiAiPanguConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration maxWait, int maxQueued,
+                                          double latencyTolerance, double backoffRatio, double throttleBackoffRatio, int rttWindow,
+                                          long maxTenants, Duration tenantExpireAfterAccess) {
+        this(true, initialLimit, minLimit, maxLimit, maxWait, maxQueued, latencyTolerance, backoffRatio, throttleBackoffRatio,
+                rttWindow, maxTenants, tenantExpireAfterAccess);
+    }
+
+    private HuaweiAiPanguConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit, Duration maxWait, int maxQueued,
+                                           double latencyTolerance, double backoffRatio, double throttleBackoffRatio, int rttWindow,
+                                           long maxTenants, Duration tenantExpireAfterAccess) {
+        Assert.isTrue(minLimit > 0, "minLimit must be positive");
+        Assert.isTrue(maxLimit >= minLimit, "maxLimit must not be less than minLimit");
+        Assert.notNull(maxWait, "maxWait must not be null");
+        Assert.notNull(tenantExpireAfterAccess, "tenantExpireAfterAccess must not be null");
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWait = maxWait;
+        this.maxQueued = maxQueued;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.throttleBackoffRatio = throttleBackoffRatio;
+        this.rttWindow = rttWindow;
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(tenantExpireAfterAccess)
+                // Runs atomically with the eviction, so a tenant tracked again registers its gauges afterwards.
+                .evictionListener((String tenant, TenantLimit limit, RemovalCause cause) -> limiterMetrics.onTenantEvicted(tenant))
+                .build();
+    }
+
+    /**
+     * 在租户的并发上限内执行调用，并以调用耗时调整上限
+     * @param tenant 租户联合键
+     * @param call 阻塞的 SDK 调用
+     * @return 调用结果
+     */
+    public <T> T execute(String tenant, Supplier<T> call) {
+        return this.execute(tenant, call, true);
+    }
+
+    /**
+     * 在租户的并发上限内执行调用，耗时不参与上限调整（如流式请求，耗时取决于回答长度）
+     * @param tenant 租户联合键
+     * @param call 阻塞的 SDK 调用
+     */
+    public void run(String tenant, Runnable call) {
+        this.execute(tenant, () -> {
+            call.run();
+            return null;
+        }, false);
+    }
+
+    private <T> T execute(String tenant, Supplier<T> call, boolean sampleLatency) {
+        if (!enabled) {
+            return call.get();
+        }
+        String tenantKey = Objects.toString(tenant, "default");
+        TenantLimit limit = this.tenants.get(tenantKey, key -> {
+            limiterMetrics.onTenant(key, this);
+            return new TenantLimit();
+        });
+        long waitNanos = limit.acquire(tenantKey);
+        limiterMetrics.onAcquired(tenantKey, waitNanos);
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.get();
+            limit.onSuccess(sampleLatency ? System.nanoTime() - startNanos : -1);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (ApiUtils.isThrottled(e)) {
+                limiterMetrics.onThrottled(tenantKey);
+                limit.onThrottled();
+            } else {
+                limit.onIgnored();
+            }
+            throw e;
+        }
+    }
+
+    public double getLimit(String tenant) {
+        TenantLimit limit = this.tenants.getIfPresent(tenant);
+        return Objects.nonNull(limit) ? limit.getLimit() : Double.NaN;
+    }
+
+    public double getInFlight(String tenant) {
+        TenantLimit limit = this.tenants.getIfPresent(tenant);
+        return Objects.nonNull(limit) ? limit.getInFlight() : 0;
+    }
+
+    public double getQueued(String tenant) {
+        TenantLimit limit = this.tenants.getIfPresent(tenant);
+        return Objects.nonNull(limit) ? limit.getQueued() : 0;
+    }
+
+    public void setLimiterMetrics(HuaweiAiPanguLimiterMetrics limiterMetrics) {
+        Assert.notNull(limiterMetrics, "LimiterMetrics must not be null");
+        this.limiterMetrics = limiterMetrics;
+    }
+
+    /**
+     * Adaptive limit of one tenant. A lock and condition rather than synchronized, so waiting virtual threads unmount.
+     */
+    private class TenantLimit {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        private double limit;
+        private int inFlight;
+        private int queued;
+        private long minRttNanos = Long.MAX_VALUE;
+        private long windowMinRttNanos = Long.MAX_VALUE;
+        private int windowSamples;
+
+        TenantLimit() {
+            this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        }
+
+        long acquire(String tenant) {
+            long startNanos = System.nanoTime();
+            lock.lock();
+            try {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return 0;
+                }
+                if (queued >= maxQueued) {
+                    limiterMetrics.onRejected(tenant);
+                    throw new RejectedExecutionException("Concurrency limit of " + (int) limit + " reached and "
+                            + queued + " requests queued for tenant: " + LlmUtils.redactKey(tenant));
+                }
+                queued++;
+                try {
+                    long remainingNanos = maxWait.toNanos();
+                    while (inFlight >= (int) limit) {
+                        if (remainingNanos <= 0) {
+                            limiterMetrics.onRejected(tenant);
+                            throw new RejectedExecutionException("Timed out after " + maxWait
+                                    + " waiting for a concurrency permit for tenant: " + LlmUtils.redactKey(tenant));
+                        }
+                        remainingNanos = available.awaitNanos(remainingNanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for a concurrency permit for tenant: " + LlmUtils.redactKey(tenant), e);
+                } finally {
+                    queued--;
+                }
+                inFlight++;
+                return System.nanoTime() - startNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess(long rttNanos) {
+            lock.lock();
+            try {
+                boolean saturated = inFlight * 2 >= limit;
+                inFlight--;
+                if (rttNanos >= 0 && isCongested(rttNanos)) {
+                    decrease(backoffRatio);
+                } else if (saturated) {
+                    // Additive increase: roughly one more permit per limit's worth of successful calls.
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onThrottled() {
+            lock.lock();
+            try {
+                inFlight--;
+                decrease(throttleBackoffRatio);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onIgnored() {
+            lock.lock();
+            try {
+                inFlight--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isCongested(long rttNanos) {
+            windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            if (++windowSamples >= rttWindow) {
+                // Follow upstream changes: the baseline becomes the best latency of the last window.
+                minRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            return rttNanos > minRttNanos * latencyTolerance;
+        }
+
+        private void decrease(double ratio) {
+            limit = Math.max(minLimit, limit * ratio);
+        }
+
+        double getLimit() {
+            return limit;
+        }
+
+        int getInFlight() {
+            return inFlight;
+        }
+
+        int getQueued() {
+            return queued;
+        }
+
+    }
+
+}
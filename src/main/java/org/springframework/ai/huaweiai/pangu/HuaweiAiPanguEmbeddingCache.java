@@ -0,0 +1,88 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.ai.document.MetadataMode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * 文本向量缓存：以文本、模型及 MetadataMode 的 SHA-256 摘要为键，以 float 数组存储向量
+ */
+public class HuaweiAiPanguEmbeddingCache {
+
+    private final Cache<String, float[]> vectors;
+
+    /**
+     * @param maximumSize 最多缓存的向量数量
+     * @param expireAfterWrite 写入后过期时间，可为 null
+     * @param expireAfterAccess 访问后过期时间，可为 null
+     * @param recordStats 是否记录命中率等统计信息
+     */
+    public HuaweiAiPanguEmbeddingCache(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess, boolean recordStats) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize);
+        if (Objects.nonNull(expireAfterWrite)) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        if (Objects.nonNull(expireAfterAccess)) {
+            builder.expireAfterAccess(expireAfterAccess);
+        }
+        if (recordStats) {
+            builder.recordStats();
+        }
+        this.vectors = builder.build();
+    }
+
+    /**
+     * 计算缓存键
+     * @param text 文本
+     * @param model 模型名称及版本
+     * @param metadataMode 文档元数据模式
+     * @return 缓存键
+     */
+    public String key(String text, String model, MetadataMode metadataMode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(Objects.toString(model, "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Objects.toString(metadataMode, "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Objects.toString(text, "").getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public float[] get(String key) {
+        return vectors.getIfPresent(key);
+    }
+
+    public void put(String key, float[] vector) {
+        vectors.put(key, vector);
+    }
+
+    public Cache<String, float[]> getVectors() {
+        return vectors;
+    }
+
+    public CacheStats stats() {
+        return vectors.stats();
+    }
+
+    public long estimatedSize() {
+        return vectors.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        vectors.invalidateAll();
+    }
+
+}
@@ -6,22 +6,37 @@ import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbedding;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbeddingReq;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbeddingResp;
 import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.MetadataMode;
 import org.springframework.ai.embedding.*;
+import org.springframework.ai.huaweiai.pangu.metrics.DefaultHuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationContext;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationDocumentation;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
 import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HuaweiAiPanguEmbeddingClient extends AbstractEmbeddingClient {
 
@@ -37,6 +52,49 @@ public class HuaweiAiPanguEmbeddingClient extends AbstractEmbeddingClient {
     private final PanguClient panguClient;
 
     private final RetryTemplate retryTemplate;
+    /**
+     * Records an observation per request, no-op unless a registry is configured.
+     */
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+    private HuaweiAiPanguObservationConvention observationConvention;
+    /**
+     * Limits used to split large requests into sub-batches.
+     */
+    private int batchMaxSize = 32;
+    private int batchMaxCharacters = 32_000;
+    private int batchParallelism = 4;
+    /**
+     * Runs the blocking sub-batch requests in parallel.
+     */
+    private Scheduler batchScheduler = Schedulers.boundedElastic();
+    /**
+     * Executes {@link #callAsync(EmbeddingRequest)} batches.
+     */
+    private HuaweiAiPanguAsyncExecutor asyncExecutor = HuaweiAiPanguAsyncExecutor.DEFAULT;
+    /**
+     * Limits the in-flight SDK calls per tenant.
+     */
+    private HuaweiAiPanguConcurrencyLimiter concurrencyLimiter = HuaweiAiPanguConcurrencyLimiter.UNLIMITED;
+    /**
+     * Limits the requests and tokens per minute per tenant and model.
+     */
+    private HuaweiAiPanguRateLimiter rateLimiter = HuaweiAiPanguRateLimiter.UNLIMITED;
+    /**
+     * Caches the SDK clients of tenant requests, this client's own unless shared ones are injected.
+     */
+    private HuaweiAiPanguTenantClients tenantClients = new HuaweiAiPanguTenantClients();
+    /**
+     * Fails fast while the endpoint of a request is degraded.
+     */
+    private HuaweiAiPanguCircuitBreaker circuitBreaker = HuaweiAiPanguCircuitBreaker.DISABLED;
+    /**
+     * Optional cache of text vectors, disabled when null.
+     */
+    private HuaweiAiPanguEmbeddingCache embeddingCache;
+    /**
+     * Optional micro-batching of {@link #embed(String)} calls, disabled when null.
+     */
+    private HuaweiAiPanguEmbeddingMicroBatcher microBatcher;
 
     public HuaweiAiPanguEmbeddingClient(PanguClient panguClient) {
         this(panguClient, MetadataMode.EMBED);
@@ -68,67 +126,416 @@ public class HuaweiAiPanguEmbeddingClient extends AbstractEmbeddingClient {
         return this.embed(document.getFormattedContent(this.metadataMode));
     }
 
+    @Override
+    public List<Double> embed(String text) {
+        Assert.notNull(text, "Text must not be null");
+        if (Objects.isNull(this.microBatcher)) {
+            return super.embed(text);
+        }
+        // Concurrent single text calls are sent together, each caller gets the vector of its own text.
+        float[] vector = this.microBatcher.embed(text);
+        return Objects.nonNull(vector) ? ApiUtils.toDoubleList(vector) : List.of();
+    }
+
     @Override
     public EmbeddingResponse call(EmbeddingRequest request) {
         Assert.notEmpty(request.getInstructions(), "At least one text is required!");
-        // execute the request
-        return this.retryTemplate.execute(ctx -> {
-            logger.debug("Retrieving embeddings");
-            // Use tenant specific client if available.
-            PanguClient llmClient;
-            if(request.getOptions() != null && request.getOptions() instanceof HuaweiAiPanguEmbeddingTenantOptions embeddingOptions){
-                llmClient = LlmUtils.getOrCreatePanguClient(embeddingOptions)
-                        .orElseThrow(() -> new PanguDevSDKException("PanguClient initialization failed for Tenant Request."));
-            } else {
-                llmClient = this.panguClient;
+        HuaweiAiPanguObservationContext observationContext = this.toObservationContext(request.getInstructions(), request.getOptions());
+        return this.observation(observationContext).observe(() ->
+                this.toEmbeddingResponse(this.embedVectors(request.getInstructions(), request.getOptions(), observationContext)));
+    }
+
+    /**
+     * 获取文本的向量，以 float 数组返回，避免转换为 {@code List<Double>} 时的装箱开销
+     * @param texts 文本
+     * @return 与 texts 顺序一致的向量
+     */
+    public float[][] embedToFloatArrays(List<String> texts) {
+        return this.embedToFloatArrays(texts, null);
+    }
+
+    /**
+     * 获取文本的向量，以 float 数组返回，避免转换为 {@code List<Double>} 时的装箱开销
+     * @param texts 文本
+     * @param options 请求配置，可为租户配置
+     * @return 与 texts 顺序一致的向量
+     * @throws IllegalStateException 任一批次未返回全部向量时
+     */
+    public float[][] embedToFloatArrays(List<String> texts, EmbeddingOptions options) {
+        Assert.notEmpty(texts, "At least one text is required!");
+        HuaweiAiPanguObservationContext observationContext = this.toObservationContext(texts, options);
+        return this.observation(observationContext).observe(() -> this.embedVectors(texts, options, observationContext).vectors());
+    }
+
+    /**
+     * 异步获取向量，批次在异步执行器上执行，重试退避不占用线程；取消订阅即放弃请求。
+     * 需要 {@link java.util.concurrent.CompletableFuture} 时使用 {@code callAsync(request).toFuture()}。
+     * @param request 向量请求
+     * @return Mono
+     */
+    public Mono<EmbeddingResponse> callAsync(EmbeddingRequest request) {
+        return this.callAsync(request, null);
+    }
+
+    /**
+     * 异步获取向量，批次在异步执行器上执行，重试退避不占用线程；取消订阅即放弃请求。
+     * 任一批次未返回全部向量时以 {@link IllegalStateException} 结束，不返回部分结果。
+     * @param request 向量请求
+     * @param timeout 本次调用的超时时间（含重试），为空时使用异步执行器的默认超时时间
+     * @return Mono
+     */
+    public Mono<EmbeddingResponse> callAsync(EmbeddingRequest request, Duration timeout) {
+        Assert.notEmpty(request.getInstructions(), "At least one text is required!");
+        return Mono.defer(() -> {
+            HuaweiAiPanguObservationContext observationContext = this.toObservationContext(request.getInstructions(), request.getOptions());
+            Observation observation = this.observation(observationContext).start();
+            PendingVectors pending = this.lookupVectors(request.getInstructions(), request.getOptions());
+            Mono<List<EmbeddingBatchResult>> results = pending.missTexts().isEmpty()
+                    ? Mono.just(List.of()) : this.embedBatchesAsync(pending.missTexts(), request.getOptions());
+            Mono<EmbeddingResponse> response = results
+                    .map(batchResults -> this.toEmbeddingResponse(this.completeVectors(pending, batchResults, observationContext)));
+            return this.asyncExecutor.withTimeout(response, timeout)
+                    .doOnError(observation::error)
+                    .doOnCancel(() -> observationContext.setCancelled(true))
+                    .doFinally(signalType -> observation.stop());
+        });
+    }
+
+    private EmbeddingResponse toEmbeddingResponse(EmbeddedVectors embedded) {
+        List<Embedding> data = new ArrayList<>(embedded.vectors().length);
+        for (int i = 0; i < embedded.vectors().length; i++) {
+            data.add(new Embedding(ApiUtils.toDoubleList(embedded.vectors()[i]), i));
+        }
+        return new EmbeddingResponse(data, embedded.metadata());
+    }
+
+    /**
+     * Resolve the vectors of the texts in input order: cached vectors are reused and only the misses are sent upstream.
+     */
+    private EmbeddedVectors embedVectors(List<String> texts, EmbeddingOptions options, HuaweiAiPanguObservationContext observationContext) {
+        PendingVectors pending = this.lookupVectors(texts, options);
+        List<EmbeddingBatchResult> results = pending.missTexts().isEmpty() ? List.of() : this.embedBatches(pending.missTexts(), options);
+        return this.completeVectors(pending, results, observationContext);
+    }
+
+    /**
+     * Fill the vectors from the cache and collect the distinct texts that still need to be embedded.
+     */
+    private PendingVectors lookupVectors(List<String> texts, EmbeddingOptions options) {
+        float[][] vectors = new float[texts.size()][];
+        String[] keys = null;
+        List<String> missTexts = texts;
+        List<Integer> missIndexes = null;
+        int[] duplicateOf = null;
+        if (Objects.nonNull(this.embeddingCache)) {
+            String model = this.toCacheModel(options);
+            keys = new String[texts.size()];
+            missTexts = new ArrayList<>();
+            missIndexes = new ArrayList<>();
+            duplicateOf = new int[texts.size()];
+            Arrays.fill(duplicateOf, -1);
+            Map<String, Integer> firstMisses = new HashMap<>();
+            for (int i = 0; i < texts.size(); i++) {
+                keys[i] = this.embeddingCache.key(texts.get(i), model, this.metadataMode);
+                float[] cached = this.embeddingCache.get(keys[i]);
+                if (Objects.nonNull(cached)) {
+                    // Hand out a copy so callers can not corrupt the cached vector.
+                    vectors[i] = cached.clone();
+                } else {
+                    Integer firstMiss = firstMisses.putIfAbsent(keys[i], i);
+                    if (Objects.isNull(firstMiss)) {
+                        missTexts.add(texts.get(i));
+                        missIndexes.add(i);
+                    } else {
+                        // Duplicate texts within the request are only sent once and copied from the first one.
+                        duplicateOf[i] = firstMiss;
+                    }
+                }
+            }
+        }
+        return new PendingVectors(vectors, keys, missTexts, missIndexes, duplicateOf);
+    }
+
+    /**
+     * Merge the upstream batches into the pending vectors and cache them, failing when any input is left without a vector.
+     */
+    private EmbeddedVectors completeVectors(PendingVectors pending, List<EmbeddingBatchResult> results,
+                                            HuaweiAiPanguObservationContext observationContext) {
+        float[][] vectors = pending.vectors();
+        String[] keys = pending.keys();
+        List<Integer> missIndexes = pending.missIndexes();
+        int[] duplicateOf = pending.duplicateOf();
+        EmbeddingResponseMetadata metadata;
+        if (results.isEmpty()) {
+            metadata = generateMetadata(0, 0, 0);
+        } else {
+            metadata = this.observeBatches(results, observationContext);
+            for (EmbeddingBatchResult result : results) {
+                if (Objects.isNull(result.response()) || CollectionUtils.isEmpty(result.response().getData())) {
+                    throw new IllegalStateException("No embeddings returned for batch of inputs [%d, %d)"
+                            .formatted(result.offset(), result.offset() + result.size()));
+                }
+                for (PanguEmbedding nativeDatum : result.response().getData()) {
+                    int batchIndex = nativeDatum.getIndex();
+                    if (batchIndex < 0 || batchIndex >= result.size()) {
+                        throw new IllegalStateException("Embedding index %d out of range for batch of inputs [%d, %d)"
+                                .formatted(batchIndex, result.offset(), result.offset() + result.size()));
+                    }
+                    // Shift the batch local index back to the position in the original request.
+                    int index = result.offset() + batchIndex;
+                    if (Objects.nonNull(missIndexes)) {
+                        index = missIndexes.get(index);
+                    }
+                    vectors[index] = ApiUtils.toFloatArray(nativeDatum.getEmbedding());
+                    if (Objects.nonNull(keys)) {
+                        // Cache a copy, the returned array belongs to the caller.
+                        this.embeddingCache.put(keys[index], vectors[index].clone());
+                    }
+                }
+            }
+        }
+        long responseSize = 0;
+        for (int i = 0; i < vectors.length; i++) {
+            if (Objects.nonNull(duplicateOf) && duplicateOf[i] >= 0 && Objects.nonNull(vectors[duplicateOf[i]])) {
+                // Copy from this response, the cache may already have evicted or rejected the vector.
+                vectors[i] = vectors[duplicateOf[i]].clone();
             }
-            var apiRequest = toEmbeddingRequest(request);
-            PanguEmbeddingResp apiEmbeddingResponse = llmClient.createEmbeddings(apiRequest);
-            if (Objects.isNull(apiEmbeddingResponse) || CollectionUtils.isEmpty(apiEmbeddingResponse.getData())){
-                logger.warn("No embeddings returned for request: {}", request);
-                return new EmbeddingResponse(List.of());
+            if (Objects.isNull(vectors[i])) {
+                // A partial response would silently shift the vectors away from their texts.
+                throw new IllegalStateException("No embedding returned for input " + i);
             }
-            logger.debug("Embeddings retrieved");
-            return generateEmbeddingResponse(apiEmbeddingResponse);
+            responseSize += vectors[i].length;
+        }
+        observationContext.setResponseSize(responseSize);
+        return new EmbeddedVectors(vectors, metadata);
+    }
 
+    private String toCacheModel(EmbeddingOptions options) {
+        String model = (options instanceof HuaweiAiPanguEmbeddingOptions embeddingOptions && Objects.nonNull(embeddingOptions.getModel()))
+                ? embeddingOptions.getModel() : this.defaultOptions.getModel();
+        String moduleVersion = LlmUtils.getModuleVersion(options);
+        return Objects.nonNull(moduleVersion) ? model + "/" + moduleVersion : model;
+    }
+
+    private HuaweiAiPanguObservationContext toObservationContext(List<String> texts, EmbeddingOptions options) {
+        HuaweiAiPanguObservationContext observationContext = new HuaweiAiPanguObservationContext(HuaweiAiPanguObservationContext.OPERATION_EMBEDDING,
+                LlmUtils.getTenantKey(options), LlmUtils.getModuleVersion(options));
+        observationContext.setRequestSize(texts.stream().mapToLong(ApiUtils::contentLength).sum());
+        return observationContext;
+    }
+
+    private List<EmbeddingBatchResult> embedBatches(List<String> texts, EmbeddingOptions options) {
+        logger.debug("Retrieving embeddings");
+        PanguClient llmClient = this.resolveClient(options);
+        // Split the inputs into sub-batches, each one is retried on its own.
+        List<EmbeddingBatch> batches = this.toBatches(texts);
+        List<EmbeddingBatchResult> results;
+        if (batches.size() == 1) {
+            results = List.of(this.embedBatch(llmClient, batches.get(0), options));
+        } else {
+            results = Flux.fromIterable(batches)
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> this.embedBatch(llmClient, batch, options))
+                            .subscribeOn(this.batchScheduler), this.batchParallelism)
+                    .collectList()
+                    .block();
+        }
+        logger.debug("Embeddings retrieved in {} batch(es)", batches.size());
+        return results;
+    }
+
+    private Mono<List<EmbeddingBatchResult>> embedBatchesAsync(List<String> texts, EmbeddingOptions options) {
+        return Mono.defer(() -> {
+            PanguClient llmClient = this.resolveClient(options);
+            // Each sub-batch is retried on its own with a scheduled, non-blocking backoff.
+            return Flux.fromIterable(this.toBatches(texts))
+                    .flatMapSequential(batch -> {
+                        AtomicInteger attempts = new AtomicInteger();
+                        return this.asyncExecutor.submitWithRetry(() -> {
+                            PanguEmbeddingResp response = this.createEmbeddings(llmClient, batch.inputs(), options);
+                            return new EmbeddingBatchResult(batch.offset(), batch.inputs().size(), response, attempts.getAndIncrement());
+                        });
+                    }, this.batchParallelism)
+                    .collectList();
         });
     }
 
-    private PanguEmbeddingReq toEmbeddingRequest(EmbeddingRequest request) {
-        var panguEmbeddingReq = (this.defaultOptions != null)
-                ? PanguEmbeddingReq.builder().input(request.getInstructions()).user(this.defaultOptions.getUser()).build()
-                : PanguEmbeddingReq.builder().input(request.getInstructions()).build();
+    private PanguClient resolveClient(EmbeddingOptions options) {
+        // Use tenant specific client if available.
+        if(options != null && options instanceof HuaweiAiPanguEmbeddingTenantOptions embeddingOptions){
+            return this.tenantClients.getOrCreatePanguClient(embeddingOptions)
+                    .orElseThrow(() -> new PanguDevSDKException("PanguClient initialization failed for Tenant Request."));
+        }
+        return this.panguClient;
+    }
 
-        if (request.getOptions() != null && !EmbeddingOptions.EMPTY.equals(request.getOptions())) {
-            panguEmbeddingReq = ModelOptionsUtils.merge(request.getOptions(), panguEmbeddingReq, PanguEmbeddingReq.class);
+    private List<EmbeddingBatch> toBatches(List<String> inputs) {
+        int maxSize = this.batchMaxSize;
+        int maxCharacters = this.batchMaxCharacters;
+        List<EmbeddingBatch> batches = new ArrayList<>();
+        int offset = 0;
+        int characters = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            int length = Objects.nonNull(inputs.get(i)) ? inputs.get(i).length() : 0;
+            boolean full = i - offset >= maxSize || (i > offset && maxCharacters > 0 && characters + length > maxCharacters);
+            if (full) {
+                batches.add(new EmbeddingBatch(offset, inputs.subList(offset, i)));
+                offset = i;
+                characters = 0;
+            }
+            characters += length;
         }
-        return panguEmbeddingReq;
+        batches.add(new EmbeddingBatch(offset, inputs.subList(offset, inputs.size())));
+        return batches;
+    }
+
+    private EmbeddingBatchResult embedBatch(PanguClient llmClient, EmbeddingBatch batch, EmbeddingOptions options) {
+        return this.retryTemplate.execute(ctx -> {
+            PanguEmbeddingResp response = this.createEmbeddings(llmClient, batch.inputs(), options);
+            return new EmbeddingBatchResult(batch.offset(), batch.inputs().size(), response, ctx.getRetryCount());
+        });
+    }
+
+    /**
+     * Embed one sub-batch once within the tenant's rate and concurrency limits.
+     */
+    private PanguEmbeddingResp createEmbeddings(PanguClient llmClient, List<String> inputs, EmbeddingOptions options) {
+        var apiRequest = toEmbeddingRequest(inputs, options);
+        String tenant = LlmUtils.getTenantKey(options);
+        // Wait for the rate quota before taking a concurrency permit, so requests waiting for quota hold no permit.
+        return this.rateLimiter.execute(tenant, this.toCacheModel(options),
+                this.rateLimiter.estimateTokens(inputs.stream().mapToLong(ApiUtils::contentLength).sum()),
+                () -> this.circuitBreaker.execute(LlmUtils.getEndpointKey(options),
+                        () -> this.concurrencyLimiter.execute(tenant, () -> llmClient.createEmbeddings(apiRequest))),
+                response -> ApiUtils.totalTokens(response.getUsage()));
+    }
+
+    /**
+     * 设置子批次拆分上限
+     * @param maxSize 单次请求的最大文本条数
+     * @param maxCharacters 单次请求的最大字符数，不大于 0 时不限制
+     * @param parallelism 同时发送的子批次请求数量
+     */
+    public void setBatchLimits(int maxSize, int maxCharacters, int parallelism) {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        Assert.isTrue(parallelism > 0, "parallelism must be positive");
+        this.batchMaxSize = maxSize;
+        this.batchMaxCharacters = maxCharacters;
+        this.batchParallelism = parallelism;
+    }
+
+    public void setAsyncExecutor(HuaweiAiPanguAsyncExecutor asyncExecutor) {
+        Assert.notNull(asyncExecutor, "AsyncExecutor must not be null");
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public void setConcurrencyLimiter(HuaweiAiPanguConcurrencyLimiter concurrencyLimiter) {
+        Assert.notNull(concurrencyLimiter, "ConcurrencyLimiter must not be null");
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    public void setRateLimiter(HuaweiAiPanguRateLimiter rateLimiter) {
+        Assert.notNull(rateLimiter, "RateLimiter must not be null");
+        this.rateLimiter = rateLimiter;
+    }
+
+    public void setTenantClients(HuaweiAiPanguTenantClients tenantClients) {
+        Assert.notNull(tenantClients, "TenantClients must not be null");
+        this.tenantClients = tenantClients;
+    }
+
+    public void setCircuitBreaker(HuaweiAiPanguCircuitBreaker circuitBreaker) {
+        Assert.notNull(circuitBreaker, "CircuitBreaker must not be null");
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public void setEmbeddingCache(HuaweiAiPanguEmbeddingCache embeddingCache) {
+        this.embeddingCache = embeddingCache;
+    }
+
+    /**
+     * 启用单条文本 embed 调用的微批，批量请求在批次调度器上执行
+     * @param window 收集文本的时间窗口
+     * @param maxBatchSize 单批最多合并的文本条数
+     */
+    public void enableMicroBatching(Duration window, int maxBatchSize) {
+        this.microBatcher = new HuaweiAiPanguEmbeddingMicroBatcher(window, maxBatchSize, this.batchScheduler, texts -> this.embedToFloatArrays(texts));
+    }
+
+    public HuaweiAiPanguEmbeddingMicroBatcher getMicroBatcher() {
+        return this.microBatcher;
+    }
+
+    public void setBatchScheduler(Scheduler batchScheduler) {
+        Assert.notNull(batchScheduler, "BatchScheduler must not be null");
+        this.batchScheduler = batchScheduler;
+    }
+
+    public void setObservationRegistry(ObservationRegistry observationRegistry) {
+        Assert.notNull(observationRegistry, "ObservationRegistry must not be null");
+        this.observationRegistry = observationRegistry;
+    }
+
+    public void setObservationConvention(HuaweiAiPanguObservationConvention observationConvention) {
+        this.observationConvention = observationConvention;
+    }
+
+    private Observation observation(HuaweiAiPanguObservationContext observationContext) {
+        return HuaweiAiPanguObservationDocumentation.CLIENT_OPERATION.observation(this.observationConvention,
+                DefaultHuaweiAiPanguObservationConvention.INSTANCE, () -> observationContext, this.observationRegistry);
     }
 
-    private EmbeddingResponse generateEmbeddingResponse(PanguEmbeddingResp embeddingResponse) {
-        List<Embedding> data = generateEmbeddingList(embeddingResponse.getData());
-        EmbeddingResponseMetadata metadata = generateMetadata(embeddingResponse.getUsage());
-        return new EmbeddingResponse(data, metadata);
+    private PanguEmbeddingReq toEmbeddingRequest(List<String> inputs, EmbeddingOptions options) {
+        var panguEmbeddingReq = (this.defaultOptions != null)
+                ? PanguEmbeddingReq.builder().input(inputs).user(this.defaultOptions.getUser()).build()
+                : PanguEmbeddingReq.builder().input(inputs).build();
+
+        if (options != null && !EmbeddingOptions.EMPTY.equals(options)) {
+            panguEmbeddingReq = ModelOptionsUtils.merge(options, panguEmbeddingReq, PanguEmbeddingReq.class);
+        }
+        return panguEmbeddingReq;
     }
 
-    private List<Embedding> generateEmbeddingList(List<PanguEmbedding> nativeData) {
-        List<Embedding> data = new ArrayList<>();
-        for (PanguEmbedding nativeDatum : nativeData) {
-            List<Float> nativeDatumEmbedding = nativeDatum.getEmbedding();
-            int nativeIndex = nativeDatum.getIndex();
-            Embedding embedding = new Embedding(nativeDatumEmbedding.stream().map(Float::doubleValue).collect(Collectors.toList()), nativeIndex);
-            data.add(embedding);
+    /**
+     * Sum the usage and retries of all sub-batches into the observation context.
+     */
+    private EmbeddingResponseMetadata observeBatches(List<EmbeddingBatchResult> results, HuaweiAiPanguObservationContext observationContext) {
+        long promptTokens = 0;
+        long completionTokens = 0;
+        long totalTokens = 0;
+        int retryCount = 0;
+        for (EmbeddingBatchResult result : results) {
+            retryCount = Math.max(retryCount, result.retryCount());
+            PanguUsage usage = Objects.nonNull(result.response()) ? result.response().getUsage() : null;
+            if (Objects.nonNull(usage)) {
+                promptTokens += Objects.requireNonNullElse(usage.getPromptTokens(), 0L);
+                completionTokens += Objects.requireNonNullElse(usage.getCompletionTokens(), 0L);
+                totalTokens += Objects.requireNonNullElse(usage.getTotalTokens(), 0L);
+            }
         }
-        return data;
+        observationContext.setRetryCount(retryCount);
+        observationContext.setUsage(promptTokens, completionTokens);
+        return generateMetadata(promptTokens, completionTokens, totalTokens);
     }
 
-    private EmbeddingResponseMetadata generateMetadata(PanguUsage embeddingsUsage) {
+    private EmbeddingResponseMetadata generateMetadata(long promptTokens, long completionTokens, long totalTokens) {
         EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
         // metadata.put("model", model);
-        metadata.put("prompt-tokens", embeddingsUsage.getPromptTokens());
-        metadata.put("completion-tokens", embeddingsUsage.getCompletionTokens());
-        metadata.put("total-tokens", embeddingsUsage.getTotalTokens());
+        metadata.put("prompt-tokens", promptTokens);
+        metadata.put("completion-tokens", completionTokens);
+        metadata.put("total-tokens", totalTokens);
         return metadata;
     }
 
+    private record EmbeddingBatch(int offset, List<String> inputs) {
+    }
+
+    private record EmbeddingBatchResult(int offset, int size, PanguEmbeddingResp response, int retryCount) {
+    }
+
+    private record PendingVectors(float[][] vectors, String[] keys, List<String> missTexts, List<Integer> missIndexes, int[] duplicateOf) {
+    }
+
+    private record EmbeddedVectors(float[][] vectors, EmbeddingResponseMetadata metadata) {
+    }
+
 }
@@ -0,0 +1,210 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 向量微批：收集并发的单条文本请求，时间窗口结束或达到批大小时合并为一次请求，按下标将向量分发给各调用方。
+ * 以单条调用最多等待一个时间窗口为代价，高并发时大幅减少 HTTP 往返次数。
+ */
+public class HuaweiAiPanguEmbeddingMicroBatcher {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final Scheduler timer;
+    private final Function<List<String>, float[][]> embedder;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 当前批次中按文本去重的调用方，guarded by {@link #lock}
+     */
+    private Map<String, CompletableFuture<float[]>> pending = new LinkedHashMap<>();
+    private Disposable windowTask;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedTexts = new LongAdder();
+
+    /**
+     * @param window 收集文本的时间窗口
+     * @param maxBatchSize 单批最多合并的文本条数
+     * @param scheduler 执行阻塞的批量请求
+     * @param embedder 批量获取向量，返回与输入顺序一致的向量
+     */
+    public HuaweiAiPanguEmbeddingMicroBatcher(Duration window, int maxBatchSize, Scheduler scheduler,
+                                              Function<List<String>, float[][]> embedder) {
+        this(window, maxBatchSize, scheduler, Schedulers.parallel(), embedder);
+    }
+
+    /**
+     * @param window 收集文本的时间窗口
+     * @param maxBatchSize 单批最多合并的文本条数
+     * @param scheduler 执行阻塞的批量请求，可为不支持定时任务的调度器（如虚拟线程调度器）
+     * @param timer 时间窗口计时，须支持定时任务，只负责将批次交给 scheduler
+     * @param embedder 批量获取向量，返回与输入顺序一致的向量
+     */
+    public HuaweiAiPanguEmbeddingMicroBatcher(Duration window, int maxBatchSize, Scheduler scheduler,
+                                              Scheduler timer, Function<List<String>, float[][]> embedder) {
+        Assert.notNull(window, "window must not be null");
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        Assert.notNull(scheduler, "Scheduler must not be null");
+        Assert.notNull(timer, "Timer must not be null");
+        Assert.notNull(embedder, "Embedder must not be null");
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.timer = timer;
+        this.embedder = embedder;
+    }
+
+    /**
+     * 获取单条文本的向量，阻塞至所在批次完成
+     * @param text 文本
+     * @return 向量，未返回向量时为 null
+     */
+    public float[] embed(String text) {
+        CompletableFuture<float[]> vector = this.submit(text);
+        try {
+            return vector.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an embedding batch");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * 将文本加入当前批次
+     * @param text 文本
+     * @return 所在批次完成时得到向量
+     * @throws RejectedExecutionException 计时器拒绝时间窗口任务时，文本不会留在批次中
+     */
+    public CompletableFuture<float[]> submit(String text) {
+        calls.increment();
+        Map<String, CompletableFuture<float[]>> full = null;
+        CompletableFuture<float[]> vector;
+        lock.lock();
+        try {
+            // Identical texts within a window share one input of the batch.
+            vector = pending.computeIfAbsent(text, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = this.takeBatch();
+            } else if (Objects.isNull(windowTask)) {
+                // The window starts with the first text, so no caller waits longer than one window.
+                try {
+                    windowTask = timer.schedule(this::flushWindow, windowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Without a window the text would wait forever, the window starts with it so it is the only one pending.
+                    pending.remove(text, vector);
+                    throw e;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (Objects.nonNull(full)) {
+            this.dispatch(full);
+        }
+        return vector;
+    }
+
+    /**
+     * @return embed 调用次数
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return 发送的批量请求数
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return 批量请求中的文本总数（去重后）
+     */
+    public long getBatchedTexts() {
+        return batchedTexts.sum();
+    }
+
+    private void flushWindow() {
+        Map<String, CompletableFuture<float[]>> batch;
+        lock.lock();
+        try {
+            windowTask = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = this.takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        // The timer only hands the batch over, the blocking request runs on the batch scheduler.
+        this.dispatch(batch);
+    }
+
+    /**
+     * Hand over the current batch and start a new one, must hold {@link #lock}.
+     */
+    private Map<String, CompletableFuture<float[]>> takeBatch() {
+        Map<String, CompletableFuture<float[]>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (Objects.nonNull(windowTask)) {
+            windowTask.dispose();
+            windowTask = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<float[]>> batch) {
+        try {
+            scheduler.schedule(() -> this.embedBatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(vector -> vector.completeExceptionally(e));
+        }
+    }
+
+    private void embedBatch(Map<String, CompletableFuture<float[]>> batch) {
+        List<String> texts = new ArrayList<>(batch.keySet());
+        batches.increment();
+        batchedTexts.add(texts.size());
+        try {
+            float[][] vectors = embedder.apply(texts);
+            for (int i = 0; i < texts.size(); i++) {
+                float[] vector = Objects.nonNull(vectors) && i < vectors.length ? vectors[i] : null;
+                batch.get(texts.get(i)).complete(vector);
+            }
+        } catch (Throwable e) {
+            // Every caller of the batch sees the failure, each may retry on its own.
+            batch.values().forEach(vector -> vector.completeExceptionally(e));
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguHedgeMetrics;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 对冲请求执行器：请求在近期延迟的指定分位数内未返回时发出一个重复请求，先成功的结果胜出，另一请求被取消。
+ * 对冲请求受预算限制，最多占请求总数的指定百分比，避免上游变慢时成倍放大负载。
+ */
+public class HuaweiAiPanguHedger {
+
+    /**
+     * Credits of one hedged request, each request deposits its budget share of it.
+     */
+    private static final long HEDGE_CREDITS = 1000;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final long creditsPerRequest;
+    private final long maxCredits;
+    private final AtomicLong credits = new AtomicLong();
+    /**
+     * Ring buffer of recent latencies, guarded by {@link #lock}.
+     */
+    private final long[] latencies;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int updateInterval;
+    private int samples;
+    private int nextSample;
+    private int samplesSinceUpdate;
+    private volatile long delayNanos;
+    private HuaweiAiPanguHedgeMetrics hedgeMetrics = HuaweiAiPanguHedgeMetrics.NOOP;
+
+    /**
+     * @param percentile 触发对冲的近期延迟分位数
+     * @param initialDelay 样本不足时使用的对冲延迟
+     * @param minDelay 对冲延迟的下界
+     * @param maxDelay 对冲延迟的上界
+     * @param minSamples 按分位数计算对冲延迟前至少需要的延迟样本数
+     * @param window 保留的近期延迟样本数
+     * @param budgetPercent 对冲请求最多占请求总数的百分比
+     */
+    public HuaweiAiPanguHedger(double percentile, Duration initialDelay, Duration minDelay, Duration maxDelay,
+                               int minSamples, int window, double budgetPercent) {
+        Assert.isTrue(percentile > 0 && percentile <= 1, "percentile must be in (0, 1]");
+        Assert.notNull(initialDelay, "initialDelay must not be null");
+        Assert.notNull(minDelay, "minDelay must not be null");
+        Assert.notNull(maxDelay, "maxDelay must not be null");
+        Assert.isTrue(window > 0, "window must be positive");
+        Assert.isTrue(budgetPercent >= 0, "budgetPercent must not be negative");
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.minSamples = minSamples;
+        this.creditsPerRequest = Math.round(HEDGE_CREDITS * budgetPercent / 100);
+        // Allow a short burst of hedges after a quiet period, but never more than ten in a row.
+        this.maxCredits = HEDGE_CREDITS * 10;
+        this.latencies = new long[window];
+        this.updateInterval = Math.max(1, window / 20);
+        this.delayNanos = this.clamp(initialDelay.toNanos());
+    }
+
+    /**
+     * 执行一次请求，超过对冲延迟仍未返回时在预算内发出对冲请求
+     * @param attempt 创建一次请求，参数表示是否为对冲请求；返回的 Mono 被取消时应放弃请求
+     * @return 先成功的结果，两个请求都失败时返回最后一个错误
+     */
+    public <T> Mono<T> execute(Function<Boolean, Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            hedgeMetrics.onRequest();
+            this.deposit();
+            // Attempts that may still succeed; an error only fails the request once none is left.
+            AtomicInteger inFlight = new AtomicInteger(1);
+            Mono<Attempt<T>> primary = attempt.apply(false).map(value -> new Attempt<>(value, false));
+            Mono<Attempt<T>> hedge = Mono.delay(Duration.ofNanos(this.delayNanos))
+                    .flatMap(tick -> {
+                        if (!this.withdraw()) {
+                            hedgeMetrics.onBudgetExhausted();
+                            return Mono.empty();
+                        }
+                        inFlight.incrementAndGet();
+                        hedgeMetrics.onHedge();
+                        return attempt.apply(true).map(value -> new Attempt<>(value, true));
+                    });
+            return Flux.merge(primary.materialize(), hedge.materialize())
+                    .<Attempt<T>>handle((signal, sink) -> {
+                        if (signal.isOnNext()) {
+                            sink.next(signal.get());
+                        } else if (signal.isOnError() && inFlight.decrementAndGet() == 0) {
+                            sink.error(signal.getThrowable());
+                        }
+                    })
+                    // Taking the first success cancels the other attempt.
+                    .next()
+                    .map(winner -> {
+                        this.record(System.nanoTime() - startNanos);
+                        if (winner.hedge()) {
+                            hedgeMetrics.onHedgeWin();
+                        }
+                        return winner.value();
+                    });
+        });
+    }
+
+    /**
+     * 当前的对冲延迟
+     * @return 纳秒
+     */
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    public void setHedgeMetrics(HuaweiAiPanguHedgeMetrics hedgeMetrics) {
+        Assert.notNull(hedgeMetrics, "HedgeMetrics must not be null");
+        this.hedgeMetrics = hedgeMetrics;
+        hedgeMetrics.onHedger(this);
+    }
+
+    private void deposit() {
+        credits.updateAndGet(current -> Math.min(maxCredits, current + creditsPerRequest));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < HEDGE_CREDITS) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - HEDGE_CREDITS));
+        return true;
+    }
+
+    private void record(long latencyNanos) {
+        lock.lock();
+        try {
+            latencies[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % latencies.length;
+            samples = Math.min(samples + 1, latencies.length);
+            // Sorting the window on every request is wasteful, refresh the percentile every few samples.
+            if (samples >= minSamples && ++samplesSinceUpdate >= updateInterval) {
+                samplesSinceUpdate = 0;
+                long[] sorted = Arrays.copyOf(latencies, samples);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * samples) - 1;
+                delayNanos = this.clamp(sorted[Math.max(0, index)]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long clamp(long nanos) {
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, nanos));
+    }
+
+    private record Attempt<T>(T value, boolean hedge) {
+    }
+
+}
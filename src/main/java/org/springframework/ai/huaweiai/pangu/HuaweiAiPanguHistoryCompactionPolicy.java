@@ -0,0 +1,40 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 对话历史压缩策略：决定超出上下文预算时较早的对话如何处理，例如直接丢弃或替换为摘要。
+ * 系统消息与最近的对话轮次不会交给策略处理。
+ */
+@FunctionalInterface
+public interface HuaweiAiPanguHistoryCompactionPolicy {
+
+    /**
+     * Drops the oldest messages until the rest fits, never keeping an answer without its question.
+     */
+    HuaweiAiPanguHistoryCompactionPolicy DROP_OLDEST = (olderMessages, budgetTokens, tokenEstimator) -> {
+        int start = olderMessages.size();
+        long tokens = 0;
+        while (start > 0 && tokens + tokenEstimator.applyAsLong(olderMessages.get(start - 1)) <= budgetTokens) {
+            tokens += tokenEstimator.applyAsLong(olderMessages.get(--start));
+        }
+        while (start < olderMessages.size() && olderMessages.get(start).getMessageType() != MessageType.USER) {
+            start++;
+        }
+        return olderMessages.subList(start, olderMessages.size());
+    };
+
+    /**
+     * 压缩较早的对话
+     * @param olderMessages 较早的对话消息，按时间顺序排列，不含系统消息
+     * @param budgetTokens 保留系统消息与最近轮次后剩余的 Token 预算，可能为 0
+     * @param tokenEstimator 本地估算单条消息的 Token 数
+     * @return 代替较早对话发送的消息，按时间顺序排列
+     */
+    List<Message> compact(List<Message> olderMessages, long budgetTokens, ToLongFunction<Message> tokenEstimator);
+
+}
@@ -0,0 +1,191 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对话历史压缩：以本地估算的 Token 数衡量请求，超出模型上下文预算时保留系统消息与最近的对话轮次，
+ * 较早的对话交由压缩策略丢弃或摘要，请求大小与预填充耗时不再随会话增长。
+ */
+public class HuaweiAiPanguHistoryCompactor {
+
+    /**
+     * Compactor that always forwards the whole history, used when compaction is disabled.
+     */
+    public static final HuaweiAiPanguHistoryCompactor DISABLED = new HuaweiAiPanguHistoryCompactor(false, Integer.MAX_VALUE, Map.of(), 1.5, 2);
+
+    private static final Logger log = LoggerFactory.getLogger(HuaweiAiPanguHistoryCompactor.class);
+
+    private final boolean enabled;
+    private final int maxContextTokens;
+    private final Map<String, Integer> moduleMaxContextTokens;
+    private final double charactersPerToken;
+    private final int keepRecentTurns;
+    private HuaweiAiPanguHistoryCompactionPolicy policy = HuaweiAiPanguHistoryCompactionPolicy.DROP_OLDEST;
+
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder compactedTokens = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+
+    /**
+     * @param maxContextTokens 默认的上下文 Token 预算，包含为回答预留的 maxTokens
+     * @param moduleMaxContextTokens 按模型版本指定的上下文 Token 预算
+     * @param charactersPerToken 本地估算 Token 数时每个 Token 对应的平均字符数
+     * @param keepRecentTurns 始终保留的最近轮数
+     */
+    public HuaweiAiPanguHistoryCompactor(int maxContextTokens, Map<String, Integer> moduleMaxContextTokens,
+                                         double charactersPerToken, int keepRecentTurns) {
+        this(true, maxContextTokens, moduleMaxContextTokens, charactersPerToken, keepRecentTurns);
+    }
+
+    private HuaweiAiPanguHistoryCompactor(boolean enabled, int maxContextTokens, Map<String, Integer> moduleMaxContextTokens,
+                                          double charactersPerToken, int keepRecentTurns) {
+        Assert.notNull(moduleMaxContextTokens, "moduleMaxContextTokens must not be null");
+        Assert.isTrue(charactersPerToken > 0, "charactersPerToken must be positive");
+        Assert.isTrue(keepRecentTurns > 0, "keepRecentTurns must be positive");
+        this.enabled = enabled;
+        this.maxContextTokens = maxContextTokens;
+        this.moduleMaxContextTokens = Map.copyOf(moduleMaxContextTokens);
+        this.charactersPerToken = charactersPerToken;
+        this.keepRecentTurns = keepRecentTurns;
+    }
+
+    /**
+     * 压缩提示词的对话历史，未超出预算时原样返回
+     * @param prompt 提示词
+     * @param maxTokens 为回答预留的 Token 数，可为空
+     * @return 压缩后的提示词
+     */
+    public Prompt compact(Prompt prompt, Integer maxTokens) {
+        List<Message> messages = prompt.getInstructions();
+        if (!enabled || messages.size() <= 1) {
+            return prompt;
+        }
+        long budget = this.getContextTokens(LlmUtils.getModuleVersion(prompt.getOptions())) - Objects.requireNonNullElse(maxTokens, 0);
+        long total = 0;
+        for (Message message : messages) {
+            total += this.estimateTokens(message);
+        }
+        if (total <= budget) {
+            return prompt;
+        }
+        // The system messages and the most recent turns are always sent, only the turns in between are compacted.
+        List<Message> systemMessages = new ArrayList<>();
+        List<Message> conversation = new ArrayList<>();
+        for (Message message : messages) {
+            (message.getMessageType() == MessageType.SYSTEM ? systemMessages : conversation).add(message);
+        }
+        int recentStart = this.recentStart(conversation);
+        if (recentStart == 0) {
+            // Every turn is a recent one, there is nothing the policy may compact.
+            this.onOverBudget(messages.size(), total, budget);
+            return prompt;
+        }
+        List<Message> olderMessages = conversation.subList(0, recentStart);
+        List<Message> recentMessages = conversation.subList(recentStart, conversation.size());
+        long kept = 0;
+        for (Message message : systemMessages) {
+            kept += this.estimateTokens(message);
+        }
+        for (Message message : recentMessages) {
+            kept += this.estimateTokens(message);
+        }
+        List<Message> compactedMessages = policy.compact(List.copyOf(olderMessages), Math.max(0, budget - kept), this::estimateTokens);
+
+        List<Message> compacted = new ArrayList<>(systemMessages.size() + compactedMessages.size() + recentMessages.size());
+        compacted.addAll(systemMessages);
+        compacted.addAll(compactedMessages);
+        compacted.addAll(recentMessages);
+        long compactedTotal = 0;
+        for (Message message : compacted) {
+            compactedTotal += this.estimateTokens(message);
+        }
+        compactions.increment();
+        compactedTokens.add(Math.max(0, total - compactedTotal));
+        if (compactedTotal > budget) {
+            // The system messages and the recent turns alone exceed the budget.
+            this.onOverBudget(compacted.size(), compactedTotal, budget);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compacted conversation history from {} to {} messages, about {} to {} tokens of a {} token budget",
+                    messages.size(), compacted.size(), total, compactedTotal, budget);
+        }
+        return new Prompt(compacted, prompt.getOptions());
+    }
+
+    /**
+     * 本地估算单条消息的 Token 数，按字符数计算，另计一个 Token 的角色开销
+     * @param message 消息
+     * @return Token 数
+     */
+    public long estimateTokens(Message message) {
+        return (long) Math.ceil(ApiUtils.contentLength(message.getContent()) / charactersPerToken) + 1;
+    }
+
+    public long getContextTokens(String moduleVersion) {
+        Integer contextTokens = Objects.nonNull(moduleVersion) ? moduleMaxContextTokens.get(moduleVersion) : null;
+        return Objects.nonNull(contextTokens) ? contextTokens : maxContextTokens;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 压缩过历史的请求数
+     */
+    public long getCompactions() {
+        return compactions.sum();
+    }
+
+    /**
+     * @return 压缩省去的估算 Token 数
+     */
+    public long getCompactedTokens() {
+        return compactedTokens.sum();
+    }
+
+    /**
+     * @return 无法压缩到预算内、超出预算发送的请求数
+     */
+    public long getOverBudget() {
+        return overBudget.sum();
+    }
+
+    public void setPolicy(HuaweiAiPanguHistoryCompactionPolicy policy) {
+        Assert.notNull(policy, "HistoryCompactionPolicy must not be null");
+        this.policy = policy;
+    }
+
+    private void onOverBudget(int messages, long tokens, long budget) {
+        overBudget.increment();
+        log.warn("Conversation history of {} messages, about {} tokens, exceeds the {} token budget even when keeping only "
+                + "the system messages and the {} most recent turns", messages, tokens, budget, keepRecentTurns);
+    }
+
+    /**
+     * Index of the first message of the most recent turns, a turn starts with a user message.
+     */
+    private int recentStart(List<Message> conversation) {
+        int turns = 0;
+        for (int i = conversation.size() - 1; i >= 0; i--) {
+            if (conversation.get(i).getMessageType() == MessageType.USER && ++turns == keepRecentTurns) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * 流式请求在已输出 token 后失败，且未启用续写或续写次数已用完。已输出的部分回答可通过 {@link #getPartialAnswer()} 获取。
+ */
+public class HuaweiAiPanguPartialStreamException extends NonTransientAiException {
+
+    private final String partialAnswer;
+
+    public HuaweiAiPanguPartialStreamException(String partialAnswer, Throwable cause) {
+        super("Stream failed after " + partialAnswer.length() + " characters were emitted: " + cause.getMessage(), cause);
+        this.partialAnswer = partialAnswer;
+    }
+
+    public String getPartialAnswer() {
+        return partialAnswer;
+    }
+
+}
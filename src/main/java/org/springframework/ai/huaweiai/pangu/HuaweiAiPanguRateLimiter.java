@@ -0,0 +1,303 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguLimiterMetrics;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 租户速率限制器：按租户与模型以令牌桶限制每分钟请求数（RPM）与 Token 数（TPM），与盘古服务的配额保持一致。
+ * 调用前按估算的提示词 Token 数预留配额，调用后按实际用量（{@code PanguUsage}）或流式回答的长度修正；被限流（429）时清空当前配额。
+ * 配额不足的请求按到达顺序排队等待而不是失败，预计等待超过最长等待时间时抛出 {@link RejectedExecutionException}。
+ */
+public class HuaweiAiPanguRateLimiter {
+
+    /**
+     * Limiter that never waits, used when rate limiting is disabled.
+     */
+    public static final HuaweiAiPanguRateLimiter UNLIMITED = new HuaweiAiPanguRateLimiter(false, "unlimited", 0, 0, 1.5,
+            Duration.ZERO, 0, Duration.ZERO);
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * 限制器名称（如 chat、embedding），用于指标与日志
+     */
+    private final String name;
+    private final boolean enabled;
+    private final int requestsPerMinute;
+    private final long tokensPerMinute;
+    private final double charactersPerToken;
+    private final Duration maxWait;
+    private final Cache<String, TenantQuota> quotas;
+    private HuaweiAiPanguLimiterMetrics limiterMetrics = HuaweiAiPanguLimiterMetrics.NOOP;
+
+    /**
+     * @param name 限制器名称
+     * @param requestsPerMinute 每分钟最多请求数，0 表示不限制
+     * @param tokensPerMinute 每分钟最多 Token 数，0 表示不限制
+     * @param charactersPerToken 估算提示词 Token 数时每个 Token 对应的字符数
+     * @param maxWait 配额不足时最长排队等待时间
+     * @param maxTenants 最多跟踪的租户与模型数量
+     * @param tenantExpireAfterAccess 租户配额在未访问后的过期时间
+     */
+    public HuaweiAiPanguRateLimiter(String name, int requestsPerMinute, long tokensPerMinute, double charactersPerToken,
+                                    Duration maxWait, long maxTenants, Duration tenantExpireAfterAccess) {
+        this(true, name, requestsPerMinute, tokensPerMinute, charactersPerToken, maxWait, maxTenants, tenantExpireAfterAccess);
+    }
+
+    private HuaweiAiPanguRateLimiter(boolean enabled, String name, int requestsPerMinute, long tokensPerMinute, double charactersPerToken,
+                                     Duration maxWait, long maxTenants, Duration tenantExpireAfterAccess) {
+        Assert.hasText(name, "Name must not be empty");
+        Assert.isTrue(requestsPerMinute >= 0, "requestsPerMinute must not be negative");
+        Assert.isTrue(tokensPerMinute >= 0, "tokensPerMinute must not be negative");
+        Assert.isTrue(charactersPerToken > 0, "charactersPerToken must be positive");
+        Assert.notNull(maxWait, "maxWait must not be null");
+        Assert.notNull(tenantExpireAfterAccess, "tenantExpireAfterAccess must not be null");
+        this.name = name;
+        this.enabled = enabled;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.charactersPerToken = charactersPerToken;
+        this.maxWait = maxWait;
+        this.quotas = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(tenantExpireAfterAccess)
+                .build();
+    }
+
+    /**
+     * 估算文本的 Token 数
+     * @param characters 文本字符数
+     * @return 估算的 Token 数
+     */
+    public long estimateTokens(long characters) {
+        return (long) Math.ceil(characters / charactersPerToken);
+    }
+
+    /**
+     * 在租户与模型的配额内执行调用，调用后按实际用量修正 Token 配额
+     * @param tenant 租户联合键
+     * @param model 模型版本，为空时使用默认模型
+     * @param estimatedTokens 估算的提示词 Token 数
+     * @param call 阻塞的 SDK 调用
+     * @param usedTokens 从调用结果读取实际消耗的 Token 数，未知时返回负数
+     * @return 调用结果
+     */
+    public <T> T execute(String tenant, String model, long estimatedTokens, Supplier<T> call, ToLongFunction<T> usedTokens) {
+        return this.execute(tenant, model, estimatedTokens, call,
+                result -> Objects.nonNull(result) ? usedTokens.applyAsLong(result) : -1, () -> -1);
+    }
+
+    /**
+     * 在租户与模型的配额内执行调用，调用结束时按实际消耗修正 Token 配额（如流式请求，按已读取的回答估算）
+     * @param tenant 租户联合键
+     * @param model 模型版本，为空时使用默认模型
+     * @param estimatedTokens 估算的提示词 Token 数
+     * @param call 阻塞的 SDK 调用
+     * @param usedTokens 调用成功或失败后读取已消耗的 Token 数，未知时返回负数（失败时退还预留的配额）
+     */
+    public void run(String tenant, String model, long estimatedTokens, Runnable call, LongSupplier usedTokens) {
+        this.execute(tenant, model, estimatedTokens, () -> {
+            call.run();
+            return null;
+        }, result -> usedTokens.getAsLong(), usedTokens);
+    }
+
+    private <T> T execute(String tenant, String model, long estimatedTokens, Supplier<T> call,
+                          ToLongFunction<T> usedTokens, LongSupplier failedTokens) {
+        if (!enabled) {
+            return call.get();
+        }
+        String quotaKey = Objects.toString(tenant, "default") + "/" + Objects.toString(model, "default");
+        TenantQuota quota = this.quotas.get(quotaKey, key -> new TenantQuota());
+        long reservedTokens = quota.acquire(quotaKey, estimatedTokens);
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            if (ApiUtils.isThrottled(e)) {
+                // Upstream disagrees with the local estimate, stop sending until the buckets refill.
+                quota.drain();
+            } else {
+                // A failed stream may have consumed tokens before it broke off, otherwise the reservation is returned.
+                long consumedTokens = failedTokens.getAsLong();
+                quota.adjust(consumedTokens >= 0 ? reservedTokens - consumedTokens : reservedTokens);
+            }
+            throw e;
+        }
+        long actualTokens = usedTokens.applyAsLong(result);
+        if (actualTokens >= 0) {
+            quota.adjust(reservedTokens - actualTokens);
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setLimiterMetrics(HuaweiAiPanguLimiterMetrics limiterMetrics) {
+        Assert.notNull(limiterMetrics, "LimiterMetrics must not be null");
+        this.limiterMetrics = limiterMetrics;
+    }
+
+    /**
+     * Request and token buckets of one tenant and model.
+     * Each acquisition reserves its share up front and may leave a bucket in debt, later requests
+     * wait for the debt to refill first, so waiting requests are served in arrival order.
+     */
+    private class TenantQuota {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TokenBucket requests;
+        private final TokenBucket tokens;
+
+        TenantQuota() {
+            long now = System.nanoTime();
+            this.requests = requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute, now) : null;
+            this.tokens = tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute, now) : null;
+        }
+
+        /**
+         * Reserve one request and the estimated tokens, then wait until the reservation is covered.
+         * @return the tokens actually reserved
+         */
+        long acquire(String quotaKey, long estimatedTokens) {
+            long reservedTokens = Objects.nonNull(tokens) ? Math.min(Math.max(0, estimatedTokens), (long) tokens.capacity) : 0;
+            long waitNanos;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                waitNanos = 0;
+                if (Objects.nonNull(requests)) {
+                    waitNanos = requests.reserve(1, now);
+                }
+                if (Objects.nonNull(tokens)) {
+                    waitNanos = Math.max(waitNanos, tokens.reserve(reservedTokens, now));
+                }
+                if (waitNanos > maxWait.toNanos()) {
+                    this.release(reservedTokens, now);
+                    limiterMetrics.onRateRejected(name, quotaKey);
+                    throw new RejectedExecutionException("Rate limit of " + name + " requires waiting "
+                            + TimeUnit.NANOSECONDS.toMillis(waitNanos) + "ms, more than " + maxWait + " for: " + LlmUtils.redactKey(quotaKey));
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (waitNanos > 0) {
+                try {
+                    // Sleep outside the lock, a waiting virtual thread unmounts from its carrier.
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    lock.lock();
+                    try {
+                        this.release(reservedTokens, System.nanoTime());
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw new RejectedExecutionException("Interrupted while waiting for the " + name + " rate limit of: " + LlmUtils.redactKey(quotaKey), e);
+                }
+            }
+            limiterMetrics.onRateLimited(name, quotaKey, waitNanos);
+            return reservedTokens;
+        }
+
+        /**
+         * Return unused tokens, or take more when the call used more than reserved.
+         */
+        void adjust(long tokenDelta) {
+            if (Objects.isNull(tokens) || tokenDelta == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                tokens.add(tokenDelta, System.nanoTime());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drain() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                if (Objects.nonNull(requests)) {
+                    requests.drain(now);
+                }
+                if (Objects.nonNull(tokens)) {
+                    tokens.drain(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(long reservedTokens, long now) {
+            if (Objects.nonNull(requests)) {
+                requests.add(1, now);
+            }
+            if (Objects.nonNull(tokens)) {
+                tokens.add(reservedTokens, now);
+            }
+        }
+
+    }
+
+    /**
+     * Token bucket refilled continuously at its per minute rate, guarded by the owning quota's lock.
+     */
+    private static class TokenBucket {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long refilledAt;
+
+        TokenBucket(double perMinute, long now) {
+            this.capacity = perMinute;
+            this.refillPerNano = perMinute / MINUTE_NANOS;
+            this.available = perMinute;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Take the amount, possibly into debt.
+         * @return nanos until the debt is repaid
+         */
+        long reserve(double amount, long now) {
+            refill(now);
+            available -= amount;
+            return available >= 0 ? 0 : (long) Math.ceil(-available / refillPerNano);
+        }
+
+        void add(double amount, long now) {
+            refill(now);
+            available = Math.min(capacity, available + amount);
+        }
+
+        void drain(long now) {
+            refill(now);
+            available = Math.min(available, 0);
+        }
+
+        private void refill(long now) {
+            available = Math.min(capacity, available + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.Message;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并：租户、服务地址、合并后的参数与消息完全一致的并发请求共享同一次上游调用，
+ * 突发流量中的重复问题只消耗一次配额。仅合并同时在途的请求，调用结束后不保留结果。
+ */
+public class HuaweiAiPanguRequestCoalescer {
+
+    /**
+     * Coalescer that never shares a call, used when coalescing is disabled.
+     */
+    public static final HuaweiAiPanguRequestCoalescer DISABLED = new HuaweiAiPanguRequestCoalescer(false, false);
+
+    private final boolean enabled;
+    private final boolean streamEnabled;
+    private final Map<String, CompletableFuture<ChatResponse>> calls = new ConcurrentHashMap<>();
+    private final Map<String, Flux<ChatResponse>> streams = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+    private final LongAdder streamLeaders = new LongAdder();
+    private final LongAdder streamFollowers = new LongAdder();
+
+    /**
+     * @param streamEnabled 是否同时合并相同的流式请求
+     */
+    public HuaweiAiPanguRequestCoalescer(boolean streamEnabled) {
+        this(true, streamEnabled);
+    }
+
+    private HuaweiAiPanguRequestCoalescer(boolean enabled, boolean streamEnabled) {
+        this.enabled = enabled;
+        this.streamEnabled = streamEnabled;
+    }
+
+    /**
+     * 计算合并键，只包含发送给模型的内容，消息按原文比较
+     * @param tenantKey 租户标识
+     * @param endpointKey 服务地址标识
+     * @param messages 消息
+     * @param options 合并后的聊天配置
+     * @return 合并键
+     */
+    public String key(String tenantKey, String endpointKey, List<Message> messages, HuaweiAiPanguChatOptions options) {
+        StringJoiner joiner = new StringJoiner("\u0000");
+        joiner.add(Objects.toString(tenantKey, ""));
+        joiner.add(Objects.toString(endpointKey, ""));
+        joiner.add(Objects.toString(options.getAnswerNum(), ""));
+        joiner.add(Objects.toString(options.getMaxTokens(), ""));
+        joiner.add(Objects.toString(options.getTemperature(), ""));
+        joiner.add(Objects.toString(options.getTopP(), ""));
+        joiner.add(Objects.toString(options.getPresencePenalty(), ""));
+        joiner.add(Objects.toString(options.getUser(), ""));
+        joiner.add(Objects.toString(options.getWithPrompt(), ""));
+        for (Message message : messages) {
+            joiner.add(message.getMessageType().getValue() + ":" + Objects.toString(message.getContent(), ""));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * 执行请求，相同键已有在途调用时等待并共享其结果（含异常）
+     * @param key 合并键
+     * @param call 上游调用
+     * @return 响应
+     */
+    public ChatResponse execute(String key, Supplier<ChatResponse> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<ChatResponse> created = new CompletableFuture<>();
+        CompletableFuture<ChatResponse> inFlight = calls.putIfAbsent(key, created);
+        if (Objects.nonNull(inFlight)) {
+            followers.increment();
+            return this.await(inFlight);
+        }
+        leaders.increment();
+        try {
+            ChatResponse chatResponse = call.get();
+            created.complete(chatResponse);
+            return chatResponse;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, created);
+        }
+    }
+
+    /**
+     * 订阅流式请求，相同键已有在途流时共享该流：后加入的订阅者先收到已输出的片段。
+     * 所有订阅者取消后上游流随之取消。
+     * @param key 合并键
+     * @param stream 上游流
+     * @return 响应流
+     */
+    public Flux<ChatResponse> stream(String key, Supplier<Flux<ChatResponse>> stream) {
+        if (!streamEnabled) {
+            return stream.get();
+        }
+        return Flux.defer(() -> {
+            Flux<ChatResponse> inFlight = streams.get(key);
+            if (Objects.nonNull(inFlight)) {
+                streamFollowers.increment();
+                return inFlight;
+            }
+            AtomicReference<Flux<ChatResponse>> created = new AtomicReference<>();
+            // Replay the whole answer so far to late subscribers; the last cancellation cancels the upstream stream.
+            created.set(stream.get()
+                    .doFinally(signalType -> streams.remove(key, created.get()))
+                    .replay()
+                    .refCount());
+            inFlight = streams.putIfAbsent(key, created.get());
+            if (Objects.nonNull(inFlight)) {
+                streamFollowers.increment();
+                return inFlight;
+            }
+            streamLeaders.increment();
+            return created.get();
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 发起上游调用的请求数
+     */
+    public long getLeaders() {
+        return leaders.sum();
+    }
+
+    /**
+     * @return 共享在途调用、未发起上游调用的请求数
+     */
+    public long getFollowers() {
+        return followers.sum();
+    }
+
+    public long getStreamLeaders() {
+        return streamLeaders.sum();
+    }
+
+    public long getStreamFollowers() {
+        return streamFollowers.sum();
+    }
+
+    private ChatResponse await(CompletableFuture<ChatResponse> inFlight) {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a coalesced chat request");
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+}
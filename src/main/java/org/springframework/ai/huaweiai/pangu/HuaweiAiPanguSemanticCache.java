@@ -0,0 +1,303 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 语义响应缓存：以嵌入向量的余弦相似度匹配改写后的相同问题，按租户联合键隔离，租户内再按模型版本、系统消息及生成参数分区。
+ * 每个租户的向量连续存储在 float 数组中并整体扫描，只比较同一分区的条目；容量按租户计算，写满后覆盖该租户最早写入的条目。
+ */
+public class HuaweiAiPanguSemanticCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HuaweiAiPanguSemanticCache.class);
+
+    private final HuaweiAiPanguEmbeddingClient embeddingClient;
+    private final float similarityThreshold;
+    private final int maxEntriesPerTenant;
+    private final long expireAfterWriteNanos;
+    private final Cache<String, TenantIndex> tenants;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    /**
+     * @param embeddingClient 计算问题的嵌入向量
+     * @param similarityThreshold 命中所需的最小余弦相似度
+     * @param maxEntriesPerTenant 每个租户最多缓存的条目数
+     * @param maxTenants 最多缓存的租户数
+     * @param expireAfterWrite 条目写入后的过期时间，可为 null
+     */
+    public HuaweiAiPanguSemanticCache(HuaweiAiPanguEmbeddingClient embeddingClient, float similarityThreshold,
+                                      int maxEntriesPerTenant, long maxTenants, Duration expireAfterWrite) {
+        Assert.notNull(embeddingClient, "EmbeddingClient must not be null");
+        Assert.isTrue(maxEntriesPerTenant > 0, "maxEntriesPerTenant must be positive");
+        this.embeddingClient = embeddingClient;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.expireAfterWriteNanos = Objects.nonNull(expireAfterWrite) ? expireAfterWrite.toNanos() : Long.MAX_VALUE;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maxTenants);
+        if (Objects.nonNull(expireAfterWrite)) {
+            // A tenant without new entries for a whole TTL only holds expired ones.
+            builder.expireAfterAccess(expireAfterWrite);
+        }
+        this.tenants = builder.build();
+    }
+
+    /**
+     * 查找语义相近问题的缓存响应，仅适用于不含历史回复的单轮请求。
+     * 系统消息或生成参数不同的请求即使问题相同也不会共享响应。
+     * @param tenantKey 租户联合键
+     * @param prompt 请求
+     * @param options 合并后实际发送的聊天配置
+     * @return 查找结果，请求不适用语义缓存时返回 null
+     */
+    public Lookup lookup(String tenantKey, Prompt prompt, HuaweiAiPanguChatOptions options) {
+        String question = this.toQuestion(prompt);
+        if (Objects.isNull(question)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            float[] vector = this.normalize(embeddingClient.embedToFloatArrays(List.of(question))[0]);
+            if (Objects.isNull(vector)) {
+                return null;
+            }
+            String tenant = Objects.toString(tenantKey, "");
+            String partitionKey = this.partitionKey(prompt, options);
+            TenantIndex index = tenants.getIfPresent(tenant);
+            ChatResponse response = Objects.nonNull(index) ? index.search(partitionKey, vector, similarityThreshold, System.nanoTime()) : null;
+            if (Objects.nonNull(response)) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return new Lookup(tenant, partitionKey, vector, response);
+        } catch (RuntimeException e) {
+            // The cache must never fail the chat request itself.
+            log.warn("Semantic cache lookup failed, asking the model directly: {}", e.getMessage());
+            return null;
+        } finally {
+            lookups.increment();
+            lookupNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 缓存模型的响应
+     * @param lookup 未命中的查找结果
+     * @param response 模型响应
+     */
+    public void put(Lookup lookup, ChatResponse response) {
+        if (Objects.isNull(lookup) || Objects.isNull(response) || response.getResults().isEmpty()) {
+            return;
+        }
+        tenants.get(lookup.tenantKey(), key -> new TenantIndex(maxEntriesPerTenant))
+                .add(lookup.partitionKey(), lookup.vector(), response, System.nanoTime() + expireAfterWriteNanos);
+    }
+
+    public void invalidateAll() {
+        tenants.invalidateAll();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getLookupNanos() {
+        return lookupNanos.sum();
+    }
+
+    private String toQuestion(Prompt prompt) {
+        String question = null;
+        for (Message message : prompt.getInstructions()) {
+            if (message.getMessageType() == MessageType.ASSISTANT) {
+                // Follow-up questions depend on the conversation, they are not cacheable by meaning alone.
+                return null;
+            }
+            if (message.getMessageType() == MessageType.USER) {
+                question = message.getContent();
+            }
+        }
+        return StringUtils.hasText(question) ? question : null;
+    }
+
+    /**
+     * A SHA-256 digest of everything besides the tenant and the question that shapes the answer.
+     * The end user is left out, it does not change the answer.
+     */
+    private String partitionKey(Prompt prompt, HuaweiAiPanguChatOptions options) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.update(digest, LlmUtils.getModuleVersion(prompt.getOptions()));
+        this.update(digest, LlmUtils.getEndpointKey(prompt.getOptions()));
+        if (Objects.nonNull(options)) {
+            this.update(digest, options.getAnswerNum());
+            this.update(digest, options.getMaxTokens());
+            this.update(digest, options.getTemperature());
+            this.update(digest, options.getTopP());
+            this.update(digest, options.getPresencePenalty());
+            this.update(digest, options.getWithPrompt());
+        }
+        for (Message message : prompt.getInstructions()) {
+            if (message.getMessageType() == MessageType.SYSTEM) {
+                this.update(digest, message.getContent());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void update(MessageDigest digest, Object value) {
+        digest.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Scale a copy to unit length, the embedded vector may be shared with the embedding cache or the caller.
+     */
+    private float[] normalize(float[] vector) {
+        if (Objects.isNull(vector)) {
+            return null;
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * 查找结果，未命中时用于写入缓存
+     */
+    public record Lookup(String tenantKey, String partitionKey, float[] vector, ChatResponse response) {
+
+        public boolean isHit() {
+            return Objects.nonNull(response);
+        }
+
+    }
+
+    /**
+     * 单个租户的向量索引，各分区的条目共享租户的容量
+     */
+    private static final class TenantIndex {
+
+        private final int capacity;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private int dimensions;
+        private float[] vectors = new float[0];
+        private String[] partitions = new String[0];
+        private ChatResponse[] responses = new ChatResponse[0];
+        private long[] expiresAt = new long[0];
+        private int size;
+        private int next;
+
+        TenantIndex(int capacity) {
+            this.capacity = capacity;
+        }
+
+        ChatResponse search(String partition, float[] query, float threshold, long now) {
+            lock.readLock().lock();
+            try {
+                if (size == 0 || query.length != dimensions) {
+                    return null;
+                }
+                int best = -1;
+                float bestScore = threshold;
+                for (int i = 0; i < size; i++) {
+                    if (expiresAt[i] - now < 0 || !partition.equals(partitions[i])) {
+                        continue;
+                    }
+                    float score = 0;
+                    int offset = i * dimensions;
+                    for (int j = 0; j < dimensions; j++) {
+                        score += vectors[offset + j] * query[j];
+                    }
+                    if (score >= bestScore) {
+                        best = i;
+                        bestScore = score;
+                    }
+                }
+                return best >= 0 ? responses[best] : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(String partition, float[] vector, ChatResponse response, long expiry) {
+            lock.writeLock().lock();
+            try {
+                if (size > 0 && vector.length != dimensions) {
+                    // The embedding model changed, vectors of different spaces are not comparable.
+                    size = 0;
+                    next = 0;
+                }
+                dimensions = vector.length;
+                int slot;
+                if (size < capacity) {
+                    slot = size++;
+                    if (size > responses.length || size * dimensions > vectors.length) {
+                        int entries = Math.min(capacity, Math.max(16, size * 2));
+                        vectors = Arrays.copyOf(vectors, entries * dimensions);
+                        partitions = Arrays.copyOf(partitions, entries);
+                        responses = Arrays.copyOf(responses, entries);
+                        expiresAt = Arrays.copyOf(expiresAt, entries);
+                    }
+                } else {
+                    // Full: overwrite the oldest entry.
+                    slot = next;
+                    next = (next + 1) % capacity;
+                }
+                System.arraycopy(vector, 0, vectors, slot * dimensions, dimensions);
+                partitions[slot] = partition;
+                responses[slot] = response;
+                expiresAt[slot] = expiry;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+    }
+
+}
@@ -7,41 +7,285 @@ import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguStreamMetrics.StreamRecorder;
 import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.util.Assert;
+import reactor.core.Exceptions;
 import reactor.core.publisher.FluxSink;
 
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReentrantLock;
+
 public class HuaweiAiPanguStreamCallBack implements StreamCallBack {
 
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private FluxSink<ChatResponse> sink;
+    private final FluxSink<ChatResponse> sink;
+    private final int bufferSize;
+    private final HuaweiAiPanguStreamOverflowStrategy overflowStrategy;
+    private final StreamRecorder recorder;
+    /**
+     * Tokens waiting for downstream demand, guarded by {@link #lock}.
+     */
+    private final ArrayDeque<Token> buffer = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean cancelled;
+    private boolean completed;
+    /**
+     * Set once the sink got its terminal signal or was cancelled, guarded by {@link #lock}.
+     */
+    private boolean terminated;
+    /**
+     * Thread blocked in the SDK stream call, interrupted to abort the call, guarded by {@link #lock}.
+     */
+    private Thread producer;
+    private boolean aborted;
+    /**
+     * Characters of the answer the SDK read so far, including tokens dropped after cancellation, written by the producer only.
+     */
+    private volatile long answerLength;
 
     public HuaweiAiPanguStreamCallBack(FluxSink<ChatResponse> sink) {
+        this(sink, DEFAULT_BUFFER_SIZE, HuaweiAiPanguStreamOverflowStrategy.COALESCE);
+    }
+
+    public HuaweiAiPanguStreamCallBack(FluxSink<ChatResponse> sink, int bufferSize, HuaweiAiPanguStreamOverflowStrategy overflowStrategy) {
+        this(sink, bufferSize, overflowStrategy, StreamRecorder.NOOP);
+    }
+
+    public HuaweiAiPanguStreamCallBack(FluxSink<ChatResponse> sink, int bufferSize,
+                                       HuaweiAiPanguStreamOverflowStrategy overflowStrategy, StreamRecorder recorder) {
+        Assert.notNull(sink, "FluxSink must not be null");
+        Assert.isTrue(bufferSize > 0, "bufferSize must be positive");
+        Assert.notNull(overflowStrategy, "OverflowStrategy must not be null");
+        Assert.notNull(recorder, "StreamRecorder must not be null");
         this.sink = sink;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+        this.recorder = recorder;
+        this.sink.onRequest(n -> drain());
+        this.sink.onCancel(this::cancel);
     }
 
     @Override
     public void onStart(String callBackId) {
-        log.info("StreamCallBack onStart: callBackId ----> {}", callBackId);
+        if (log.isTraceEnabled()) {
+            log.trace("StreamCallBack onStart: callBackId ----> {}", callBackId);
+        }
     }
 
     @Override
     public void onEnd(String callBackId, StreamResult streamResult, LLMResp llmResp) {
-        log.info("StreamCallBack onEnd: callBackId ----> {} || llmResp ----> {}", callBackId, llmResp);
-        sink.next(ApiUtils.toChatResponse(callBackId, llmResp, true));
-        sink.complete();
+        if (log.isTraceEnabled()) {
+            log.trace("StreamCallBack onEnd: callBackId ----> {} || llmResp ----> {}", callBackId, llmResp);
+        }
+        recorder.onComplete();
+        answerLength += ApiUtils.contentLength(llmResp.getAnswer());
+        lock.lock();
+        try {
+            // The completion chunk is never dropped or coalesced, it may exceed the buffer by one.
+            buffer.addLast(new Token(callBackId, llmResp, llmResp.getAnswer(), true));
+            completed = true;
+        } finally {
+            lock.unlock();
+        }
+        drain();
     }
 
     @Override
     public void onError(String callBackId, StreamResult streamResult) {
+        if (isTerminated()) {
+            // Raised by the SDK after this callback aborted a cancelled or overflowed stream.
+            return;
+        }
         log.error("StreamCallBack onError: callBackId ----> {}", callBackId);
-        sink.error(new PanguDevSDKException("Error occurred in stream callback with id: " + callBackId));
+        recorder.onError();
+        terminate(new PanguDevSDKException("Error occurred in stream callback with id: " + callBackId));
     }
 
     @Override
     public void onNewToken(String callBackId, LLMResp llmResp) {
-       log.info("StreamCallBack onNewToken: callBackId ----> {} || llmResp ----> {}", callBackId, llmResp);
-       sink.next(ApiUtils.toChatResponse(callBackId, llmResp, false));
+        if (log.isTraceEnabled()) {
+            log.trace("StreamCallBack onNewToken: callBackId ----> {} || llmResp ----> {}", callBackId, llmResp);
+        }
+        answerLength += ApiUtils.contentLength(llmResp.getAnswer());
+        if (cancelled) {
+            throw aborted(callBackId);
+        }
+        recorder.onToken();
+        lock.lock();
+        try {
+            if (terminated) {
+                throw aborted(callBackId);
+            }
+            if (buffer.size() >= bufferSize) {
+                switch (overflowStrategy) {
+                    case DROP_OLDEST -> buffer.pollFirst();
+                    case COALESCE -> {
+                        Token last = buffer.pollLast();
+                        buffer.addLast(new Token(callBackId, llmResp, last.answer() + Objects.toString(llmResp.getAnswer(), ""), false));
+                        return;
+                    }
+                    case ERROR -> {
+                        recorder.onError();
+                        terminate(Exceptions.failWithOverflow("Stream buffer of " + bufferSize + " tokens overflowed for callback id: " + callBackId));
+                        abort();
+                        throw aborted(callBackId);
+                    }
+                }
+            }
+            buffer.addLast(new Token(callBackId, llmResp, llmResp.getAnswer(), false));
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    /**
+     * 已读取的回答字符数，用于在流结束后估算消耗的 Token
+     * @return 字符数
+     */
+    public long getAnswerLength() {
+        return answerLength;
+    }
+
+    public FluxSink<ChatResponse> getSink() {
+        return sink;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return 流是否已结束（完成、失败或被取消），之后的 SDK 回调均被忽略
+     */
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return terminated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 标记当前线程开始执行阻塞的 SDK 流式调用，流被取消或溢出时中断该线程以中止调用。
+     * 须在同一线程上以 {@link #stopProducing()} 结束。
+     */
+    public void startProducing() {
+        lock.lock();
+        try {
+            producer = Thread.currentThread();
+            if (terminated) {
+                // Cancelled before the call started.
+                abort();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 标记 SDK 流式调用结束，清除中止调用时设置的中断状态，避免影响复用的线程
+     */
+    public void stopProducing() {
+        boolean clearInterrupt;
+        lock.lock();
+        try {
+            producer = null;
+            clearInterrupt = aborted;
+        } finally {
+            lock.unlock();
+        }
+        if (clearInterrupt) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 以 SDK 调用抛出的异常结束流；流已结束时（如调用因取消被中止）忽略
+     * @param error 异常
+     */
+    public void fail(Throwable error) {
+        if (!terminate(error) && log.isDebugEnabled()) {
+            log.debug("Ignoring failure of terminated stream: {}", error.toString());
+        }
+    }
+
+    /**
+     * Emit buffered tokens as far as downstream demand allows, then complete once the buffer is drained.
+     */
+    private void drain() {
+        lock.lock();
+        try {
+            while (!terminated && !buffer.isEmpty() && sink.requestedFromDownstream() > 0) {
+                Token token = buffer.pollFirst();
+                sink.next(ApiUtils.toChatResponse(token.callBackId(), token.llmResp(), token.answer(), token.completion()));
+            }
+            if (!terminated && completed && buffer.isEmpty()) {
+                terminated = true;
+                sink.complete();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signal the error unless the sink already terminated, so the sink sees exactly one terminal signal.
+     */
+    private boolean terminate(Throwable error) {
+        lock.lock();
+        try {
+            if (terminated) {
+                return false;
+            }
+            terminated = true;
+            buffer.clear();
+            sink.error(error);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel() {
+        cancelled = true;
+        recorder.onCancel();
+        lock.lock();
+        try {
+            terminated = true;
+            buffer.clear();
+            abort();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The SDK offers no abort hook: interrupt the blocked call, must hold {@link #lock}. A blocking socket read ignores the
+     * interrupt, so the next token additionally fails the callback with {@link #aborted(String)} to unwind the read loop.
+     */
+    private void abort() {
+        if (Objects.nonNull(producer) && !aborted) {
+            aborted = true;
+            producer.interrupt();
+        }
+    }
+
+    /**
+     * Thrown from the callback to unwind the SDK read loop of a terminated stream, the executor ignores it as the sink already terminated.
+     */
+    private static CancellationException aborted(String callBackId) {
+        return new CancellationException("Stream with id " + callBackId + " was aborted");
+    }
+
+    private record Token(String callBackId, LLMResp llmResp, String answer, boolean completion) {
     }
 
 }
@@ -0,0 +1,285 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguStreamMetrics;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.util.Assert;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 流式请求执行器：SDK 的流式调用是阻塞的，统一在独立的调度器上执行，避免阻塞订阅线程（如 Netty 事件循环）。
+ */
+public class HuaweiAiPanguStreamExecutor implements AutoCloseable {
+
+    /**
+     * Default executor backed by the shared {@link Schedulers#boundedElastic()}.
+     */
+    public static final HuaweiAiPanguStreamExecutor DEFAULT = new HuaweiAiPanguStreamExecutor(Schedulers.boundedElastic(), false);
+
+    private final Scheduler scheduler;
+    private final boolean disposeScheduler;
+    private final int bufferSize;
+    private final HuaweiAiPanguStreamOverflowStrategy overflowStrategy;
+    private int queueDepth = Integer.MAX_VALUE;
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(500);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    private double jitter = 0.5;
+    private boolean resume = false;
+    private int maxResumes = 1;
+    private HuaweiAiPanguStreamMetrics streamMetrics = HuaweiAiPanguStreamMetrics.NOOP;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicInteger pendingStreams = new AtomicInteger();
+    private final LongAdder startedStreams = new LongAdder();
+    private final LongAdder rejectedStreams = new LongAdder();
+    private final LongAdder queueWaitNanosTotal = new LongAdder();
+    private final AtomicLong queueWaitNanosMax = new AtomicLong();
+
+    public HuaweiAiPanguStreamExecutor(Scheduler scheduler, boolean disposeScheduler) {
+        this(scheduler, disposeScheduler, HuaweiAiPanguStreamCallBack.DEFAULT_BUFFER_SIZE, HuaweiAiPanguStreamOverflowStrategy.COALESCE);
+    }
+
+    public HuaweiAiPanguStreamExecutor(Scheduler scheduler, boolean disposeScheduler,
+                                       int bufferSize, HuaweiAiPanguStreamOverflowStrategy overflowStrategy) {
+        Assert.notNull(scheduler, "Scheduler must not be null");
+        Assert.notNull(overflowStrategy, "OverflowStrategy must not be null");
+        this.scheduler = scheduler;
+        this.disposeScheduler = disposeScheduler;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * 在调度器上执行阻塞的流式调用
+     * @param tenant 租户联合键，用于指标标签
+     * @param moduleVersion 模型版本，用于指标标签
+     * @param producer 流式调用，通过回调输出结果
+     * @return Flux，排队的请求数超过队列深度时以 {@link RejectedExecutionException} 结束
+     */
+    public Flux<ChatResponse> execute(String tenant, String moduleVersion, Consumer<HuaweiAiPanguStreamCallBack> producer) {
+        return Flux.defer(() -> {
+            long submittedAt = System.nanoTime();
+            // The queue of a bounded elastic scheduler is per thread, so bound the queued streams of all threads here.
+            if (pendingStreams.incrementAndGet() > queueDepth) {
+                pendingStreams.decrementAndGet();
+                rejectedStreams.increment();
+                return Flux.error(new RejectedExecutionException("Stream queue is full, queueDepth: " + queueDepth));
+            }
+            AtomicBoolean started = new AtomicBoolean();
+            return Flux.<ChatResponse>create(sink -> {
+                        if (started.compareAndSet(false, true)) {
+                            pendingStreams.decrementAndGet();
+                        }
+                        recordQueueWait(System.nanoTime() - submittedAt);
+                        startedStreams.increment();
+                        activeStreams.incrementAndGet();
+                        HuaweiAiPanguStreamCallBack callBack = new HuaweiAiPanguStreamCallBack(sink, bufferSize, overflowStrategy,
+                                streamMetrics.start(tenant, moduleVersion));
+                        callBack.startProducing();
+                        try {
+                            producer.accept(callBack);
+                        } catch (RuntimeException e) {
+                            // A call aborted by cancellation or overflow fails as well, the stream already terminated then.
+                            callBack.fail(e);
+                        } finally {
+                            callBack.stopProducing();
+                            activeStreams.decrementAndGet();
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doOnError(RejectedExecutionException.class, e -> rejectedStreams.increment())
+                    .doFinally(signal -> {
+                        if (started.compareAndSet(false, true)) {
+                            pendingStreams.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 在调度器上执行阻塞的流式调用，首个 token 之前失败时按抖动的指数退避重试；
+     * 已输出 token 后失败时按配置续写（将部分回答追加到对话中重新提问），或抛出 {@link HuaweiAiPanguPartialStreamException}
+     * @param tenant 租户联合键，用于指标标签
+     * @param moduleVersion 模型版本，用于指标标签
+     * @param producer 流式调用，每次尝试都会重新执行
+     * @return Flux
+     */
+    public Flux<ChatResponse> executeWithRetry(String tenant, String moduleVersion, StreamProducer producer) {
+        return Flux.defer(() -> this.executeWithRetry(tenant, moduleVersion, producer, new StringBuilder(), new AtomicInteger(), 0));
+    }
+
+    private Flux<ChatResponse> executeWithRetry(String tenant, String moduleVersion, StreamProducer producer,
+                                                StringBuilder answer, AtomicInteger retries, int resumes) {
+        String partialAnswer = resumes > 0 ? answer.toString() : null;
+        AtomicBoolean emitted = new AtomicBoolean();
+        RetryBackoffSpec retrySpec = Retry.backoff(Math.max(0, maxAttempts - 1), initialBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter)
+                // Once a token reached the subscriber the attempt can no longer be replayed transparently.
+                .filter(error -> !emitted.get() && isRetryable(error))
+                .doBeforeRetry(signal -> {
+                    retries.incrementAndGet();
+                    streamMetrics.onRetry(tenant, moduleVersion, false);
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        return Flux.defer(() -> {
+                    emitted.set(false);
+                    StreamAttempt attempt = new StreamAttempt(retries.get(), partialAnswer);
+                    return this.execute(tenant, moduleVersion, callBack -> producer.produce(attempt, callBack));
+                })
+                .doOnNext(chatResponse -> {
+                    emitted.set(true);
+                    if (Objects.nonNull(chatResponse.getResult()) && Objects.nonNull(chatResponse.getResult().getOutput().getContent())) {
+                        answer.append(chatResponse.getResult().getOutput().getContent());
+                    }
+                })
+                .retryWhen(retrySpec)
+                .onErrorResume(error -> {
+                    if (!emitted.get()) {
+                        return Flux.error(error);
+                    }
+                    if (resume && resumes < maxResumes && isRetryable(error)) {
+                        retries.incrementAndGet();
+                        streamMetrics.onRetry(tenant, moduleVersion, true);
+                        return this.executeWithRetry(tenant, moduleVersion, producer, answer, retries, resumes + 1);
+                    }
+                    return Flux.error(new HuaweiAiPanguPartialStreamException(answer.toString(), error));
+                });
+    }
+
+    /**
+     * Invalid requests, open circuits, full queues and buffer overflows fail the same way on every attempt.
+     */
+    private static boolean isRetryable(Throwable error) {
+        return !(error instanceof IllegalArgumentException
+                || error instanceof NonTransientAiException
+                || error instanceof RejectedExecutionException
+                || error instanceof CancellationException
+                || Exceptions.isOverflow(error));
+    }
+
+    private void recordQueueWait(long waitNanos) {
+        queueWaitNanosTotal.add(waitNanos);
+        queueWaitNanosMax.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * @param queueDepth 所有线程共用的排队上限，超出后请求被拒绝
+     */
+    public void setQueueDepth(int queueDepth) {
+        Assert.isTrue(queueDepth >= 0, "queueDepth must not be negative");
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * @param maxAttempts 首个 token 之前失败时的最大尝试次数（含首次请求），1 表示不重试
+     * @param initialBackoff 首次重试前的退避时间，之后按指数增长
+     * @param maxBackoff 重试退避时间的上限
+     * @param jitter 退避时间的随机抖动比例（0 ~ 1）
+     */
+    public void setRetry(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double jitter) {
+        Assert.notNull(initialBackoff, "InitialBackoff must not be null");
+        Assert.notNull(maxBackoff, "MaxBackoff must not be null");
+        Assert.isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @param resume 已输出 token 后失败时，是否将已输出的部分回答追加到对话中重新提问以续写
+     * @param maxResumes 单个流最多续写的次数
+     */
+    public void setResume(boolean resume, int maxResumes) {
+        Assert.isTrue(maxResumes >= 0, "maxResumes must not be negative");
+        this.resume = resume;
+        this.maxResumes = maxResumes;
+    }
+
+    public void setStreamMetrics(HuaweiAiPanguStreamMetrics streamMetrics) {
+        Assert.notNull(streamMetrics, "StreamMetrics must not be null");
+        this.streamMetrics = streamMetrics;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return 正在执行的流式请求数
+     */
+    public int getActiveStreams() {
+        return activeStreams.get();
+    }
+
+    /**
+     * @return 排队等待执行的流式请求数
+     */
+    public int getPendingStreams() {
+        return pendingStreams.get();
+    }
+
+    public long getStartedStreams() {
+        return startedStreams.sum();
+    }
+
+    public long getRejectedStreams() {
+        return rejectedStreams.sum();
+    }
+
+    public long getQueueWaitNanosTotal() {
+        return queueWaitNanosTotal.sum();
+    }
+
+    public long getQueueWaitNanosMax() {
+        return queueWaitNanosMax.get();
+    }
+
+    @Override
+    public void close() {
+        if (disposeScheduler) {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * 一次流式请求尝试
+     * @param retryCount 之前的重试与续写次数
+     * @param partialAnswer 续写时已输出的部分回答，首次请求与首个 token 之前的重试为空
+     */
+    public record StreamAttempt(int retryCount, String partialAnswer) {
+
+        public boolean isResume() {
+            return Objects.nonNull(partialAnswer);
+        }
+
+    }
+
+    /**
+     * 阻塞的流式调用，通过回调输出结果
+     */
+    @FunctionalInterface
+    public interface StreamProducer {
+
+        void produce(StreamAttempt attempt, HuaweiAiPanguStreamCallBack callBack);
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.springframework.ai.huaweiai.pangu;
+
+/**
+ * 流式输出缓冲区溢出策略：下游消费速度跟不上模型输出时如何处理待发送的 token
+ */
+public enum HuaweiAiPanguStreamOverflowStrategy {
+
+    /**
+     * 丢弃缓冲区中最早的 token
+     */
+    DROP_OLDEST,
+    /**
+     * 将新 token 合并到缓冲区中最后一个待发送的 token，不丢失内容
+     */
+    COALESCE,
+    /**
+     * 以溢出异常终止流
+     */
+    ERROR
+
+}
@@ -0,0 +1,115 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 租户 LLM 客户端缓存：按联合键缓存客户端实例，容量与过期时间有界，
+ * 无需独立客户端的租户键（negative）单独以较短时间缓存，实例被回收时尝试关闭。
+ * @param <T> 客户端类型
+ */
+public class HuaweiAiPanguTenantClientCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(HuaweiAiPanguTenantClientCache.class);
+
+    private final String name;
+    private final Cache<String, T> clients;
+    private final Cache<String, Boolean> negatives;
+
+    /**
+     * @param name 缓存名称，用于日志与指标
+     * @param maximumSize 最多缓存的客户端数
+     * @param expireAfterAccess 访问后过期时间，可为 null
+     * @param expireAfterWrite 写入后过期时间，可为 null
+     * @param negativeExpireAfterWrite 无需独立客户端的联合键的缓存时间，可为 null
+     * @param recordStats 是否记录统计信息
+     */
+    public HuaweiAiPanguTenantClientCache(String name, long maximumSize, Duration expireAfterAccess, Duration expireAfterWrite,
+                                          Duration negativeExpireAfterWrite, boolean recordStats) {
+        this.name = name;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize);
+        if (Objects.nonNull(expireAfterAccess)) {
+            builder.expireAfterAccess(expireAfterAccess);
+        }
+        if (Objects.nonNull(expireAfterWrite)) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        if (recordStats) {
+            builder.recordStats();
+        }
+        this.clients = builder.removalListener(this::onRemoval).build();
+
+        Caffeine<Object, Object> negativeBuilder = Caffeine.newBuilder().maximumSize(maximumSize);
+        if (Objects.nonNull(negativeExpireAfterWrite)) {
+            negativeBuilder.expireAfterWrite(negativeExpireAfterWrite);
+        }
+        if (recordStats) {
+            negativeBuilder.recordStats();
+        }
+        this.negatives = negativeBuilder.build();
+    }
+
+    /**
+     * 获取或创建客户端
+     * @param unionKey 联合键
+     * @param loader 客户端构建函数，返回空表示该联合键无需独立客户端
+     * @return 客户端
+     */
+    public Optional<T> get(String unionKey, Function<String, Optional<T>> loader) {
+        if (Objects.nonNull(negatives.getIfPresent(unionKey))) {
+            return Optional.empty();
+        }
+        T client = clients.get(unionKey, key -> loader.apply(key).orElse(null));
+        if (Objects.isNull(client)) {
+            negatives.put(unionKey, Boolean.TRUE);
+        }
+        return Optional.ofNullable(client);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Cache<String, T> getClients() {
+        return clients;
+    }
+
+    public CacheStats stats() {
+        return clients.stats();
+    }
+
+    public CacheStats negativeStats() {
+        return negatives.stats();
+    }
+
+    public long estimatedSize() {
+        return clients.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        clients.invalidateAll();
+        negatives.invalidateAll();
+    }
+
+    private void onRemoval(String unionKey, T client, RemovalCause cause) {
+        if (cause == RemovalCause.REPLACED || !(client instanceof AutoCloseable closeable)) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.warn("Failed to close {} client for union key {} ({})", name, LlmUtils.redactKey(unionKey), cause, e);
+        }
+    }
+
+}
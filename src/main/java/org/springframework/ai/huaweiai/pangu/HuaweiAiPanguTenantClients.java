@@ -0,0 +1,188 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.api.embedings.config.EmbeddingConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.LLM;
+import com.huaweicloud.pangu.dev.sdk.api.llms.LLMs;
+import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import com.huaweicloud.pangu.dev.sdk.llms.module.Pangu;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.ai.huaweiai.pangu.util.PanguLlmPool;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 租户 SDK 客户端：按联合键缓存租户独立的 Pangu LLM、LLM 实例池及 PanguClient，容量与过期时间有界。
+ * 由自动配置按客户端缓存配置创建并注入各客户端，未注入时各客户端使用默认上限的独立实例，关闭时清理并关闭已缓存的客户端。
+ */
+public class HuaweiAiPanguTenantClients implements AutoCloseable {
+
+    private final int llmPoolMaxIdle;
+    private final int llmPoolMaxTotal;
+    private final Duration llmPoolMaxWait;
+    private final HuaweiAiPanguTenantClientCache<Pangu> llmCache;
+    private final HuaweiAiPanguTenantClientCache<PanguClient> chatClientCache;
+    private final HuaweiAiPanguTenantClientCache<PanguClient> embeddingClientCache;
+    private final HuaweiAiPanguTenantClientCache<PanguLlmPool> llmPoolCache;
+
+    /**
+     * 使用默认上限：每类最多 1000 个客户端，30 分钟未访问或写入 12 小时后回收，LLM 实例池最多 16 个空闲、256 个借出
+     */
+    public HuaweiAiPanguTenantClients() {
+        this(1000, Duration.ofMinutes(30), Duration.ofHours(12), Duration.ofMinutes(1), true,
+                PanguLlmPool.DEFAULT_MAX_IDLE, PanguLlmPool.DEFAULT_MAX_TOTAL, PanguLlmPool.DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * @param maximumSize 每类租户客户端最多缓存的实例数
+     * @param expireAfterAccess 访问后过期时间，可为 null
+     * @param expireAfterWrite 写入后过期时间，可为 null
+     * @param negativeExpireAfterWrite 无需独立客户端的租户键的缓存时间，可为 null
+     * @param recordStats 是否记录统计信息
+     * @param llmPoolMaxIdle 每个 LLM 实例池保留的最大空闲实例数
+     * @param llmPoolMaxTotal 每个 LLM 实例池最多同时借出的实例数
+     * @param llmPoolMaxWait 借出实例数达到上限时的最长等待时间
+     */
+    public HuaweiAiPanguTenantClients(long maximumSize, Duration expireAfterAccess, Duration expireAfterWrite,
+                                      Duration negativeExpireAfterWrite, boolean recordStats,
+                                      int llmPoolMaxIdle, int llmPoolMaxTotal, Duration llmPoolMaxWait) {
+        Assert.notNull(llmPoolMaxWait, "llmPoolMaxWait must not be null");
+        this.llmPoolMaxIdle = llmPoolMaxIdle;
+        this.llmPoolMaxTotal = llmPoolMaxTotal;
+        this.llmPoolMaxWait = llmPoolMaxWait;
+        this.llmCache = new HuaweiAiPanguTenantClientCache<>("pangu", maximumSize, expireAfterAccess, expireAfterWrite, negativeExpireAfterWrite, recordStats);
+        this.chatClientCache = new HuaweiAiPanguTenantClientCache<>("chat", maximumSize, expireAfterAccess, expireAfterWrite, negativeExpireAfterWrite, recordStats);
+        this.embeddingClientCache = new HuaweiAiPanguTenantClientCache<>("embedding", maximumSize, expireAfterAccess, expireAfterWrite, negativeExpireAfterWrite, recordStats);
+        this.llmPoolCache = new HuaweiAiPanguTenantClientCache<>("pool", maximumSize, expireAfterAccess, expireAfterWrite, negativeExpireAfterWrite, recordStats);
+    }
+
+    /**
+     * 创建 Pangu LLM 实例池，空闲数、借出上限与等待时间按配置
+     * @param llmConfig LLM 配置
+     * @return PanguLlmPool
+     */
+    public PanguLlmPool createLlmPool(LLMConfig llmConfig) {
+        return new PanguLlmPool(() -> LlmUtils.createLlm(llmConfig), llmPoolMaxIdle, llmPoolMaxTotal, llmPoolMaxWait);
+    }
+
+    /**
+     * 获取或创建 Pangu
+     * @param chatOptions 聊天配置
+     * @return Pangu
+     */
+    public Optional<Pangu> getOrCreatePanguLLM(HuaweiAiPanguChatOptions chatOptions) {
+        return llmCache.get(LlmUtils.getUnionKey(chatOptions), unionKey -> {
+            // 判断是否为独立租户聊天配置
+            if(chatOptions instanceof HuaweiAiPanguChatTenantOptions tenantOptions){
+                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
+                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
+                HuaweiAiPanguModuleOptions moduleOptions = tenantOptions.getModuleOptions();
+                if(Objects.isNull(iamOptions) && Objects.isNull(moduleOptions) ){
+                    return Optional.empty();
+                }
+                // 构建LLM，响应缓存由 HuaweiAiPanguCachedChatClient 按租户键统一管理
+                LLM pangu = LLMs.of(LLMs.PANGU, LlmUtils.toLLMConfig(tenantOptions));
+                return Optional.ofNullable((Pangu) pangu);
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 获取或创建 Pangu LLM 实例池，用于租户流式请求
+     * @param chatOptions 聊天配置
+     * @return PanguLlmPool
+     */
+    public Optional<PanguLlmPool> getOrCreatePanguLLMPool(HuaweiAiPanguChatOptions chatOptions) {
+        return llmPoolCache.get(LlmUtils.getUnionKey(chatOptions), unionKey -> {
+            // 判断是否为独立租户聊天配置
+            if(chatOptions instanceof HuaweiAiPanguChatTenantOptions tenantOptions){
+                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
+                if(Objects.isNull(tenantOptions.getIamOptions()) && Objects.isNull(tenantOptions.getModuleOptions()) ){
+                    return Optional.empty();
+                }
+                return Optional.of(createLlmPool(LlmUtils.toLLMConfig(tenantOptions)));
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 获取或创建 PanguClient
+     * @param chatOptions 聊天配置
+     * @return PanguClient
+     */
+    public Optional<PanguClient> getOrCreatePanguClient(HuaweiAiPanguChatOptions chatOptions) {
+        return chatClientCache.get(LlmUtils.getUnionKey(chatOptions), unionKey -> {
+            // 判断是否为独立租户聊天配置
+            if(chatOptions instanceof HuaweiAiPanguChatTenantOptions tenantOptions){
+                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
+                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
+                HuaweiAiPanguModuleOptions moduleOptions = tenantOptions.getModuleOptions();
+                if(Objects.isNull(iamOptions) && Objects.isNull(moduleOptions) ){
+                    return Optional.empty();
+                }
+                EmbeddingConfig embeddingConfig = ApiUtils.toEmbeddingConfig(tenantOptions);
+                return Optional.ofNullable(new PanguClient(LlmUtils.toLLMConfig(tenantOptions), embeddingConfig));
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 获取或创建 PanguClient
+     * @param embeddingOptions 嵌入配置
+     * @return PanguClient
+     */
+    public Optional<PanguClient> getOrCreatePanguClient(HuaweiAiPanguEmbeddingOptions embeddingOptions) {
+        return embeddingClientCache.get(LlmUtils.getUnionKey(embeddingOptions), key -> {
+            // 判断是否为独立租户 embedding 配置
+            if(embeddingOptions instanceof HuaweiAiPanguEmbeddingTenantOptions tenantOptions){
+                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
+                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
+                if(Objects.isNull(iamOptions)){
+                    return Optional.empty();
+                }
+                Assert.hasText(tenantOptions.getBaseUrl(), "Huawei AI Pangu base URL must be set");
+
+                EmbeddingConfig embeddingConfig = EmbeddingConfig.builder()
+                        .url(tenantOptions.getBaseUrl())
+                        .embeddingName(tenantOptions.getModel())
+                        .iamConfig(ApiUtils.toIAMConfig(iamOptions))
+                        .build();
+                HuaweiAiPanguHttpProxyOptions httpProxyOptions = tenantOptions.getHttpProxyOptions();
+                if(Objects.nonNull(httpProxyOptions)){
+                    embeddingConfig.setHttpConfig(ApiUtils.toHTTPConfig(httpProxyOptions));
+                }
+                return Optional.ofNullable(new PanguClient(embeddingConfig));
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 获取租户客户端缓存，用于暴露命中、未命中、回收及加载耗时等统计信息
+     * @return 租户客户端缓存
+     */
+    public List<HuaweiAiPanguTenantClientCache<?>> getCaches() {
+        return List.of(llmCache, chatClientCache, embeddingClientCache, llmPoolCache);
+    }
+
+    /**
+     * 清理已缓存的租户客户端，之后的请求将重新构建
+     */
+    public void invalidateAll() {
+        this.getCaches().forEach(HuaweiAiPanguTenantClientCache::invalidateAll);
+    }
+
+    @Override
+    public void close() {
+        this.invalidateAll();
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(HuaweiAiPanguAsyncProperties.CONFIG_PREFIX)
+public class HuaweiAiPanguAsyncProperties {
+
+    public static final String CONFIG_PREFIX = "spring.ai.huaweiai.pangu.async";
+
+    /**
+     * 同时执行的异步请求（阻塞的 SDK 调用）的最大数量
+     */
+    private int maxConcurrency = 10 * Runtime.getRuntime().availableProcessors();
+    /**
+     * 超出最大并发数后允许排队等待的异步请求数量（所有线程共用），超出后请求被拒绝
+     */
+    private int queueDepth = 10000;
+    /**
+     * 异步请求线程名前缀
+     */
+    private String threadNamePrefix = "pangu-async";
+    /**
+     * 空闲线程存活时间
+     */
+    private Duration threadTtl = Duration.ofSeconds(60);
+    /**
+     * 最大尝试次数（含首次请求）
+     */
+    private int maxAttempts = 3;
+    /**
+     * 首次重试的退避时间，之后按指数增长
+     */
+    private Duration initialBackoff = Duration.ofMillis(500);
+    /**
+     * 最大退避时间
+     */
+    private Duration maxBackoff = Duration.ofSeconds(10);
+    /**
+     * 退避时间的随机抖动比例，取值 0 ~ 1
+     */
+    private double jitter = 0.5;
+    /**
+     * 默认超时时间（含重试），为空时不限制，可在调用时单独指定
+     */
+    private Duration timeout;
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public Duration getThreadTtl() {
+        return threadTtl;
+    }
+
+    public void setThreadTtl(Duration threadTtl) {
+        this.threadTtl = threadTtl;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = jitter;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+}
@@ -5,36 +5,92 @@ import com.huaweicloud.pangu.dev.sdk.api.embedings.config.EmbeddingConfig;
 import com.huaweicloud.pangu.dev.sdk.api.llms.LLMs;
 import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.autoconfigure.retry.SpringAiRetryAutoConfiguration;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguAsyncExecutor;
 import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguCachedChatClient;
 import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatClient;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatResponseCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguCircuitBreaker;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguConcurrencyLimiter;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguEmbeddingCache;
 import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguEmbeddingClient;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHedger;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHistoryCompactionPolicy;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHistoryCompactor;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguRateLimiter;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguRequestCoalescer;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguSemanticCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamExecutor;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguTenantClients;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguCircuitBreakerMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguHedgeMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguLimiterMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguMeterBinder;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationConvention;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationMeterHandler;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguStreamMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.MicrometerHuaweiAiPanguCircuitBreakerMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.MicrometerHuaweiAiPanguHedgeMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.MicrometerHuaweiAiPanguLimiterMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.MicrometerHuaweiAiPanguStreamMetrics;
+import org.springframework.ai.huaweiai.pangu.metrics.VirtualThreadPinningMonitor;
 import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.ai.huaweiai.pangu.util.VirtualThreads;
 import org.springframework.ai.model.function.FunctionCallbackContext;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * {@link AutoConfiguration Auto-configuration} for Huawei Pangu Chat Client.
  */
-@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class })
+@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class },
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties({ HuaweiAiPanguChatProperties.class, HuaweiAiPanguConnectionProperties.class, HuaweiAiPanguEmbeddingProperties.class,
-        HuaweiAiPanguIamProperties.class })
+        HuaweiAiPanguIamProperties.class, HuaweiAiPanguClientCacheProperties.class, HuaweiAiPanguExecutionProperties.class,
+        HuaweiAiPanguAsyncProperties.class, HuaweiAiPanguConcurrencyLimitProperties.class, HuaweiAiPanguCircuitBreakerProperties.class })
 @ConditionalOnClass(LLMs.class)
 public class HuaweiAiPanguAutoConfiguration {
 
+    public static final String CHAT_RATE_LIMITER_BEAN_NAME = "panguAiChatRateLimiter";
+
+    public static final String EMBEDDING_RATE_LIMITER_BEAN_NAME = "panguAiEmbeddingRateLimiter";
+
+    private static final Logger log = LoggerFactory.getLogger(HuaweiAiPanguAutoConfiguration.class);
+
+    private final boolean virtualThreads;
+
+    public HuaweiAiPanguAutoConfiguration(HuaweiAiPanguExecutionProperties executionProperties) {
+        this.virtualThreads = executionProperties.isVirtualThreads() && VirtualThreads.isSupported();
+        if (executionProperties.isVirtualThreads() && !this.virtualThreads) {
+            log.warn("{}.virtual-threads requires JDK 21 or later, falling back to platform threads", HuaweiAiPanguExecutionProperties.CONFIG_PREFIX);
+        }
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
@@ -54,15 +110,210 @@ public class HuaweiAiPanguAutoConfiguration {
         return llmConfig;
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public HuaweiAiPanguStreamExecutor panguAiStreamExecutor(HuaweiAiPanguChatProperties chatProperties,
+                                                             HuaweiAiPanguExecutionProperties executionProperties,
+                                                             ObjectProvider<HuaweiAiPanguStreamMetrics> streamMetricsProvider) {
+        HuaweiAiPanguStreamProperties streamProperties = chatProperties.getStream();
+        HuaweiAiPanguStreamRetryProperties retryProperties = streamProperties.getRetry();
+        Scheduler scheduler = this.virtualThreads
+                ? VirtualThreads.newScheduler(executionProperties.getThreadNamePrefix() + "stream-")
+                : Schedulers.newBoundedElastic(streamProperties.getMaxInFlight(), streamProperties.getQueueDepth(),
+                        streamProperties.getThreadNamePrefix(), (int) streamProperties.getThreadTtl().toSeconds(), true);
+        HuaweiAiPanguStreamExecutor streamExecutor = new HuaweiAiPanguStreamExecutor(scheduler, true,
+                streamProperties.getBufferSize(), streamProperties.getOverflowStrategy());
+        streamExecutor.setQueueDepth(streamProperties.getQueueDepth());
+        streamExecutor.setRetry(retryProperties.getMaxAttempts(), retryProperties.getInitialBackoff(),
+                retryProperties.getMaxBackoff(), retryProperties.getJitter());
+        streamExecutor.setResume(retryProperties.isResume(), retryProperties.getMaxResumes());
+        streamExecutor.setStreamMetrics(streamMetricsProvider.getIfAvailable(() -> HuaweiAiPanguStreamMetrics.NOOP));
+        return streamExecutor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HuaweiAiPanguAsyncExecutor panguAiAsyncExecutor(HuaweiAiPanguAsyncProperties asyncProperties,
+                                                           HuaweiAiPanguExecutionProperties executionProperties) {
+        Scheduler scheduler = this.virtualThreads
+                ? Schedulers.newBoundedElastic(asyncProperties.getMaxConcurrency(), asyncProperties.getQueueDepth(),
+                        VirtualThreads.newThreadFactory(executionProperties.getThreadNamePrefix() + "async-"),
+                        (int) asyncProperties.getThreadTtl().toSeconds())
+                : Schedulers.newBoundedElastic(asyncProperties.getMaxConcurrency(), asyncProperties.getQueueDepth(),
+                        asyncProperties.getThreadNamePrefix(), (int) asyncProperties.getThreadTtl().toSeconds(), true);
+        return new HuaweiAiPanguAsyncExecutor(scheduler, true, asyncProperties.getQueueDepth(), asyncProperties.getTimeout(),
+                asyncProperties.getMaxAttempts(), asyncProperties.getInitialBackoff(), asyncProperties.getMaxBackoff(),
+                asyncProperties.getJitter());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HuaweiAiPanguTenantClients panguAiTenantClients(HuaweiAiPanguClientCacheProperties clientCacheProperties) {
+        return new HuaweiAiPanguTenantClients(clientCacheProperties.getMaximumSize(),
+                clientCacheProperties.getExpireAfterAccess(),
+                clientCacheProperties.getExpireAfterWrite(),
+                clientCacheProperties.getNegativeExpireAfterWrite(),
+                clientCacheProperties.isRecordStats(),
+                clientCacheProperties.getLlmPoolMaxIdle(),
+                clientCacheProperties.getLlmPoolMaxTotal(),
+                clientCacheProperties.getLlmPoolMaxWait());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguConcurrencyLimitProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public HuaweiAiPanguConcurrencyLimiter panguAiConcurrencyLimiter(HuaweiAiPanguConcurrencyLimitProperties concurrencyLimitProperties,
+                                                                     ObjectProvider<HuaweiAiPanguLimiterMetrics> limiterMetricsProvider) {
+        HuaweiAiPanguConcurrencyLimiter concurrencyLimiter = new HuaweiAiPanguConcurrencyLimiter(concurrencyLimitProperties.getInitialLimit(),
+                concurrencyLimitProperties.getMinLimit(), concurrencyLimitProperties.getMaxLimit(),
+                concurrencyLimitProperties.getMaxWait(), concurrencyLimitProperties.getMaxQueued(),
+                concurrencyLimitProperties.getLatencyTolerance(), concurrencyLimitProperties.getBackoffRatio(),
+                concurrencyLimitProperties.getThrottleBackoffRatio(), concurrencyLimitProperties.getRttWindow(),
+                concurrencyLimitProperties.getMaxTenants(), concurrencyLimitProperties.getTenantExpireAfterAccess());
+        concurrencyLimiter.setLimiterMetrics(limiterMetricsProvider.getIfAvailable(() -> HuaweiAiPanguLimiterMetrics.NOOP));
+        return concurrencyLimiter;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguCircuitBreakerProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public HuaweiAiPanguCircuitBreaker panguAiCircuitBreaker(HuaweiAiPanguCircuitBreakerProperties circuitBreakerProperties,
+                                                             ApplicationEventPublisher eventPublisher,
+                                                             ObjectProvider<HuaweiAiPanguCircuitBreakerMetrics> circuitBreakerMetricsProvider) {
+        HuaweiAiPanguCircuitBreaker circuitBreaker = new HuaweiAiPanguCircuitBreaker(circuitBreakerProperties.getSlidingWindowSize(),
+                circuitBreakerProperties.getMinimumCalls(), circuitBreakerProperties.getFailureRateThreshold(),
+                circuitBreakerProperties.getSlowCallDuration(), circuitBreakerProperties.getSlowCallRateThreshold(),
+                circuitBreakerProperties.getOpenDuration(), circuitBreakerProperties.getHalfOpenPermittedCalls(),
+                circuitBreakerProperties.getMaxEndpoints(), circuitBreakerProperties.getEndpointExpireAfterAccess());
+        circuitBreaker.setCircuitBreakerMetrics(circuitBreakerMetricsProvider.getIfAvailable(() -> HuaweiAiPanguCircuitBreakerMetrics.NOOP));
+        circuitBreaker.setEventPublisher(eventPublisher);
+        return circuitBreaker;
+    }
+
+    @Bean(CHAT_RATE_LIMITER_BEAN_NAME)
+    @ConditionalOnMissingBean(name = CHAT_RATE_LIMITER_BEAN_NAME)
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "rate-limit.enabled", havingValue = "true")
+    public HuaweiAiPanguRateLimiter panguAiChatRateLimiter(HuaweiAiPanguChatProperties chatProperties,
+                                                           ObjectProvider<HuaweiAiPanguLimiterMetrics> limiterMetricsProvider) {
+        // Shared by the chat and cached chat clients, both draw from the same upstream quota.
+        HuaweiAiPanguRateLimiter rateLimiter = this.rateLimiter("chat", chatProperties.getRateLimit());
+        rateLimiter.setLimiterMetrics(limiterMetricsProvider.getIfAvailable(() -> HuaweiAiPanguLimiterMetrics.NOOP));
+        return rateLimiter;
+    }
+
+    @Bean(EMBEDDING_RATE_LIMITER_BEAN_NAME)
+    @ConditionalOnMissingBean(name = EMBEDDING_RATE_LIMITER_BEAN_NAME)
+    @ConditionalOnProperty(prefix = HuaweiAiPanguEmbeddingProperties.CONFIG_PREFIX, name = "rate-limit.enabled", havingValue = "true")
+    public HuaweiAiPanguRateLimiter panguAiEmbeddingRateLimiter(HuaweiAiPanguEmbeddingProperties embeddingProperties,
+                                                                ObjectProvider<HuaweiAiPanguLimiterMetrics> limiterMetricsProvider) {
+        HuaweiAiPanguRateLimiter rateLimiter = this.rateLimiter("embedding", embeddingProperties.getRateLimit());
+        rateLimiter.setLimiterMetrics(limiterMetricsProvider.getIfAvailable(() -> HuaweiAiPanguLimiterMetrics.NOOP));
+        return rateLimiter;
+    }
+
+    private HuaweiAiPanguRateLimiter rateLimiter(String name, HuaweiAiPanguRateLimitProperties rateLimitProperties) {
+        return new HuaweiAiPanguRateLimiter(name, rateLimitProperties.getRequestsPerMinute(), rateLimitProperties.getTokensPerMinute(),
+                rateLimitProperties.getCharactersPerToken(), rateLimitProperties.getMaxWait(), rateLimitProperties.getMaxTenants(),
+                rateLimitProperties.getTenantExpireAfterAccess());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "hedge.enabled", havingValue = "true")
+    public HuaweiAiPanguHedger panguAiHedger(HuaweiAiPanguChatProperties chatProperties,
+                                             ObjectProvider<HuaweiAiPanguHedgeMetrics> hedgeMetricsProvider) {
+        HuaweiAiPanguHedgeProperties hedgeProperties = chatProperties.getHedge();
+        HuaweiAiPanguHedger hedger = new HuaweiAiPanguHedger(hedgeProperties.getPercentile(), hedgeProperties.getInitialDelay(),
+                hedgeProperties.getMinDelay(), hedgeProperties.getMaxDelay(), hedgeProperties.getMinSamples(),
+                hedgeProperties.getWindow(), hedgeProperties.getBudgetPercent());
+        hedger.setHedgeMetrics(hedgeMetricsProvider.getIfAvailable(() -> HuaweiAiPanguHedgeMetrics.NOOP));
+        return hedger;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "semantic-cache.enabled", havingValue = "true")
+    public HuaweiAiPanguSemanticCache panguAiSemanticResponseCache(HuaweiAiPanguChatProperties chatProperties,
+                                                              HuaweiAiPanguEmbeddingClient embeddingClient) {
+        HuaweiAiPanguSemanticCacheProperties semanticCacheProperties = chatProperties.getSemanticCache();
+        return new HuaweiAiPanguSemanticCache(embeddingClient, semanticCacheProperties.getSimilarityThreshold(),
+                semanticCacheProperties.getMaxEntriesPerTenant(), semanticCacheProperties.getMaxTenants(),
+                semanticCacheProperties.getExpireAfterWrite());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
     public HuaweiAiPanguChatClient panguAiChatClient(LLMConfig llmConfig,
+                                                     HuaweiAiPanguConnectionProperties connectionProperties,
                                                      HuaweiAiPanguChatProperties chatProperties,
-                                                     ObjectProvider<RetryTemplate> retryTemplateProvider) {
+                                                     HuaweiAiPanguIamProperties iamProperties,
+                                                     ObjectProvider<HuaweiAiPanguHedger> hedgerProvider,
+                                                     ObjectProvider<HuaweiAiPanguSemanticCache> semanticCacheProvider,
+                                                     HuaweiAiPanguStreamExecutor streamExecutor,
+                                                     HuaweiAiPanguAsyncExecutor asyncExecutor,
+                                                     HuaweiAiPanguTenantClients tenantClients,
+                                                     ObjectProvider<HuaweiAiPanguConcurrencyLimiter> concurrencyLimiterProvider,
+                                                     @Qualifier(CHAT_RATE_LIMITER_BEAN_NAME) ObjectProvider<HuaweiAiPanguRateLimiter> rateLimiterProvider,
+                                                     ObjectProvider<HuaweiAiPanguCircuitBreaker> circuitBreakerProvider,
+                                                     ObjectProvider<HuaweiAiPanguHistoryCompactor> historyCompactorProvider,
+                                                     ObjectProvider<HuaweiAiPanguRequestCoalescer> coalescerProvider,
+                                                     ObjectProvider<RetryTemplate> retryTemplateProvider,
+                                                     ObjectProvider<ObservationRegistry> observationRegistryProvider,
+                                                     ObjectProvider<HuaweiAiPanguObservationConvention> observationConventionProvider) {
         PanguClient panguClient = new PanguClient(llmConfig);
         RetryTemplate retryTemplate = retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
-        return new HuaweiAiPanguChatClient(panguClient, chatProperties.getOptions(), retryTemplate);
+        HuaweiAiPanguChatClient chatClient = new HuaweiAiPanguChatClient(panguClient, chatProperties.getOptions(), retryTemplate);
+        chatClient.setStreamExecutor(streamExecutor);
+        chatClient.setAsyncExecutor(asyncExecutor);
+        chatClient.setTenantClients(tenantClients);
+        concurrencyLimiterProvider.ifAvailable(chatClient::setConcurrencyLimiter);
+        rateLimiterProvider.ifAvailable(chatClient::setRateLimiter);
+        circuitBreakerProvider.ifAvailable(chatClient::setCircuitBreaker);
+        historyCompactorProvider.ifAvailable(chatClient::setHistoryCompactor);
+        coalescerProvider.ifAvailable(chatClient::setCoalescer);
+        chatClient.setHedger(hedgerProvider.getIfAvailable());
+        if (StringUtils.hasText(chatProperties.getHedge().getBaseUrl())) {
+            // Send hedge requests to the alternate endpoint, everything else of the connection is shared.
+            LLMConfig hedgeConfig = this.llmConfig(connectionProperties, chatProperties, iamProperties);
+            hedgeConfig.setLlmModuleConfig(ApiUtils.toLLMModuleConfig(chatProperties.getHedge().getBaseUrl(), connectionProperties));
+            chatClient.setHedgeClient(new PanguClient(hedgeConfig));
+        }
+        chatClient.setSemanticCache(semanticCacheProvider.getIfAvailable());
+        chatClient.setObservationRegistry(observationRegistryProvider.getIfUnique(() -> ObservationRegistry.NOOP));
+        observationConventionProvider.ifAvailable(chatClient::setObservationConvention);
+        return chatClient;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "history.enabled", havingValue = "true")
+    public HuaweiAiPanguHistoryCompactor panguAiHistoryCompactor(HuaweiAiPanguChatProperties chatProperties,
+                                                                 ObjectProvider<HuaweiAiPanguHistoryCompactionPolicy> compactionPolicyProvider) {
+        HuaweiAiPanguHistoryProperties historyProperties = chatProperties.getHistory();
+        HuaweiAiPanguHistoryCompactor historyCompactor = new HuaweiAiPanguHistoryCompactor(historyProperties.getMaxContextTokens(),
+                Objects.requireNonNullElse(historyProperties.getModuleMaxContextTokens(), Map.of()),
+                historyProperties.getCharactersPerToken(), historyProperties.getKeepRecentTurns());
+        // Older turns are dropped unless a policy, e.g. one that summarizes them, is provided.
+        compactionPolicyProvider.ifUnique(historyCompactor::setPolicy);
+        return historyCompactor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "coalescing.enabled", havingValue = "true")
+    public HuaweiAiPanguRequestCoalescer panguAiRequestCoalescer(HuaweiAiPanguChatProperties chatProperties) {
+        return new HuaweiAiPanguRequestCoalescer(chatProperties.getCoalescing().isStream());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "cache.enabled", havingValue = "true")
+    public HuaweiAiPanguChatResponseCache panguAiChatResponseCache(HuaweiAiPanguChatProperties chatProperties) {
+        HuaweiAiPanguResponseCacheProperties cacheProperties = chatProperties.getCache();
+        return new HuaweiAiPanguChatResponseCache(cacheProperties.getMaximumSize(), cacheProperties.getExpireAfterWrite(),
+                cacheProperties.getExpireAfterAccess(), cacheProperties.getSessionTag(), cacheProperties.isNormalizeWhitespace());
     }
 
     @Bean
@@ -70,9 +321,28 @@ public class HuaweiAiPanguAutoConfiguration {
     @ConditionalOnProperty(prefix = HuaweiAiPanguChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
     public HuaweiAiPanguCachedChatClient panguAiCachedChatClient(LLMConfig llmConfig,
                                                                  HuaweiAiPanguChatProperties chatProperties,
-                                                                 ObjectProvider<RetryTemplate> retryTemplateProvider) {
+                                                                 ObjectProvider<HuaweiAiPanguChatResponseCache> responseCacheProvider,
+                                                                 HuaweiAiPanguStreamExecutor streamExecutor,
+                                                                 HuaweiAiPanguTenantClients tenantClients,
+                                                                 ObjectProvider<HuaweiAiPanguConcurrencyLimiter> concurrencyLimiterProvider,
+                                                                 @Qualifier(CHAT_RATE_LIMITER_BEAN_NAME) ObjectProvider<HuaweiAiPanguRateLimiter> rateLimiterProvider,
+                                                                 ObjectProvider<HuaweiAiPanguCircuitBreaker> circuitBreakerProvider,
+                                                                 ObjectProvider<HuaweiAiPanguHistoryCompactor> historyCompactorProvider,
+                                                                 ObjectProvider<RetryTemplate> retryTemplateProvider,
+                                                                 ObjectProvider<ObservationRegistry> observationRegistryProvider,
+                                                                 ObjectProvider<HuaweiAiPanguObservationConvention> observationConventionProvider) {
         RetryTemplate retryTemplate = retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
-        return new HuaweiAiPanguCachedChatClient(llmConfig, chatProperties.getOptions(), retryTemplate);
+        HuaweiAiPanguCachedChatClient chatClient = new HuaweiAiPanguCachedChatClient(llmConfig, chatProperties.getOptions(), retryTemplate);
+        chatClient.setStreamExecutor(streamExecutor);
+        chatClient.setTenantClients(tenantClients);
+        concurrencyLimiterProvider.ifAvailable(chatClient::setConcurrencyLimiter);
+        rateLimiterProvider.ifAvailable(chatClient::setRateLimiter);
+        circuitBreakerProvider.ifAvailable(chatClient::setCircuitBreaker);
+        historyCompactorProvider.ifAvailable(chatClient::setHistoryCompactor);
+        chatClient.setResponseCache(responseCacheProvider.getIfAvailable());
+        chatClient.setObservationRegistry(observationRegistryProvider.getIfUnique(() -> ObservationRegistry.NOOP));
+        observationConventionProvider.ifAvailable(chatClient::setObservationConvention);
+        return chatClient;
     }
 
     @Bean
@@ -96,15 +366,53 @@ public class HuaweiAiPanguAutoConfiguration {
         return embeddingConfig;
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = HuaweiAiPanguEmbeddingProperties.CONFIG_PREFIX, name = "cache.enabled", havingValue = "true")
+    public HuaweiAiPanguEmbeddingCache panguAiEmbeddingCache(HuaweiAiPanguEmbeddingProperties embeddingProperties) {
+        HuaweiAiPanguEmbeddingCacheProperties cacheProperties = embeddingProperties.getCache();
+        return new HuaweiAiPanguEmbeddingCache(cacheProperties.getMaximumSize(), cacheProperties.getExpireAfterWrite(),
+                cacheProperties.getExpireAfterAccess(), cacheProperties.isRecordStats());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = HuaweiAiPanguEmbeddingProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
     public HuaweiAiPanguEmbeddingClient panguAiEmbeddingClient(EmbeddingConfig embeddingConfig,
                                                                HuaweiAiPanguEmbeddingProperties embeddingProperties,
-                                                               ObjectProvider<RetryTemplate> retryTemplateProvider) {
+                                                               HuaweiAiPanguExecutionProperties executionProperties,
+                                                               HuaweiAiPanguAsyncExecutor asyncExecutor,
+                                                               HuaweiAiPanguTenantClients tenantClients,
+                                                               ObjectProvider<HuaweiAiPanguConcurrencyLimiter> concurrencyLimiterProvider,
+                                                               @Qualifier(EMBEDDING_RATE_LIMITER_BEAN_NAME) ObjectProvider<HuaweiAiPanguRateLimiter> rateLimiterProvider,
+                                                               ObjectProvider<HuaweiAiPanguCircuitBreaker> circuitBreakerProvider,
+                                                               ObjectProvider<HuaweiAiPanguEmbeddingCache> embeddingCacheProvider,
+                                                               ObjectProvider<RetryTemplate> retryTemplateProvider,
+                                                               ObjectProvider<ObservationRegistry> observationRegistryProvider,
+                                                               ObjectProvider<HuaweiAiPanguObservationConvention> observationConventionProvider) {
         PanguClient panguClient = new PanguClient(embeddingConfig);
         RetryTemplate retryTemplate = retryTemplateProvider.getIfAvailable(() -> RetryTemplate.builder().build());
-        return new HuaweiAiPanguEmbeddingClient(panguClient, embeddingProperties.getMetadataMode(), embeddingProperties.getOptions(), retryTemplate);
+        HuaweiAiPanguEmbeddingClient embeddingClient = new HuaweiAiPanguEmbeddingClient(panguClient, embeddingProperties.getMetadataMode(), embeddingProperties.getOptions(), retryTemplate);
+        HuaweiAiPanguEmbeddingBatchProperties batchProperties = embeddingProperties.getBatch();
+        embeddingClient.setBatchLimits(Math.max(1, batchProperties.getMaxSize()), batchProperties.getMaxCharacters(),
+                Math.max(1, batchProperties.getParallelism()));
+        if (this.virtualThreads) {
+            embeddingClient.setBatchScheduler(VirtualThreads.newScheduler(executionProperties.getThreadNamePrefix() + "embedding-"));
+        }
+        // Micro-batches run on the batch scheduler, so set it up first.
+        HuaweiAiPanguEmbeddingMicroBatchProperties microBatchProperties = embeddingProperties.getMicroBatch();
+        if (microBatchProperties.isEnabled()) {
+            embeddingClient.enableMicroBatching(microBatchProperties.getWindow(), microBatchProperties.getMaxBatchSize());
+        }
+        embeddingClient.setAsyncExecutor(asyncExecutor);
+        embeddingClient.setTenantClients(tenantClients);
+        concurrencyLimiterProvider.ifAvailable(embeddingClient::setConcurrencyLimiter);
+        rateLimiterProvider.ifAvailable(embeddingClient::setRateLimiter);
+        circuitBreakerProvider.ifAvailable(embeddingClient::setCircuitBreaker);
+        embeddingClient.setEmbeddingCache(embeddingCacheProvider.getIfAvailable());
+        embeddingClient.setObservationRegistry(observationRegistryProvider.getIfUnique(() -> ObservationRegistry.NOOP));
+        observationConventionProvider.ifAvailable(embeddingClient::setObservationConvention);
+        return embeddingClient;
     }
 
     @Bean
@@ -115,4 +423,71 @@ public class HuaweiAiPanguAutoConfiguration {
         return manager;
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class HuaweiAiPanguMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HuaweiAiPanguStreamMetrics panguAiStreamMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfUnique();
+            return Objects.nonNull(meterRegistry) ? new MicrometerHuaweiAiPanguStreamMetrics(meterRegistry) : HuaweiAiPanguStreamMetrics.NOOP;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HuaweiAiPanguLimiterMetrics panguAiLimiterMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfUnique();
+            return Objects.nonNull(meterRegistry) ? new MicrometerHuaweiAiPanguLimiterMetrics(meterRegistry) : HuaweiAiPanguLimiterMetrics.NOOP;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HuaweiAiPanguCircuitBreakerMetrics panguAiCircuitBreakerMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfUnique();
+            return Objects.nonNull(meterRegistry) ? new MicrometerHuaweiAiPanguCircuitBreakerMetrics(meterRegistry) : HuaweiAiPanguCircuitBreakerMetrics.NOOP;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HuaweiAiPanguHedgeMetrics panguAiHedgeMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfUnique();
+            return Objects.nonNull(meterRegistry) ? new MicrometerHuaweiAiPanguHedgeMetrics(meterRegistry) : HuaweiAiPanguHedgeMetrics.NOOP;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        public HuaweiAiPanguObservationMeterHandler panguAiObservationMeterHandler(MeterRegistry meterRegistry) {
+            return new HuaweiAiPanguObservationMeterHandler(meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnJava(JavaVersion.TWENTY_ONE)
+        @ConditionalOnProperty(prefix = HuaweiAiPanguExecutionProperties.CONFIG_PREFIX, name = "virtual-threads", havingValue = "true")
+        public VirtualThreadPinningMonitor panguAiVirtualThreadPinningMonitor(HuaweiAiPanguExecutionProperties executionProperties) {
+            return new VirtualThreadPinningMonitor(executionProperties.getPinnedThreshold());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HuaweiAiPanguMeterBinder panguAiMeterBinder(ObjectProvider<HuaweiAiPanguStreamExecutor> streamExecutorProvider,
+                                                           ObjectProvider<HuaweiAiPanguEmbeddingCache> embeddingCacheProvider,
+                                                           ObjectProvider<HuaweiAiPanguChatResponseCache> responseCacheProvider,
+                                                           ObjectProvider<HuaweiAiPanguSemanticCache> semanticCacheProvider,
+                                                           ObjectProvider<VirtualThreadPinningMonitor> pinningMonitorProvider,
+                                                           ObjectProvider<HuaweiAiPanguRequestCoalescer> coalescerProvider,
+                                                           ObjectProvider<HuaweiAiPanguEmbeddingClient> embeddingClientProvider,
+                                                           ObjectProvider<HuaweiAiPanguHistoryCompactor> historyCompactorProvider,
+                                                           ObjectProvider<HuaweiAiPanguTenantClients> tenantClientsProvider) {
+            HuaweiAiPanguEmbeddingClient embeddingClient = embeddingClientProvider.getIfUnique();
+            return new HuaweiAiPanguMeterBinder(streamExecutorProvider.getIfAvailable(), embeddingCacheProvider.getIfAvailable(),
+                    responseCacheProvider.getIfAvailable(), semanticCacheProvider.getIfAvailable(), pinningMonitorProvider.getIfAvailable(),
+                    coalescerProvider.getIfAvailable(), Objects.nonNull(embeddingClient) ? embeddingClient.getMicroBatcher() : null, historyCompactorProvider.getIfAvailable(),
+                    tenantClientsProvider.getIfAvailable());
+        }
+
+    }
+
 }
@@ -26,6 +26,48 @@ public class HuaweiAiPanguChatProperties extends HuaweiAiParentProperties {
             .withTemperature(ApiUtils.DEFAULT_TEMPERATURE)
             .build();
 
+    /**
+     * Execution model of streaming requests.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguStreamProperties stream = new HuaweiAiPanguStreamProperties();
+
+    /**
+     * Response cache of the cached chat client.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguResponseCacheProperties cache = new HuaweiAiPanguResponseCacheProperties();
+
+    /**
+     * Semantic response cache of the chat client.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguSemanticCacheProperties semanticCache = new HuaweiAiPanguSemanticCacheProperties();
+
+    /**
+     * Request and token rate limits per tenant and model.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguRateLimitProperties rateLimit = new HuaweiAiPanguRateLimitProperties();
+
+    /**
+     * Hedged requests of the non-streaming chat call.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguHedgeProperties hedge = new HuaweiAiPanguHedgeProperties();
+
+    /**
+     * Coalescing of identical concurrent chat requests.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguCoalescingProperties coalescing = new HuaweiAiPanguCoalescingProperties();
+
+    /**
+     * Compaction of long conversation histories.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguHistoryProperties history = new HuaweiAiPanguHistoryProperties();
+
     public HuaweiAiPanguChatOptions getOptions() {
         return this.options;
     }
@@ -34,6 +76,62 @@ public class HuaweiAiPanguChatProperties extends HuaweiAiParentProperties {
         this.options = options;
     }
 
+    public HuaweiAiPanguStreamProperties getStream() {
+        return stream;
+    }
+
+    public void setStream(HuaweiAiPanguStreamProperties stream) {
+        this.stream = stream;
+    }
+
+    public HuaweiAiPanguResponseCacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(HuaweiAiPanguResponseCacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public HuaweiAiPanguSemanticCacheProperties getSemanticCache() {
+        return semanticCache;
+    }
+
+    public void setSemanticCache(HuaweiAiPanguSemanticCacheProperties semanticCache) {
+        this.semanticCache = semanticCache;
+    }
+
+    public HuaweiAiPanguRateLimitProperties getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(HuaweiAiPanguRateLimitProperties rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public HuaweiAiPanguHedgeProperties getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(HuaweiAiPanguHedgeProperties hedge) {
+        this.hedge = hedge;
+    }
+
+    public HuaweiAiPanguCoalescingProperties getCoalescing() {
+        return coalescing;
+    }
+
+    public void setCoalescing(HuaweiAiPanguCoalescingProperties coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    public HuaweiAiPanguHistoryProperties getHistory() {
+        return history;
+    }
+
+    public void setHistory(HuaweiAiPanguHistoryProperties history) {
+        this.history = history;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
@@ -0,0 +1,133 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(HuaweiAiPanguCircuitBreakerProperties.CONFIG_PREFIX)
+public class HuaweiAiPanguCircuitBreakerProperties {
+
+    public static final String CONFIG_PREFIX = "spring.ai.huaweiai.pangu.circuit-breaker";
+
+    /**
+     * 是否按租户与服务地址启用熔断（聊天、流式、向量）
+     */
+    private boolean enabled = false;
+    /**
+     * 统计错误率与慢调用率的滑动窗口大小（最近的调用数）
+     */
+    private int slidingWindowSize = 50;
+    /**
+     * 计算错误率前窗口内至少需要的调用数
+     */
+    private int minimumCalls = 20;
+    /**
+     * 错误率阈值（百分比），达到后熔断器打开
+     */
+    private double failureRateThreshold = 50;
+    /**
+     * 耗时超过该时间的调用视为慢调用（流式请求不统计耗时）
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(20);
+    /**
+     * 慢调用率阈值（百分比），达到后熔断器打开
+     */
+    private double slowCallRateThreshold = 80;
+    /**
+     * 熔断器打开后快速失败的时间，之后进入半开状态
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+    /**
+     * 半开状态允许通过的探测调用数，全部完成后决定关闭或重新打开
+     */
+    private int halfOpenPermittedCalls = 5;
+    /**
+     * 最多跟踪的租户与服务地址数量
+     */
+    private long maxEndpoints = 1000;
+    /**
+     * 熔断状态在未访问后的过期时间
+     */
+    private Duration endpointExpireAfterAccess = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenPermittedCalls() {
+        return halfOpenPermittedCalls;
+    }
+
+    public void setHalfOpenPermittedCalls(int halfOpenPermittedCalls) {
+        this.halfOpenPermittedCalls = halfOpenPermittedCalls;
+    }
+
+    public long getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    public void setMaxEndpoints(long maxEndpoints) {
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    public Duration getEndpointExpireAfterAccess() {
+        return endpointExpireAfterAccess;
+    }
+
+    public void setEndpointExpireAfterAccess(Duration endpointExpireAfterAccess) {
+        this.endpointExpireAfterAccess = endpointExpireAfterAccess;
+    }
+
+}
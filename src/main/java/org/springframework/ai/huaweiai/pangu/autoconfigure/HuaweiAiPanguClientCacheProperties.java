@@ -0,0 +1,109 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(HuaweiAiPanguClientCacheProperties.CONFIG_PREFIX)
+public class HuaweiAiPanguClientCacheProperties {
+
+    public static final String CONFIG_PREFIX = "spring.ai.huaweiai.pangu.client-cache";
+
+    /**
+     * 每类租户客户端（Pangu、聊天 PanguClient、嵌入 PanguClient）最多缓存的实例数
+     */
+    private long maximumSize = 1000;
+    /**
+     * 访问后过期时间，长时间未使用的租户客户端将被回收
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+    /**
+     * 写入后过期时间，用于在租户凭证轮换后强制重建客户端
+     */
+    private Duration expireAfterWrite = Duration.ofHours(12);
+    /**
+     * 无需独立客户端（未指定 IAM、模型配置）的租户键的缓存时间
+     */
+    private Duration negativeExpireAfterWrite = Duration.ofMinutes(1);
+    /**
+     * 是否记录命中、未命中、回收及加载耗时等统计信息
+     */
+    private boolean recordStats = true;
+    /**
+     * 每个 LLM 实例池（用于流式请求）保留的最大空闲实例数
+     */
+    private int llmPoolMaxIdle = 16;
+    /**
+     * 每个 LLM 实例池最多同时借出的实例数
+     */
+    private int llmPoolMaxTotal = 256;
+    /**
+     * 借出实例数达到上限时的最长等待时间，超时后请求被拒绝
+     */
+    private Duration llmPoolMaxWait = Duration.ofSeconds(10);
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getNegativeExpireAfterWrite() {
+        return negativeExpireAfterWrite;
+    }
+
+    public void setNegativeExpireAfterWrite(Duration negativeExpireAfterWrite) {
+        this.negativeExpireAfterWrite = negativeExpireAfterWrite;
+    }
+
+    public int getLlmPoolMaxIdle() {
+        return llmPoolMaxIdle;
+    }
+
+    public void setLlmPoolMaxIdle(int llmPoolMaxIdle) {
+        this.llmPoolMaxIdle = llmPoolMaxIdle;
+    }
+
+    public int getLlmPoolMaxTotal() {
+        return llmPoolMaxTotal;
+    }
+
+    public void setLlmPoolMaxTotal(int llmPoolMaxTotal) {
+        this.llmPoolMaxTotal = llmPoolMaxTotal;
+    }
+
+    public Duration getLlmPoolMaxWait() {
+        return llmPoolMaxWait;
+    }
+
+    public void setLlmPoolMaxWait(Duration llmPoolMaxWait) {
+        this.llmPoolMaxWait = llmPoolMaxWait;
+    }
+
+    public boolean isRecordStats() {
+        return recordStats;
+    }
+
+    public void setRecordStats(boolean recordStats) {
+        this.recordStats = recordStats;
+    }
+
+}
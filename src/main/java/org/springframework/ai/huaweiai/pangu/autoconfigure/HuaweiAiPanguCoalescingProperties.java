@@ -0,0 +1,30 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+public class HuaweiAiPanguCoalescingProperties {
+
+    /**
+     * 是否合并并发的相同请求：租户、合并后的参数与消息完全一致的 call() 请求共享同一次上游调用
+     */
+    private boolean enabled = false;
+    /**
+     * 是否同时合并流式请求，后加入的订阅者会先收到已输出的片段再继续接收
+     */
+    private boolean stream = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isStream() {
+        return stream;
+    }
+
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
+}
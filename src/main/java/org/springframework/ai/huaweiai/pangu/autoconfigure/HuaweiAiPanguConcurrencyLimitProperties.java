@@ -0,0 +1,157 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(HuaweiAiPanguConcurrencyLimitProperties.CONFIG_PREFIX)
+public class HuaweiAiPanguConcurrencyLimitProperties {
+
+    public static final String CONFIG_PREFIX = "spring.ai.huaweiai.pangu.concurrency-limit";
+
+    /**
+     * 是否按租户限制同时执行的请求数（聊天、流式、向量）
+     */
+    private boolean enabled = false;
+    /**
+     * 每个租户的初始并发上限
+     */
+    private int initialLimit = 20;
+    /**
+     * 并发上限的下界
+     */
+    private int minLimit = 1;
+    /**
+     * 并发上限的上界
+     */
+    private int maxLimit = 200;
+    /**
+     * 达到上限后最长排队等待时间，超时后请求被拒绝
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+    /**
+     * 每个租户最多排队等待的请求数，超出后请求被立即拒绝
+     */
+    private int maxQueued = 100;
+    /**
+     * 延迟容忍倍数：延迟超过最小延迟的该倍数时视为过载并降低上限
+     */
+    private double latencyTolerance = 2.0;
+    /**
+     * 延迟过高时上限的缩减比例
+     */
+    private double backoffRatio = 0.9;
+    /**
+     * 被限流（429）时上限的缩减比例
+     */
+    private double throttleBackoffRatio = 0.5;
+    /**
+     * 最小延迟的统计窗口（样本数），窗口结束后以窗口内最小值替换，跟随上游变化
+     */
+    private int rttWindow = 100;
+    /**
+     * 最多跟踪的租户数量
+     */
+    private long maxTenants = 1000;
+    /**
+     * 租户状态在未访问后的过期时间
+     */
+    private Duration tenantExpireAfterAccess = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getThrottleBackoffRatio() {
+        return throttleBackoffRatio;
+    }
+
+    public void setThrottleBackoffRatio(double throttleBackoffRatio) {
+        this.throttleBackoffRatio = throttleBackoffRatio;
+    }
+
+    public int getRttWindow() {
+        return rttWindow;
+    }
+
+    public void setRttWindow(int rttWindow) {
+        this.rttWindow = rttWindow;
+    }
+
+    public long getMaxTenants() {
+        return maxTenants;
+    }
+
+    public void setMaxTenants(long maxTenants) {
+        this.maxTenants = maxTenants;
+    }
+
+    public Duration getTenantExpireAfterAccess() {
+        return tenantExpireAfterAccess;
+    }
+
+    public void setTenantExpireAfterAccess(Duration tenantExpireAfterAccess) {
+        this.tenantExpireAfterAccess = tenantExpireAfterAccess;
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+public class HuaweiAiPanguEmbeddingBatchProperties {
+
+    /**
+     * 单次 createEmbeddings 请求的最大文本条数
+     */
+    private int maxSize = 32;
+    /**
+     * 单次 createEmbeddings 请求的最大字符数，超长的单条文本独立成批
+     */
+    private int maxCharacters = 32_000;
+    /**
+     * 同时发送的子批次请求数量
+     */
+    private int parallelism = 4;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxCharacters() {
+        return maxCharacters;
+    }
+
+    public void setMaxCharacters(int maxCharacters) {
+        this.maxCharacters = maxCharacters;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+}
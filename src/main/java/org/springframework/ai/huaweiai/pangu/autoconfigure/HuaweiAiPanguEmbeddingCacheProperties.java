@@ -0,0 +1,68 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguEmbeddingCacheProperties {
+
+    /**
+     * 是否缓存文本向量，相同文本（及模型、MetadataMode）不再重复请求
+     */
+    private boolean enabled = false;
+    /**
+     * 最多缓存的向量数量
+     */
+    private long maximumSize = 10_000;
+    /**
+     * 写入后过期时间
+     */
+    private Duration expireAfterWrite = Duration.ofHours(24);
+    /**
+     * 访问后过期时间，为空时不启用
+     */
+    private Duration expireAfterAccess;
+    /**
+     * 是否记录命中率等统计信息
+     */
+    private boolean recordStats = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public boolean isRecordStats() {
+        return recordStats;
+    }
+
+    public void setRecordStats(boolean recordStats) {
+        this.recordStats = recordStats;
+    }
+
+}
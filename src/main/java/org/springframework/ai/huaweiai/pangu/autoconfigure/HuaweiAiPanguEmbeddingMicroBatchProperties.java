@@ -0,0 +1,44 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguEmbeddingMicroBatchProperties {
+
+    /**
+     * 是否合并并发的单条文本 embed(String) 调用：在时间窗口内收集的文本以一次 createEmbeddings 请求获取向量
+     */
+    private boolean enabled = false;
+    /**
+     * 收集文本的时间窗口，自第一条文本到达时开始计时，是单条调用额外等待的最长时间
+     */
+    private Duration window = Duration.ofMillis(3);
+    /**
+     * 单批最多合并的文本条数，达到后立即发送而不等待时间窗口结束
+     */
+    private int maxBatchSize = 32;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+}
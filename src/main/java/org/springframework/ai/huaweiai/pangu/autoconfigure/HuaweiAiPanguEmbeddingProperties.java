@@ -29,6 +29,30 @@ public class HuaweiAiPanguEmbeddingProperties extends HuaweiAiParentProperties {
             .withModel(DEFAULT_EMBEDDING_MODEL)
             .build();
 
+    /**
+     * Splitting and parallel dispatch of large embedding requests.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguEmbeddingBatchProperties batch = new HuaweiAiPanguEmbeddingBatchProperties();
+
+    /**
+     * Micro-batching of concurrent single text embed calls.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguEmbeddingMicroBatchProperties microBatch = new HuaweiAiPanguEmbeddingMicroBatchProperties();
+
+    /**
+     * Content addressed cache of text vectors.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguEmbeddingCacheProperties cache = new HuaweiAiPanguEmbeddingCacheProperties();
+
+    /**
+     * Request and token rate limits per tenant and model.
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguRateLimitProperties rateLimit = new HuaweiAiPanguRateLimitProperties();
+
     public HuaweiAiPanguEmbeddingOptions getOptions() {
         return this.options;
     }
@@ -45,6 +69,38 @@ public class HuaweiAiPanguEmbeddingProperties extends HuaweiAiParentProperties {
         this.metadataMode = metadataMode;
     }
 
+    public HuaweiAiPanguEmbeddingBatchProperties getBatch() {
+        return this.batch;
+    }
+
+    public void setBatch(HuaweiAiPanguEmbeddingBatchProperties batch) {
+        this.batch = batch;
+    }
+
+    public HuaweiAiPanguEmbeddingMicroBatchProperties getMicroBatch() {
+        return this.microBatch;
+    }
+
+    public void setMicroBatch(HuaweiAiPanguEmbeddingMicroBatchProperties microBatch) {
+        this.microBatch = microBatch;
+    }
+
+    public HuaweiAiPanguEmbeddingCacheProperties getCache() {
+        return this.cache;
+    }
+
+    public void setCache(HuaweiAiPanguEmbeddingCacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public HuaweiAiPanguRateLimitProperties getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(HuaweiAiPanguRateLimitProperties rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
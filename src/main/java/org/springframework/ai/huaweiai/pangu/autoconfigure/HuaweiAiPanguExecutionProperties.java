@@ -0,0 +1,50 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(HuaweiAiPanguExecutionProperties.CONFIG_PREFIX)
+public class HuaweiAiPanguExecutionProperties {
+
+    public static final String CONFIG_PREFIX = "spring.ai.huaweiai.pangu.execution";
+
+    /**
+     * 是否在虚拟线程上执行阻塞的 SDK 调用（流式请求、异步调用、向量批次），仅在 JDK 21 及以上生效；
+     * 启用后流式请求不再受 max-in-flight 的线程数限制，queue-depth 仍限制等待执行的流式请求数，租户并发与速率限制照常生效
+     */
+    private boolean virtualThreads = false;
+    /**
+     * 虚拟线程名前缀
+     */
+    private String threadNamePrefix = "pangu-vt-";
+    /**
+     * 记录虚拟线程固定（pinned）事件的最小持续时间
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public Duration getPinnedThreshold() {
+        return pinnedThreshold;
+    }
+
+    public void setPinnedThreshold(Duration pinnedThreshold) {
+        this.pinnedThreshold = pinnedThreshold;
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguHedgeProperties {
+
+    /**
+     * 是否对非流式 call() 启用对冲请求：超过近期延迟分位数仍未返回时发出重复请求，先成功者胜出
+     */
+    private boolean enabled = false;
+    /**
+     * 触发对冲的近期延迟分位数
+     */
+    private double percentile = 0.95;
+    /**
+     * 样本不足时使用的对冲延迟
+     */
+    private Duration initialDelay = Duration.ofSeconds(2);
+    /**
+     * 对冲延迟的下界
+     */
+    private Duration minDelay = Duration.ofMillis(200);
+    /**
+     * 对冲延迟的上界
+     */
+    private Duration maxDelay = Duration.ofSeconds(30);
+    /**
+     * 按分位数计算对冲延迟前至少需要的延迟样本数
+     */
+    private int minSamples = 20;
+    /**
+     * 保留的近期延迟样本数
+     */
+    private int window = 1000;
+    /**
+     * 对冲预算：对冲请求最多占请求总数的百分比
+     */
+    private double budgetPercent = 10;
+    /**
+     * 对冲请求使用的备用服务地址，为空时发往同一服务地址；租户请求始终使用租户的服务地址
+     */
+    private String baseUrl;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(double budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class HuaweiAiPanguHistoryProperties {
+
+    /**
+     * 是否在构建请求前压缩对话历史，使请求不超过模型的上下文预算
+     */
+    private boolean enabled = false;
+    /**
+     * 默认的上下文 Token 预算，包含为回答预留的 maxTokens
+     */
+    private int maxContextTokens = 8192;
+    /**
+     * 按模型版本（moduleVersion）指定的上下文 Token 预算，未指定的模型使用 maxContextTokens
+     */
+    private Map<String, Integer> moduleMaxContextTokens = new HashMap<>();
+    /**
+     * 本地估算 Token 数时每个 Token 对应的平均字符数
+     */
+    private double charactersPerToken = 1.5;
+    /**
+     * 始终保留的最近轮数，一轮从用户消息开始；系统消息始终保留
+     */
+    private int keepRecentTurns = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxContextTokens() {
+        return maxContextTokens;
+    }
+
+    public void setMaxContextTokens(int maxContextTokens) {
+        this.maxContextTokens = maxContextTokens;
+    }
+
+    public Map<String, Integer> getModuleMaxContextTokens() {
+        return moduleMaxContextTokens;
+    }
+
+    public void setModuleMaxContextTokens(Map<String, Integer> moduleMaxContextTokens) {
+        this.moduleMaxContextTokens = moduleMaxContextTokens;
+    }
+
+    public double getCharactersPerToken() {
+        return charactersPerToken;
+    }
+
+    public void setCharactersPerToken(double charactersPerToken) {
+        this.charactersPerToken = charactersPerToken;
+    }
+
+    public int getKeepRecentTurns() {
+        return keepRecentTurns;
+    }
+
+    public void setKeepRecentTurns(int keepRecentTurns) {
+        this.keepRecentTurns = keepRecentTurns;
+    }
+
+}
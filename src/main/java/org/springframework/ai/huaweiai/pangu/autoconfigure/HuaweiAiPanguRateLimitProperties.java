@@ -0,0 +1,92 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguRateLimitProperties {
+
+    /**
+     * 是否按租户与模型限制每分钟请求数与 Token 数
+     */
+    private boolean enabled = false;
+    /**
+     * 每分钟最多请求数（RPM），0 表示不限制
+     */
+    private int requestsPerMinute = 0;
+    /**
+     * 每分钟最多 Token 数（TPM），0 表示不限制；调用前按估算的提示词 Token 预留，调用后按实际用量修正
+     */
+    private long tokensPerMinute = 0;
+    /**
+     * 估算提示词 Token 数时每个 Token 对应的字符数（中文约 1，英文约 4）
+     */
+    private double charactersPerToken = 1.5;
+    /**
+     * 配额不足时最长排队等待时间，预计等待超过该时间的请求被拒绝
+     */
+    private Duration maxWait = Duration.ofMinutes(1);
+    /**
+     * 最多跟踪的租户与模型数量
+     */
+    private long maxTenants = 1000;
+    /**
+     * 租户配额在未访问后的过期时间
+     */
+    private Duration tenantExpireAfterAccess = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public void setRequestsPerMinute(int requestsPerMinute) {
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    public long getTokensPerMinute() {
+        return tokensPerMinute;
+    }
+
+    public void setTokensPerMinute(long tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    public double getCharactersPerToken() {
+        return charactersPerToken;
+    }
+
+    public void setCharactersPerToken(double charactersPerToken) {
+        this.charactersPerToken = charactersPerToken;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public long getMaxTenants() {
+        return maxTenants;
+    }
+
+    public void setMaxTenants(long maxTenants) {
+        this.maxTenants = maxTenants;
+    }
+
+    public Duration getTenantExpireAfterAccess() {
+        return tenantExpireAfterAccess;
+    }
+
+    public void setTenantExpireAfterAccess(Duration tenantExpireAfterAccess) {
+        this.tenantExpireAfterAccess = tenantExpireAfterAccess;
+    }
+
+}
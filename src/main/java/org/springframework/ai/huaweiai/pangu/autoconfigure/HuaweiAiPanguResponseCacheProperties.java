@@ -0,0 +1,80 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguResponseCacheProperties {
+
+    /**
+     * 是否缓存聊天响应（仅 HuaweiAiPanguCachedChatClient 的非流式请求），相同的消息与参数直接返回缓存结果
+     */
+    private boolean enabled = false;
+    /**
+     * 最多缓存的响应数量
+     */
+    private int maximumSize = 1000;
+    /**
+     * 写入后过期时间
+     */
+    private Duration expireAfterWrite = Duration.ofHours(1);
+    /**
+     * 访问后过期时间，为空时不启用
+     */
+    private Duration expireAfterAccess;
+    /**
+     * 计算缓存键时是否规范化空白字符（去除首尾及行尾空白、合并连续空格、统一换行符），发送给模型的内容不变
+     */
+    private boolean normalizeWhitespace = true;
+    /**
+     * SDK 缓存会话标志
+     */
+    private String sessionTag = "spring-ai-pangu-chat";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public boolean isNormalizeWhitespace() {
+        return normalizeWhitespace;
+    }
+
+    public void setNormalizeWhitespace(boolean normalizeWhitespace) {
+        this.normalizeWhitespace = normalizeWhitespace;
+    }
+
+    public String getSessionTag() {
+        return sessionTag;
+    }
+
+    public void setSessionTag(String sessionTag) {
+        this.sessionTag = sessionTag;
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguSemanticCacheProperties {
+
+    /**
+     * 是否启用语义缓存（HuaweiAiPanguChatClient 的单轮非流式请求），需同时启用嵌入客户端
+     */
+    private boolean enabled = false;
+    /**
+     * 命中所需的最小余弦相似度
+     */
+    private float similarityThreshold = 0.92f;
+    /**
+     * 每个租户最多缓存的问答数量（含该租户所有模型版本、系统消息与生成参数的分区），超出后覆盖该租户最早写入的条目
+     */
+    private int maxEntriesPerTenant = 1000;
+    /**
+     * 最多缓存的租户数量
+     */
+    private long maxTenants = 100;
+    /**
+     * 条目写入后过期时间
+     */
+    private Duration expireAfterWrite = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public float getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public void setSimilarityThreshold(float similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public int getMaxEntriesPerTenant() {
+        return maxEntriesPerTenant;
+    }
+
+    public void setMaxEntriesPerTenant(int maxEntriesPerTenant) {
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+    }
+
+    public long getMaxTenants() {
+        return maxTenants;
+    }
+
+    public void setMaxTenants(long maxTenants) {
+        this.maxTenants = maxTenants;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+}
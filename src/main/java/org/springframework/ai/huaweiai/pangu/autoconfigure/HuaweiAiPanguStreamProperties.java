@@ -0,0 +1,97 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamCallBack;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamOverflowStrategy;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguStreamProperties {
+
+    /**
+     * 同时执行的流式请求（阻塞的 SDK 调用）的最大数量
+     */
+    private int maxInFlight = 10 * Runtime.getRuntime().availableProcessors();
+    /**
+     * 超出最大并发数后允许排队等待的流式请求数量（所有线程共用），超出后请求被拒绝
+     */
+    private int queueDepth = 1000;
+    /**
+     * 流式请求线程名前缀
+     */
+    private String threadNamePrefix = "pangu-stream";
+    /**
+     * 空闲线程存活时间
+     */
+    private Duration threadTtl = Duration.ofSeconds(60);
+    /**
+     * 每个流等待下游消费的最大 token 数
+     */
+    private int bufferSize = HuaweiAiPanguStreamCallBack.DEFAULT_BUFFER_SIZE;
+    /**
+     * 缓冲区溢出策略
+     */
+    private HuaweiAiPanguStreamOverflowStrategy overflowStrategy = HuaweiAiPanguStreamOverflowStrategy.COALESCE;
+    /**
+     * 流式请求的重试与续写
+     */
+    @NestedConfigurationProperty
+    private HuaweiAiPanguStreamRetryProperties retry = new HuaweiAiPanguStreamRetryProperties();
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public Duration getThreadTtl() {
+        return threadTtl;
+    }
+
+    public void setThreadTtl(Duration threadTtl) {
+        this.threadTtl = threadTtl;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public HuaweiAiPanguStreamOverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    public void setOverflowStrategy(HuaweiAiPanguStreamOverflowStrategy overflowStrategy) {
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    public HuaweiAiPanguStreamRetryProperties getRetry() {
+        return retry;
+    }
+
+    public void setRetry(HuaweiAiPanguStreamRetryProperties retry) {
+        this.retry = retry;
+    }
+
+}
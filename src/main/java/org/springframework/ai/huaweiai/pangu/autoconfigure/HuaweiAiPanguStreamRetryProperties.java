@@ -0,0 +1,80 @@
+package org.springframework.ai.huaweiai.pangu.autoconfigure;
+
+import java.time.Duration;
+
+public class HuaweiAiPanguStreamRetryProperties {
+
+    /**
+     * 首个 token 之前失败时的最大尝试次数（含首次请求），1 表示不重试
+     */
+    private int maxAttempts = 3;
+    /**
+     * 首次重试前的退避时间，之后按指数增长
+     */
+    private Duration initialBackoff = Duration.ofMillis(500);
+    /**
+     * 重试退避时间的上限
+     */
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    /**
+     * 退避时间的随机抖动比例（0 ~ 1）
+     */
+    private double jitter = 0.5;
+    /**
+     * 已输出 token 后失败时，是否将已输出的部分回答追加到对话中重新提问以续写；否则抛出 HuaweiAiPanguPartialStreamException
+     */
+    private boolean resume = false;
+    /**
+     * 单个流最多续写的次数
+     */
+    private int maxResumes = 1;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = jitter;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public int getMaxResumes() {
+        return maxResumes;
+    }
+
+    public void setMaxResumes(int maxResumes) {
+        this.maxResumes = maxResumes;
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationDocumentation.HighCardinalityKeyNames;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationDocumentation.LowCardinalityKeyNames;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+
+import java.util.Objects;
+
+/**
+ * 默认的盘古请求观测约定
+ */
+public class DefaultHuaweiAiPanguObservationConvention implements HuaweiAiPanguObservationConvention {
+
+    public static final DefaultHuaweiAiPanguObservationConvention INSTANCE = new DefaultHuaweiAiPanguObservationConvention();
+
+    public static final String OBSERVATION_NAME = "pangu.client.operation";
+
+    private static final String NONE = "none";
+
+    @Override
+    public String getName() {
+        return OBSERVATION_NAME;
+    }
+
+    @Override
+    public String getContextualName(HuaweiAiPanguObservationContext context) {
+        return "pangu " + context.getOperation();
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(HuaweiAiPanguObservationContext context) {
+        return KeyValues.of(
+                LowCardinalityKeyNames.OPERATION.withValue(context.getOperation()),
+                LowCardinalityKeyNames.TENANT.withValue(tenantHash(context.getTenant())),
+                LowCardinalityKeyNames.MODEL.withValue(Objects.toString(context.getModel(), LlmUtils.DEFAULT_TENANT_KEY)),
+                LowCardinalityKeyNames.OUTCOME.withValue(outcome(context)));
+    }
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(HuaweiAiPanguObservationContext context) {
+        return KeyValues.of(
+                HighCardinalityKeyNames.RETRY_COUNT.withValue(String.valueOf(context.getRetryCount())),
+                HighCardinalityKeyNames.PROMPT_TOKENS.withValue(Objects.toString(context.getPromptTokens(), NONE)),
+                HighCardinalityKeyNames.GENERATION_TOKENS.withValue(Objects.toString(context.getGenerationTokens(), NONE)),
+                HighCardinalityKeyNames.REQUEST_SIZE.withValue(String.valueOf(context.getRequestSize())),
+                HighCardinalityKeyNames.RESPONSE_SIZE.withValue(String.valueOf(context.getResponseSize())));
+    }
+
+    /**
+     * 租户联合键包含 AK 等凭证信息，标签中只使用其哈希值
+     */
+    protected String tenantHash(String tenant) {
+        return LlmUtils.redactKey(tenant);
+    }
+
+    protected String outcome(HuaweiAiPanguObservationContext context) {
+        if (Objects.nonNull(context.getError())) {
+            return "ERROR";
+        }
+        return context.isCancelled() ? "CANCELLED" : "SUCCESS";
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguCircuitBreaker;
+
+/**
+ * 熔断器指标：各服务地址的熔断状态、状态变化次数与快速失败次数。
+ */
+public interface HuaweiAiPanguCircuitBreakerMetrics {
+
+    /**
+     * No-op metrics, used when Micrometer is not available.
+     */
+    HuaweiAiPanguCircuitBreakerMetrics NOOP = new HuaweiAiPanguCircuitBreakerMetrics() {
+    };
+
+    /**
+     * 开始跟踪一个服务地址
+     * @param endpoint 租户与服务地址的联合键
+     * @param circuitBreaker 熔断器，用于读取服务地址的当前状态
+     */
+    default void onEndpoint(String endpoint, HuaweiAiPanguCircuitBreaker circuitBreaker) {
+    }
+
+    /**
+     * 服务地址因空闲或超出数量上限不再被跟踪
+     * @param endpoint 租户与服务地址的联合键
+     */
+    default void onEndpointEvicted(String endpoint) {
+    }
+
+    default void onStateChange(String endpoint, HuaweiAiPanguCircuitBreaker.State fromState, HuaweiAiPanguCircuitBreaker.State toState) {
+    }
+
+    default void onRejected(String endpoint) {
+    }
+
+}
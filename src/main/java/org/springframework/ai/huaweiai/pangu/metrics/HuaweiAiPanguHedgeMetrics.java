@@ -0,0 +1,35 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHedger;
+
+/**
+ * 对冲请求指标：请求数、对冲数、对冲胜出数、预算耗尽次数与当前对冲延迟。
+ */
+public interface HuaweiAiPanguHedgeMetrics {
+
+    /**
+     * No-op metrics, used when Micrometer is not available.
+     */
+    HuaweiAiPanguHedgeMetrics NOOP = new HuaweiAiPanguHedgeMetrics() {
+    };
+
+    /**
+     * 开始跟踪对冲执行器
+     * @param hedger 对冲执行器，用于读取当前对冲延迟
+     */
+    default void onHedger(HuaweiAiPanguHedger hedger) {
+    }
+
+    default void onRequest() {
+    }
+
+    default void onHedge() {
+    }
+
+    default void onHedgeWin() {
+    }
+
+    default void onBudgetExhausted() {
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguConcurrencyLimiter;
+
+/**
+ * 租户并发与速率限制指标：并发上限、执行中与排队的请求数、排队耗时、拒绝与限流次数。
+ */
+public interface HuaweiAiPanguLimiterMetrics {
+
+    /**
+     * No-op metrics, used when Micrometer is not available.
+     */
+    HuaweiAiPanguLimiterMetrics NOOP = new HuaweiAiPanguLimiterMetrics() {
+    };
+
+    /**
+     * 开始跟踪一个租户
+     * @param tenant 租户联合键
+     * @param limiter 并发限制器，用于读取租户的当前状态
+     */
+    default void onTenant(String tenant, HuaweiAiPanguConcurrencyLimiter limiter) {
+    }
+
+    /**
+     * 租户因空闲或超出数量上限不再被跟踪
+     * @param tenant 租户联合键
+     */
+    default void onTenantEvicted(String tenant) {
+    }
+
+    default void onAcquired(String tenant, long waitNanos) {
+    }
+
+    default void onRejected(String tenant) {
+    }
+
+    default void onThrottled(String tenant) {
+    }
+
+    /**
+     * 请求取得速率配额
+     * @param limiter 速率限制器名称
+     * @param tenant 租户与模型的联合键
+     * @param waitNanos 等待配额的时间
+     */
+    default void onRateLimited(String limiter, String tenant, long waitNanos) {
+    }
+
+    default void onRateRejected(String limiter, String tenant) {
+    }
+
+}
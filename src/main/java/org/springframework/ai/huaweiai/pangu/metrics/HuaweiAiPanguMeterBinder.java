@@ -0,0 +1,199 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatResponseCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguEmbeddingCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguEmbeddingMicroBatcher;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHistoryCompactor;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguRequestCoalescer;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguSemanticCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguStreamExecutor;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguTenantClientCache;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguTenantClients;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将租户客户端缓存、向量缓存、响应缓存、语义缓存、请求合并、向量微批、历史压缩统计、流式执行器状态及虚拟线程固定事件注册到 Micrometer
+ */
+public class HuaweiAiPanguMeterBinder implements MeterBinder {
+
+    private final HuaweiAiPanguStreamExecutor streamExecutor;
+    private final HuaweiAiPanguEmbeddingCache embeddingCache;
+    private final HuaweiAiPanguChatResponseCache responseCache;
+    private final HuaweiAiPanguSemanticCache semanticCache;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final HuaweiAiPanguRequestCoalescer coalescer;
+    private final HuaweiAiPanguEmbeddingMicroBatcher microBatcher;
+    private final HuaweiAiPanguHistoryCompactor historyCompactor;
+    private final HuaweiAiPanguTenantClients tenantClients;
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor) {
+        this(streamExecutor, null, null, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache) {
+        this(streamExecutor, embeddingCache, responseCache, semanticCache, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache,
+                                    VirtualThreadPinningMonitor pinningMonitor) {
+        this(streamExecutor, embeddingCache, responseCache, semanticCache, pinningMonitor, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache,
+                                    VirtualThreadPinningMonitor pinningMonitor, HuaweiAiPanguRequestCoalescer coalescer) {
+        this(streamExecutor, embeddingCache, responseCache, semanticCache, pinningMonitor, coalescer, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache,
+                                    VirtualThreadPinningMonitor pinningMonitor, HuaweiAiPanguRequestCoalescer coalescer,
+                                    HuaweiAiPanguEmbeddingMicroBatcher microBatcher) {
+        this(streamExecutor, embeddingCache, responseCache, semanticCache, pinningMonitor, coalescer, microBatcher, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache,
+                                    VirtualThreadPinningMonitor pinningMonitor, HuaweiAiPanguRequestCoalescer coalescer,
+                                    HuaweiAiPanguEmbeddingMicroBatcher microBatcher,
+                                    HuaweiAiPanguHistoryCompactor historyCompactor) {
+        this(streamExecutor, embeddingCache, responseCache, semanticCache, pinningMonitor, coalescer, microBatcher,
+                historyCompactor, null);
+    }
+
+    public HuaweiAiPanguMeterBinder(HuaweiAiPanguStreamExecutor streamExecutor, HuaweiAiPanguEmbeddingCache embeddingCache,
+                                    HuaweiAiPanguChatResponseCache responseCache, HuaweiAiPanguSemanticCache semanticCache,
+                                    VirtualThreadPinningMonitor pinningMonitor, HuaweiAiPanguRequestCoalescer coalescer,
+                                    HuaweiAiPanguEmbeddingMicroBatcher microBatcher,
+                                    HuaweiAiPanguHistoryCompactor historyCompactor, HuaweiAiPanguTenantClients tenantClients) {
+        this.streamExecutor = streamExecutor;
+        this.embeddingCache = embeddingCache;
+        this.responseCache = responseCache;
+        this.semanticCache = semanticCache;
+        this.pinningMonitor = pinningMonitor;
+        this.coalescer = coalescer;
+        this.microBatcher = microBatcher;
+        this.historyCompactor = historyCompactor;
+        this.tenantClients = tenantClients;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (Objects.nonNull(tenantClients)) {
+            for (HuaweiAiPanguTenantClientCache<?> cache : tenantClients.getCaches()) {
+                CaffeineCacheMetrics.monitor(registry, cache.getClients(), "pangu.client." + cache.getName(), Tags.empty());
+            }
+        }
+        if (Objects.nonNull(embeddingCache)) {
+            CaffeineCacheMetrics.monitor(registry, embeddingCache.getVectors(), "pangu.embedding.vectors", Tags.empty());
+        }
+        if (Objects.nonNull(responseCache)) {
+            FunctionCounter.builder("pangu.chat.response.cache.requests", responseCache, HuaweiAiPanguChatResponseCache::getHits)
+                    .description("Chat requests answered from the response cache")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.response.cache.requests", responseCache, HuaweiAiPanguChatResponseCache::getMisses)
+                    .description("Chat requests sent to the model after a response cache miss")
+                    .tag("result", "miss")
+                    .register(registry);
+        }
+        if (Objects.nonNull(semanticCache)) {
+            FunctionCounter.builder("pangu.chat.semantic.cache.requests", semanticCache, HuaweiAiPanguSemanticCache::getHits)
+                    .description("Chat requests answered from the semantic cache")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.semantic.cache.requests", semanticCache, HuaweiAiPanguSemanticCache::getMisses)
+                    .description("Chat requests without a similar cached question")
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionTimer.builder("pangu.chat.semantic.cache.lookup", semanticCache,
+                            HuaweiAiPanguSemanticCache::getLookups, HuaweiAiPanguSemanticCache::getLookupNanos, TimeUnit.NANOSECONDS)
+                    .description("Time spent embedding the question and searching the semantic cache")
+                    .register(registry);
+        }
+        if (Objects.nonNull(coalescer)) {
+            FunctionCounter.builder("pangu.chat.coalescing.requests", coalescer, HuaweiAiPanguRequestCoalescer::getLeaders)
+                    .description("Chat requests that called the model on behalf of identical concurrent requests")
+                    .tags("type", "call", "result", "leader")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.coalescing.requests", coalescer, HuaweiAiPanguRequestCoalescer::getFollowers)
+                    .description("Chat requests answered by an identical request already in flight")
+                    .tags("type", "call", "result", "shared")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.coalescing.requests", coalescer, HuaweiAiPanguRequestCoalescer::getStreamLeaders)
+                    .description("Chat requests that called the model on behalf of identical concurrent requests")
+                    .tags("type", "stream", "result", "leader")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.coalescing.requests", coalescer, HuaweiAiPanguRequestCoalescer::getStreamFollowers)
+                    .description("Chat requests answered by an identical request already in flight")
+                    .tags("type", "stream", "result", "shared")
+                    .register(registry);
+        }
+        if (Objects.nonNull(microBatcher)) {
+            FunctionCounter.builder("pangu.embedding.micro.batch.calls", microBatcher, HuaweiAiPanguEmbeddingMicroBatcher::getCalls)
+                    .description("Single text embed calls collected into micro-batches")
+                    .register(registry);
+            FunctionCounter.builder("pangu.embedding.micro.batch.requests", microBatcher, HuaweiAiPanguEmbeddingMicroBatcher::getBatches)
+                    .description("Embedding requests sent for micro-batches")
+                    .register(registry);
+            FunctionCounter.builder("pangu.embedding.micro.batch.texts", microBatcher, HuaweiAiPanguEmbeddingMicroBatcher::getBatchedTexts)
+                    .description("Distinct texts sent in micro-batches")
+                    .register(registry);
+        }
+        if (Objects.nonNull(historyCompactor)) {
+            FunctionCounter.builder("pangu.chat.history.compactions", historyCompactor, HuaweiAiPanguHistoryCompactor::getCompactions)
+                    .description("Chat requests whose history was compacted to fit the context budget")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.history.compacted.tokens", historyCompactor, HuaweiAiPanguHistoryCompactor::getCompactedTokens)
+                    .description("Estimated prompt tokens removed by history compaction")
+                    .register(registry);
+            FunctionCounter.builder("pangu.chat.history.over.budget", historyCompactor, HuaweiAiPanguHistoryCompactor::getOverBudget)
+                    .description("Chat requests sent over the context budget because the kept messages alone exceed it")
+                    .register(registry);
+        }
+        if (Objects.nonNull(pinningMonitor)) {
+            FunctionTimer.builder("pangu.virtual.threads.pinned", pinningMonitor,
+                            VirtualThreadPinningMonitor::getPinnedEvents, VirtualThreadPinningMonitor::getPinnedNanos, TimeUnit.NANOSECONDS)
+                    .description("Time virtual threads stayed pinned to their carrier thread")
+                    .register(registry);
+            Gauge.builder("pangu.virtual.threads.pinned.max", pinningMonitor, monitor -> monitor.getPinnedNanosMax() / 1_000_000.0)
+                    .description("Longest time a virtual thread stayed pinned to its carrier thread")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+        if (Objects.isNull(streamExecutor)) {
+            return;
+        }
+        String prefix = MicrometerHuaweiAiPanguStreamMetrics.METRIC_PREFIX;
+        Gauge.builder(prefix + ".active", streamExecutor, HuaweiAiPanguStreamExecutor::getActiveStreams)
+                .description("Streams currently executing a blocking SDK call")
+                .register(registry);
+        Gauge.builder(prefix + ".pending", streamExecutor, HuaweiAiPanguStreamExecutor::getPendingStreams)
+                .description("Streams waiting for a stream scheduler thread")
+                .register(registry);
+        FunctionCounter.builder(prefix + ".rejected", streamExecutor, HuaweiAiPanguStreamExecutor::getRejectedStreams)
+                .description("Streams rejected because the stream scheduler queue was full")
+                .register(registry);
+        FunctionTimer.builder(prefix + ".queue.wait", streamExecutor,
+                        HuaweiAiPanguStreamExecutor::getStartedStreams,
+                        HuaweiAiPanguStreamExecutor::getQueueWaitNanosTotal, TimeUnit.NANOSECONDS)
+                .description("Time streams waited for a stream scheduler thread")
+                .register(registry);
+        Gauge.builder(prefix + ".queue.wait.max", streamExecutor, executor -> executor.getQueueWaitNanosMax() / 1_000_000.0)
+                .description("Longest time a stream waited for a stream scheduler thread")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+}
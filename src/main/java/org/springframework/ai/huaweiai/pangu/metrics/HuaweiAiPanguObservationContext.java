@@ -0,0 +1,122 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.observation.Observation;
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.util.Objects;
+
+/**
+ * 单次盘古请求（聊天、流式聊天、嵌入）的观测上下文
+ */
+public class HuaweiAiPanguObservationContext extends Observation.Context {
+
+    public static final String OPERATION_CHAT = "chat";
+    public static final String OPERATION_CHAT_STREAM = "chat.stream";
+    public static final String OPERATION_EMBEDDING = "embedding";
+
+    /**
+     * 操作类型
+     */
+    private final String operation;
+    /**
+     * 租户联合键，标签中只使用其哈希值
+     */
+    private final String tenant;
+    /**
+     * 模型版本
+     */
+    private final String model;
+    /**
+     * 最后一次尝试时 RetryTemplate 的重试次数
+     */
+    private int retryCount;
+    private Long promptTokens;
+    private Long generationTokens;
+    /**
+     * 请求大小：输入文本字符数
+     */
+    private long requestSize;
+    /**
+     * 响应大小：聊天为输出文本字符数，嵌入为向量元素个数
+     */
+    private long responseSize;
+    /**
+     * 流是否被订阅者取消
+     */
+    private boolean cancelled;
+
+    public HuaweiAiPanguObservationContext(String operation, String tenant, String model) {
+        this.operation = operation;
+        this.tenant = tenant;
+        this.model = model;
+    }
+
+    public void setUsage(Usage usage) {
+        if (Objects.nonNull(usage)) {
+            this.promptTokens = usage.getPromptTokens();
+            this.generationTokens = usage.getGenerationTokens();
+        }
+    }
+
+    public void setUsage(Long promptTokens, Long generationTokens) {
+        this.promptTokens = promptTokens;
+        this.generationTokens = generationTokens;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public Long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public Long getGenerationTokens() {
+        return generationTokens;
+    }
+
+    public long getRequestSize() {
+        return requestSize;
+    }
+
+    public void setRequestSize(long requestSize) {
+        this.requestSize = requestSize;
+    }
+
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    public void setResponseSize(long responseSize) {
+        this.responseSize = responseSize;
+    }
+
+    public void addResponseSize(long size) {
+        this.responseSize += size;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+
+/**
+ * 盘古请求观测约定，可自定义以调整名称与标签
+ */
+public interface HuaweiAiPanguObservationConvention extends ObservationConvention<HuaweiAiPanguObservationContext> {
+
+    @Override
+    default boolean supportsContext(Observation.Context context) {
+        return context instanceof HuaweiAiPanguObservationContext;
+    }
+
+}
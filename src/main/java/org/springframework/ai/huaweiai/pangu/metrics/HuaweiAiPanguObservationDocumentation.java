@@ -0,0 +1,97 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.docs.ObservationDocumentation;
+
+/**
+ * 盘古请求观测文档
+ */
+public enum HuaweiAiPanguObservationDocumentation implements ObservationDocumentation {
+
+    /**
+     * 一次聊天、流式聊天或嵌入请求，包含 RetryTemplate 的全部重试
+     */
+    CLIENT_OPERATION {
+        @Override
+        public Class<? extends ObservationConvention<? extends Observation.Context>> getDefaultConvention() {
+            return DefaultHuaweiAiPanguObservationConvention.class;
+        }
+
+        @Override
+        public KeyName[] getLowCardinalityKeyNames() {
+            return LowCardinalityKeyNames.values();
+        }
+
+        @Override
+        public KeyName[] getHighCardinalityKeyNames() {
+            return HighCardinalityKeyNames.values();
+        }
+    };
+
+    public enum LowCardinalityKeyNames implements KeyName {
+
+        OPERATION {
+            @Override
+            public String asString() {
+                return "pangu.operation";
+            }
+        },
+        TENANT {
+            @Override
+            public String asString() {
+                return "pangu.tenant";
+            }
+        },
+        MODEL {
+            @Override
+            public String asString() {
+                return "pangu.model";
+            }
+        },
+        OUTCOME {
+            @Override
+            public String asString() {
+                return "outcome";
+            }
+        }
+
+    }
+
+    public enum HighCardinalityKeyNames implements KeyName {
+
+        RETRY_COUNT {
+            @Override
+            public String asString() {
+                return "pangu.retry.count";
+            }
+        },
+        PROMPT_TOKENS {
+            @Override
+            public String asString() {
+                return "pangu.usage.prompt.tokens";
+            }
+        },
+        GENERATION_TOKENS {
+            @Override
+            public String asString() {
+                return "pangu.usage.generation.tokens";
+            }
+        },
+        REQUEST_SIZE {
+            @Override
+            public String asString() {
+                return "pangu.request.size";
+            }
+        },
+        RESPONSE_SIZE {
+            @Override
+            public String asString() {
+                return "pangu.response.size";
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 将观测中的 token 用量、请求与响应大小、重试次数记录为分布统计。
+ * 请求耗时由 Micrometer 默认的 Timer 处理器记录。
+ */
+public class HuaweiAiPanguObservationMeterHandler implements ObservationHandler<HuaweiAiPanguObservationContext> {
+
+    public static final String METRIC_PREFIX = "pangu.client";
+
+    private final MeterRegistry registry;
+
+    public HuaweiAiPanguObservationMeterHandler(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public void onStop(HuaweiAiPanguObservationContext context) {
+        Tags tags = lowCardinalityTags(context);
+        if (Objects.nonNull(context.getPromptTokens())) {
+            summary(".tokens", "Tokens used per request", "tokens", tags.and("token.type", "prompt"))
+                    .record(context.getPromptTokens());
+        }
+        if (Objects.nonNull(context.getGenerationTokens())) {
+            summary(".tokens", "Tokens used per request", "tokens", tags.and("token.type", "generation"))
+                    .record(context.getGenerationTokens());
+        }
+        summary(".payload.size", "Size of request input text and response output", null, tags.and("direction", "request"))
+                .record(context.getRequestSize());
+        summary(".payload.size", "Size of request input text and response output", null, tags.and("direction", "response"))
+                .record(context.getResponseSize());
+        summary(".retries", "Retries performed by the RetryTemplate per request", null, tags)
+                .record(context.getRetryCount());
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof HuaweiAiPanguObservationContext;
+    }
+
+    private DistributionSummary summary(String name, String description, String baseUnit, Tags tags) {
+        return DistributionSummary.builder(METRIC_PREFIX + name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private Tags lowCardinalityTags(HuaweiAiPanguObservationContext context) {
+        List<Tag> tags = new ArrayList<>();
+        for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+            tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+        }
+        return Tags.of(tags);
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+/**
+ * 流式请求指标：首 token 延迟、token 间隔、吞吐、流持续时间及错误、取消、重试次数。
+ */
+public interface HuaweiAiPanguStreamMetrics {
+
+    /**
+     * No-op metrics, used when Micrometer is not available.
+     */
+    HuaweiAiPanguStreamMetrics NOOP = (tenant, moduleVersion) -> StreamRecorder.NOOP;
+
+    /**
+     * 开始记录一个流
+     * @param tenant 租户联合键
+     * @param moduleVersion 模型版本
+     * @return StreamRecorder
+     */
+    StreamRecorder start(String tenant, String moduleVersion);
+
+    /**
+     * 流式请求重试或续写
+     * @param tenant 租户联合键
+     * @param moduleVersion 模型版本
+     * @param resume 是否为已输出 token 后的续写
+     */
+    default void onRetry(String tenant, String moduleVersion, boolean resume) {
+    }
+
+    /**
+     * 单个流的指标记录器，由流式回调线程调用
+     */
+    interface StreamRecorder {
+
+        StreamRecorder NOOP = new StreamRecorder() {
+        };
+
+        default void onToken() {
+        }
+
+        default void onComplete() {
+        }
+
+        default void onError() {
+        }
+
+        default void onCancel() {
+        }
+
+    }
+
+}
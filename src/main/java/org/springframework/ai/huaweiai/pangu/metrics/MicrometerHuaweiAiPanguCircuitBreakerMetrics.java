@@ -0,0 +1,76 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguCircuitBreaker;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 Micrometer 的熔断器指标，状态值为 {@link HuaweiAiPanguCircuitBreaker.State#ordinal()}（0 关闭、1 打开、2 半开）
+ */
+public class MicrometerHuaweiAiPanguCircuitBreakerMetrics implements HuaweiAiPanguCircuitBreakerMetrics {
+
+    public static final String METRIC_PREFIX = "pangu.circuit.breaker";
+
+    private final MeterRegistry registry;
+    /**
+     * Meters of the tracked endpoints, removed from the registry when the circuit breaker evicts the endpoint.
+     */
+    private final Map<String, Set<Meter>> endpointMeters = new ConcurrentHashMap<>();
+
+    public MicrometerHuaweiAiPanguCircuitBreakerMetrics(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public void onEndpoint(String endpoint, HuaweiAiPanguCircuitBreaker circuitBreaker) {
+        // The gauge reads through the breaker, so it stays valid when an expired endpoint is tracked again.
+        track(endpoint, Gauge.builder(METRIC_PREFIX + ".state", circuitBreaker, cb -> cb.getState(endpoint).ordinal())
+                .description("Circuit state of the endpoint: 0 closed, 1 open, 2 half open")
+                .tag("endpoint", LlmUtils.redactKey(endpoint))
+                .register(registry));
+    }
+
+    @Override
+    public void onEndpointEvicted(String endpoint) {
+        Set<Meter> meters = endpointMeters.remove(endpoint);
+        if (Objects.nonNull(meters)) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    @Override
+    public void onStateChange(String endpoint, HuaweiAiPanguCircuitBreaker.State fromState, HuaweiAiPanguCircuitBreaker.State toState) {
+        track(endpoint, Counter.builder(METRIC_PREFIX + ".transitions")
+                .description("Circuit state changes of the endpoint")
+                .tag("endpoint", LlmUtils.redactKey(endpoint))
+                .tag("from", fromState.name().toLowerCase())
+                .tag("to", toState.name().toLowerCase())
+                .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void onRejected(String endpoint) {
+        track(endpoint, Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Requests failed fast because the circuit was open")
+                .tag("endpoint", LlmUtils.redactKey(endpoint))
+                .register(registry))
+                .increment();
+    }
+
+    private <M extends Meter> M track(String endpoint, M meter) {
+        endpointMeters.computeIfAbsent(endpoint, key -> ConcurrentHashMap.newKeySet()).add(meter);
+        return meter;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguHedger;
+import org.springframework.util.Assert;
+
+/**
+ * 基于 Micrometer 的对冲请求指标，对冲率为 {@code pangu.hedge.issued / pangu.hedge.requests}
+ */
+public class MicrometerHuaweiAiPanguHedgeMetrics implements HuaweiAiPanguHedgeMetrics {
+
+    public static final String METRIC_PREFIX = "pangu.hedge";
+
+    private final MeterRegistry registry;
+    private final Counter requests;
+    private final Counter issued;
+    private final Counter wins;
+    private final Counter budgetExhausted;
+
+    public MicrometerHuaweiAiPanguHedgeMetrics(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+        this.requests = Counter.builder(METRIC_PREFIX + ".requests")
+                .description("Requests executed with hedging")
+                .register(registry);
+        this.issued = Counter.builder(METRIC_PREFIX + ".issued")
+                .description("Hedge requests issued after the hedge delay")
+                .register(registry);
+        this.wins = Counter.builder(METRIC_PREFIX + ".wins")
+                .description("Requests answered by the hedge rather than the primary request")
+                .register(registry);
+        this.budgetExhausted = Counter.builder(METRIC_PREFIX + ".budget.exhausted")
+                .description("Hedges skipped because the hedge budget was used up")
+                .register(registry);
+    }
+
+    @Override
+    public void onHedger(HuaweiAiPanguHedger hedger) {
+        Gauge.builder(METRIC_PREFIX + ".delay", hedger, h -> h.getDelayNanos() / 1e9)
+                .description("Current delay before a hedge request is issued")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void onRequest() {
+        requests.increment();
+    }
+
+    @Override
+    public void onHedge() {
+        issued.increment();
+    }
+
+    @Override
+    public void onHedgeWin() {
+        wins.increment();
+    }
+
+    @Override
+    public void onBudgetExhausted() {
+        budgetExhausted.increment();
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguConcurrencyLimiter;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的租户并发限制指标，租户标签为租户联合键的哈希值
+ */
+public class MicrometerHuaweiAiPanguLimiterMetrics implements HuaweiAiPanguLimiterMetrics {
+
+    public static final String METRIC_PREFIX = "pangu.limiter";
+
+    private final MeterRegistry registry;
+    /**
+     * Gauges of the tracked tenants, removed from the registry when the limiter evicts the tenant.
+     */
+    private final Map<String, List<Meter>> tenantGauges = new ConcurrentHashMap<>();
+
+    public MicrometerHuaweiAiPanguLimiterMetrics(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public void onTenant(String tenant, HuaweiAiPanguConcurrencyLimiter limiter) {
+        String tenantTag = LlmUtils.redactKey(tenant);
+        tenantGauges.put(tenant, List.of(
+                Gauge.builder(METRIC_PREFIX + ".limit", limiter, l -> l.getLimit(tenant))
+                        .description("Current adaptive in-flight limit of the tenant")
+                        .tag("tenant", tenantTag)
+                        .register(registry),
+                Gauge.builder(METRIC_PREFIX + ".in.flight", limiter, l -> l.getInFlight(tenant))
+                        .description("Requests of the tenant currently executing")
+                        .tag("tenant", tenantTag)
+                        .register(registry),
+                Gauge.builder(METRIC_PREFIX + ".queued", limiter, l -> l.getQueued(tenant))
+                        .description("Requests of the tenant waiting for a permit")
+                        .tag("tenant", tenantTag)
+                        .register(registry)));
+    }
+
+    @Override
+    public void onTenantEvicted(String tenant) {
+        List<Meter> gauges = tenantGauges.remove(tenant);
+        if (Objects.nonNull(gauges)) {
+            gauges.forEach(registry::remove);
+        }
+    }
+
+    @Override
+    public void onAcquired(String tenant, long waitNanos) {
+        Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time requests waited for a permit")
+                .tag("tenant", LlmUtils.redactKey(tenant))
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onRejected(String tenant) {
+        Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Requests rejected because the tenant queue was full or the wait timed out")
+                .tag("tenant", LlmUtils.redactKey(tenant))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void onThrottled(String tenant) {
+        Counter.builder(METRIC_PREFIX + ".throttled")
+                .description("Requests throttled upstream (429), each one shrinks the tenant limit")
+                .tag("tenant", LlmUtils.redactKey(tenant))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void onRateLimited(String limiter, String tenant, long waitNanos) {
+        Timer.builder(METRIC_PREFIX + ".rate.wait")
+                .description("Time requests waited for request and token quota")
+                .tag("limiter", limiter)
+                .tag("tenant", LlmUtils.redactKey(tenant))
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onRateRejected(String limiter, String tenant) {
+        Counter.builder(METRIC_PREFIX + ".rate.rejected")
+                .description("Requests rejected because the quota wait would exceed the maximum wait")
+                .tag("limiter", limiter)
+                .tag("tenant", LlmUtils.redactKey(tenant))
+                .register(registry)
+                .increment();
+    }
+
+}
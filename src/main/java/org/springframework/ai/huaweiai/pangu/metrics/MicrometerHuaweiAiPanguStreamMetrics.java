@@ -0,0 +1,106 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.util.Assert;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的流式请求指标
+ */
+public class MicrometerHuaweiAiPanguStreamMetrics implements HuaweiAiPanguStreamMetrics {
+
+    public static final String METRIC_PREFIX = "pangu.chat.stream";
+
+    private static final String UNKNOWN = "default";
+
+    private final MeterRegistry registry;
+
+    public MicrometerHuaweiAiPanguStreamMetrics(MeterRegistry registry) {
+        Assert.notNull(registry, "MeterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public StreamRecorder start(String tenant, String moduleVersion) {
+        // The tenant union key carries credentials, only its hash is used as a tag like in the observation convention.
+        Tags tags = Tags.of("tenant", LlmUtils.redactKey(tenant), "module.version", Objects.toString(moduleVersion, UNKNOWN));
+        return new MicrometerStreamRecorder(tags);
+    }
+
+    @Override
+    public void onRetry(String tenant, String moduleVersion, boolean resume) {
+        Counter.builder(METRIC_PREFIX + ".retries")
+                .description("Stream attempts retried before the first token or resumed after a partial answer")
+                .tags("tenant", LlmUtils.redactKey(tenant), "module.version", Objects.toString(moduleVersion, UNKNOWN))
+                .tag("type", resume ? "resume" : "retry")
+                .register(registry)
+                .increment();
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(METRIC_PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private class MicrometerStreamRecorder implements StreamRecorder {
+
+        private final Tags tags;
+        private final long startNanos = System.nanoTime();
+        private final Timer interTokenLatency;
+        private long lastTokenNanos;
+        private long tokens;
+
+        MicrometerStreamRecorder(Tags tags) {
+            this.tags = tags;
+            // Resolved once per stream so the per-token path is a plain record call.
+            this.interTokenLatency = timer(".inter.token.latency", "Latency between consecutive streamed tokens", tags);
+        }
+
+        @Override
+        public void onToken() {
+            long now = System.nanoTime();
+            if (tokens++ == 0) {
+                timer(".time.to.first.token", "Latency from stream start to the first token", tags)
+                        .record(now - startNanos, TimeUnit.NANOSECONDS);
+            } else {
+                interTokenLatency.record(now - lastTokenNanos, TimeUnit.NANOSECONDS);
+            }
+            lastTokenNanos = now;
+        }
+
+        @Override
+        public void onComplete() {
+            long durationNanos = System.nanoTime() - startNanos;
+            timer(".duration", "Duration of completed streams", tags).record(durationNanos, TimeUnit.NANOSECONDS);
+            if (durationNanos > 0) {
+                DistributionSummary.builder(METRIC_PREFIX + ".tokens.per.second")
+                        .description("Streamed tokens per second")
+                        .tags(tags)
+                        .register(registry)
+                        .record(tokens * 1_000_000_000.0 / durationNanos);
+            }
+        }
+
+        @Override
+        public void onError() {
+            Counter.builder(METRIC_PREFIX + ".errors").description("Streams terminated by an error").tags(tags).register(registry).increment();
+        }
+
+        @Override
+        public void onCancel() {
+            Counter.builder(METRIC_PREFIX + ".cancellations").description("Streams cancelled by the subscriber").tags(tags).register(registry).increment();
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.springframework.ai.huaweiai.pangu.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 通过 JFR 的 {@value #PINNED_EVENT} 事件统计虚拟线程固定在载体线程上的次数与时长。
+ * 固定通常由 synchronized 块或本地调用中的阻塞引起，期间载体线程无法执行其他虚拟线程。
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final RecordingStream stream;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final AtomicLong pinnedNanosMax = new AtomicLong();
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        Assert.notNull(threshold, "Threshold must not be null");
+        this.stream = new RecordingStream();
+        if (log.isDebugEnabled()) {
+            this.stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        } else {
+            this.stream.enable(PINNED_EVENT).withThreshold(threshold).withoutStackTrace();
+        }
+        this.stream.onEvent(PINNED_EVENT, this::onPinned);
+        this.stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedEvents.increment();
+        pinnedNanos.add(nanos);
+        pinnedNanosMax.accumulateAndGet(nanos, Math::max);
+        if (log.isDebugEnabled()) {
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            List<RecordedFrame> frames = Objects.nonNull(stackTrace) ? stackTrace.getFrames() : List.of();
+            log.debug("Virtual thread pinned for {} ms at {}", nanos / 1_000_000.0,
+                    frames.isEmpty() ? "<unknown>" : frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName());
+        }
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    public long getPinnedNanos() {
+        return pinnedNanos.sum();
+    }
+
+    public long getPinnedNanosMax() {
+        return pinnedNanosMax.get();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+}
@@ -12,8 +12,12 @@ import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatChoice;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatMessage;
 import com.huaweicloud.pangu.dev.sdk.client.pangu.chat.PanguChatResp;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguUsage;
+import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import org.apache.http.client.HttpResponseException;
 import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
@@ -25,16 +29,26 @@ import org.springframework.ai.huaweiai.pangu.autoconfigure.HuaweiAiPanguConnecti
 import org.springframework.ai.huaweiai.pangu.autoconfigure.HuaweiAiPanguHttpProxyProperties;
 import org.springframework.ai.huaweiai.pangu.autoconfigure.HuaweiAiPanguIamProperties;
 import org.springframework.ai.huaweiai.pangu.metadata.HuaweiAiPanguChatResponseMetadata;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguObservationContext;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.regex.Pattern;
 
 public class ApiUtils {
 
     public static final Float DEFAULT_TEMPERATURE = 0.95f;
     public static final Float DEFAULT_TOP_P = 1.0f;
 
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Status fields (status 429, status code: 429, HTTP/1.1 429), the reason phrase and the Pangu throttling error code.
+     */
+    private static final Pattern THROTTLED_MESSAGE = Pattern.compile(
+            "(?i)(?:\\bstatus(?:[ _]?code)?\\W{0,3}|\\bHTTP/\\d(?:\\.\\d)?\\s)429\\b|\\bToo Many Requests\\b|\\bPANGU\\.0429\\b");
+
     public static boolean isTenantRequest(Prompt prompt) {
         if (prompt.getOptions() instanceof HuaweiAiPanguChatTenantOptions chatOptions) {
             return Objects.nonNull(chatOptions.getIamOptions()) || Objects.nonNull(chatOptions.getHttpProxyOptions()) || Objects.nonNull(chatOptions.getModuleOptions());
@@ -64,6 +78,10 @@ public class ApiUtils {
             return null;
         }
         String baseUrl = StringUtils.hasText(chatProperties.getBaseUrl()) ? chatProperties.getBaseUrl() : connectionProperties.getBaseUrl();
+        return toLLMModuleConfig(baseUrl, connectionProperties);
+    }
+
+    public static LLMModuleConfig toLLMModuleConfig(String baseUrl, HuaweiAiPanguConnectionProperties connectionProperties){
         Assert.hasText(baseUrl, "Huawei AI Pangu base URL must be set");
 
         LLMModuleConfig httpConfig = LLMModuleConfig.builder()
@@ -171,6 +189,18 @@ public class ApiUtils {
                 .toList();
     }
 
+    /**
+     * 构造续写的提示词：将已输出的部分回答作为助手消息追加到对话末尾，模型从中断处继续回答
+     * @param prompt 原提示词
+     * @param partialAnswer 已输出的部分回答
+     * @return 续写的提示词
+     */
+    public static Prompt toResumePrompt(Prompt prompt, String partialAnswer) {
+        List<Message> messages = new ArrayList<>(prompt.getInstructions());
+        messages.add(new AssistantMessage(partialAnswer));
+        return new Prompt(messages, prompt.getOptions());
+    }
+
     public static Role toRole(Message message) {
         switch (message.getMessageType()) {
             case USER:
@@ -224,7 +254,11 @@ public class ApiUtils {
     }
 
     public static ChatResponse toChatResponse(String callBackId, LLMResp llmResp, boolean completion) {
-        List<Generation> generations = Arrays.asList(new Generation(llmResp.getAnswer(), ApiUtils.toMap(callBackId, llmResp))
+        return toChatResponse(callBackId, llmResp, llmResp.getAnswer(), completion);
+    }
+
+    public static ChatResponse toChatResponse(String callBackId, LLMResp llmResp, String answer, boolean completion) {
+        List<Generation> generations = Arrays.asList(new Generation(answer, ApiUtils.toMap(callBackId, llmResp))
                 .withGenerationMetadata( completion ? ChatGenerationMetadata.from("chat.completion", null) : ChatGenerationMetadata.NULL));
         return new ChatResponse(generations);
     }
@@ -249,10 +283,106 @@ public class ApiUtils {
         };
     }
 
+    /**
+     * 读取实际消耗的 Token 数
+     * @param usage 用量
+     * @return Token 数，未返回用量时为 -1
+     */
+    public static long totalTokens(PanguUsage usage) {
+        return Objects.nonNull(usage) && Objects.nonNull(usage.getTotalTokens()) ? usage.getTotalTokens() : -1;
+    }
+
+    public static long totalTokens(ChatResponse chatResponse) {
+        Usage usage = Objects.nonNull(chatResponse) ? chatResponse.getMetadata().getUsage() : null;
+        return Objects.nonNull(usage) && Objects.nonNull(usage.getTotalTokens()) ? usage.getTotalTokens() : -1;
+    }
+
+    /**
+     * 判断异常是否由上游限流（HTTP 429）引起：HTTP 客户端异常按状态码判断；
+     * SDK 异常不携带状态码，仅匹配其错误信息中的状态字段与限流错误码，其他位置出现的 429 不视为限流
+     * @param error 异常
+     * @return 是否被限流
+     */
+    public static boolean isThrottled(Throwable error) {
+        for (Throwable cause = error; Objects.nonNull(cause); cause = cause.getCause() == cause ? null : cause.getCause()) {
+            // httpclient 4.5 comes with the SDK as a compile dependency, its response handlers raise this for error statuses.
+            if (cause instanceof HttpResponseException responseException) {
+                return responseException.getStatusCode() == HTTP_TOO_MANY_REQUESTS;
+            }
+            if (cause instanceof PanguDevSDKException && Objects.nonNull(cause.getMessage())
+                    && THROTTLED_MESSAGE.matcher(cause.getMessage()).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static EmbeddingConfig toEmbeddingConfig(HuaweiAiPanguChatTenantOptions tenantOptions) {
         return EmbeddingConfig.builder()
                 .iamConfig(toIAMConfig(tenantOptions.getIamOptions()))
                 .httpConfig(toHTTPConfig(tenantOptions.getHttpProxyOptions()))
                 .build();
     }
+
+    public static HuaweiAiPanguObservationContext toObservationContext(String operation, Prompt prompt) {
+        HuaweiAiPanguObservationContext observationContext = new HuaweiAiPanguObservationContext(operation,
+                LlmUtils.getTenantKey(prompt.getOptions()), LlmUtils.getModuleVersion(prompt.getOptions()));
+        long requestSize = 0;
+        for (Message message : prompt.getInstructions()) {
+            requestSize += contentLength(message.getContent());
+        }
+        observationContext.setRequestSize(requestSize);
+        return observationContext;
+    }
+
+    public static long contentLength(ChatResponse chatResponse) {
+        if (Objects.isNull(chatResponse)) {
+            return 0;
+        }
+        long length = 0;
+        for (Generation generation : chatResponse.getResults()) {
+            length += contentLength(generation.getOutput().getContent());
+        }
+        return length;
+    }
+
+    public static long contentLength(String content) {
+        return Objects.nonNull(content) ? content.length() : 0;
+    }
+
+    /**
+     * 将 SDK 返回的向量转换为紧凑的 float 数组
+     * @param embedding 向量
+     * @return float 数组
+     */
+    public static float[] toFloatArray(List<Float> embedding) {
+        float[] vector = new float[embedding.size()];
+        int i = 0;
+        for (Float value : embedding) {
+            vector[i++] = value;
+        }
+        return vector;
+    }
+
+    /**
+     * 将 SDK 返回的向量转换为 Spring AI 的 {@code List<Double>} 表示
+     * @param embedding 向量
+     * @return Double 列表
+     */
+    public static List<Double> toDoubleList(List<Float> embedding) {
+        List<Double> vector = new ArrayList<>(embedding.size());
+        for (Float value : embedding) {
+            vector.add(value.doubleValue());
+        }
+        return vector;
+    }
+
+    public static List<Double> toDoubleList(float[] embedding) {
+        List<Double> vector = new ArrayList<>(embedding.length);
+        for (float value : embedding) {
+            vector.add((double) value);
+        }
+        return vector;
+    }
+
 }
@@ -0,0 +1,107 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatOptions;
+import org.springframework.ai.model.ModelOptions;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 聊天配置合并：逐字段合并运行期配置与默认配置，不经过 Jackson 转换或反射。
+ * 默认配置在构造时复制一次，每次合并返回新的配置，停止标识复制为不可修改的列表，调用方的修改不会影响后续合并。
+ */
+public class ChatOptionsMerger {
+
+    private final HuaweiAiPanguChatOptions defaultOptions;
+    private final HuaweiAiPanguChatOptions streamDefaultOptions;
+
+    public ChatOptionsMerger(HuaweiAiPanguChatOptions defaultOptions) {
+        Assert.notNull(defaultOptions, "Options must not be null");
+        this.defaultOptions = copy(defaultOptions, Boolean.FALSE);
+        this.streamDefaultOptions = copy(defaultOptions, Boolean.TRUE);
+    }
+
+    /**
+     * 合并运行期配置与默认配置，运行期配置中的非空字段优先
+     * @param runtimeOptions 运行期配置，可为 null
+     * @param stream 是否流式请求
+     * @return 合并后的配置副本
+     */
+    public HuaweiAiPanguChatOptions merge(ModelOptions runtimeOptions, boolean stream) {
+        HuaweiAiPanguChatOptions merged = copy(stream ? this.streamDefaultOptions : this.defaultOptions, stream);
+        if (Objects.isNull(runtimeOptions)) {
+            return merged;
+        }
+        if (runtimeOptions instanceof HuaweiAiPanguChatOptions options) {
+            // Covers HuaweiAiPanguChatTenantOptions as well, its tenant fields are resolved by LlmUtils.
+            if (Objects.nonNull(options.getMaxTokens())) {
+                merged.setMaxTokens(options.getMaxTokens());
+            }
+            if (Objects.nonNull(options.getTemperature())) {
+                merged.setTemperature(options.getTemperature());
+            }
+            if (Objects.nonNull(options.getTopP())) {
+                merged.setTopP(options.getTopP());
+            }
+            if (Objects.nonNull(options.getPenaltyScore())) {
+                merged.setPenaltyScore(options.getPenaltyScore());
+            }
+            if (Objects.nonNull(options.getSystem())) {
+                merged.setSystem(options.getSystem());
+            }
+            if (Objects.nonNull(options.getUser())) {
+                merged.setUser(options.getUser());
+            }
+            if (Objects.nonNull(options.getStop())) {
+                merged.setStop(List.copyOf(options.getStop()));
+            }
+            if (Objects.nonNull(options.getAnswerNum())) {
+                merged.setAnswerNum(options.getAnswerNum());
+            }
+            if (Objects.nonNull(options.getPresencePenalty())) {
+                merged.setPresencePenalty(options.getPresencePenalty());
+            }
+            if (Objects.nonNull(options.getFrequencyPenalty())) {
+                merged.setFrequencyPenalty(options.getFrequencyPenalty());
+            }
+            if (Objects.nonNull(options.getWithPrompt())) {
+                merged.setWithPrompt(options.getWithPrompt());
+            }
+            if (Objects.nonNull(options.getBestOf())) {
+                merged.setBestOf(options.getBestOf());
+            }
+        } else if (runtimeOptions instanceof ChatOptions options) {
+            // Portable options, topK is not supported by Pangu.
+            if (Objects.nonNull(options.getTemperature())) {
+                merged.setTemperature(options.getTemperature());
+            }
+            if (Objects.nonNull(options.getTopP())) {
+                merged.setTopP(options.getTopP());
+            }
+        } else {
+            throw new IllegalArgumentException("Prompt options are not of type ChatOptions: " + runtimeOptions.getClass().getSimpleName());
+        }
+        return merged;
+    }
+
+    private static HuaweiAiPanguChatOptions copy(HuaweiAiPanguChatOptions source, Boolean stream) {
+        HuaweiAiPanguChatOptions target = new HuaweiAiPanguChatOptions();
+        target.setMaxTokens(source.getMaxTokens());
+        target.setTemperature(source.getTemperature());
+        target.setTopP(source.getTopP());
+        target.setPenaltyScore(source.getPenaltyScore());
+        target.setSystem(source.getSystem());
+        target.setUser(source.getUser());
+        target.setStop(Objects.nonNull(source.getStop()) ? List.copyOf(source.getStop()) : null);
+        target.setAnswerNum(source.getAnswerNum());
+        target.setPresencePenalty(source.getPresencePenalty());
+        target.setFrequencyPenalty(source.getFrequencyPenalty());
+        target.setWithPrompt(source.getWithPrompt());
+        target.setBestOf(source.getBestOf());
+        target.setStream(stream);
+        return target;
+    }
+
+}
@@ -1,31 +1,103 @@
 package org.springframework.ai.huaweiai.pangu.util;
 
-import com.huaweicloud.pangu.dev.sdk.api.embedings.config.EmbeddingConfig;
-import com.huaweicloud.pangu.dev.sdk.api.llms.LLM;
 import com.huaweicloud.pangu.dev.sdk.api.llms.LLMs;
 import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
-import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
 import com.huaweicloud.pangu.dev.sdk.llms.module.Pangu;
 import com.huaweicloud.pangu.dev.sdk.utils.SecurityUtil;
 import org.springframework.ai.huaweiai.pangu.*;
-import org.springframework.util.Assert;
+import org.springframework.ai.model.ModelOptions;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class LlmUtils {
 
-    private static Map<String, Optional<Pangu>> LLM_MAP = new ConcurrentHashMap<>();
-    private static Map<String, Optional<PanguClient>> LLM_CHAT_CLIENT_MAP = new ConcurrentHashMap<>();
-    private static Map<String, Optional<PanguClient>> LLM_EMBEDDING_CLIENT_MAP = new ConcurrentHashMap<>();
+    public static final String DEFAULT_TENANT_KEY = "default";
 
     public static Pangu createLlm(LLMConfig llmConfig){
         return (Pangu) LLMs.of(LLMs.PANGU, llmConfig);
     }
 
+    /**
+     * 获取租户标识，非租户请求返回 {@link #DEFAULT_TENANT_KEY}，用于指标标签等
+     * @param options 请求配置
+     * @return 租户标识
+     */
+    public static String getTenantKey(ModelOptions options) {
+        if (options instanceof HuaweiAiPanguChatTenantOptions chatOptions) {
+            return getUnionKey(chatOptions);
+        }
+        if (options instanceof HuaweiAiPanguEmbeddingTenantOptions embeddingOptions) {
+            return getUnionKey(embeddingOptions);
+        }
+        return DEFAULT_TENANT_KEY;
+    }
+
+    /**
+     * 获取租户请求指定的模型版本
+     * @param options 请求配置
+     * @return 模型版本，未指定时返回 null
+     */
+    public static String getModuleVersion(ModelOptions options) {
+        HuaweiAiPanguModuleOptions moduleOptions = null;
+        if (options instanceof HuaweiAiPanguChatTenantOptions chatOptions) {
+            moduleOptions = chatOptions.getModuleOptions();
+        } else if (options instanceof HuaweiAiPanguEmbeddingTenantOptions embeddingOptions) {
+            moduleOptions = embeddingOptions.getModuleOptions();
+        }
+        return Objects.nonNull(moduleOptions) ? moduleOptions.getModuleVersion() : null;
+    }
+
+    /**
+     * 获取租户请求的服务地址键：IAM 联合键与模型服务地址，非租户请求使用默认键
+     * @param options 请求配置
+     * @return 服务地址键
+     */
+    public static String getEndpointKey(ModelOptions options) {
+        HuaweiAiPanguIamOptions iamOptions;
+        HuaweiAiPanguModuleOptions moduleOptions;
+        if (options instanceof HuaweiAiPanguChatTenantOptions chatOptions) {
+            iamOptions = chatOptions.getIamOptions();
+            moduleOptions = chatOptions.getModuleOptions();
+        } else if (options instanceof HuaweiAiPanguEmbeddingTenantOptions embeddingOptions) {
+            iamOptions = embeddingOptions.getIamOptions();
+            moduleOptions = embeddingOptions.getModuleOptions();
+        } else {
+            return DEFAULT_TENANT_KEY;
+        }
+        StringJoiner joiner = new StringJoiner("@");
+        if (Objects.nonNull(iamOptions)) {
+            joiner.add(iamOptions.getUnionKey());
+        }
+        if (Objects.nonNull(moduleOptions) && Objects.nonNull(moduleOptions.getUrl())) {
+            joiner.add(moduleOptions.getUrl());
+        }
+        return joiner.length() > 0 ? joiner.toString() : DEFAULT_TENANT_KEY;
+    }
+
+    /**
+     * 租户联合键与服务地址键包含 AK 等凭证信息，指标标签、日志与异常信息中只使用其哈希值
+     * @param key 租户联合键或服务地址键
+     * @return SHA-256 摘要的前 16 位十六进制字符，默认键原样返回
+     */
+    public static String redactKey(String key) {
+        if (Objects.isNull(key) || DEFAULT_TENANT_KEY.equals(key)) {
+            return DEFAULT_TENANT_KEY;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        // Eight bytes keep tenants apart in tags and logs, and say nothing about the credentials.
+        return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)), 0, 8);
+    }
+
     /**
      * 获取联合键
      * @param chatOptions
@@ -73,102 +145,21 @@ public class LlmUtils {
     }
 
     /**
-     * 获取或创建 Pangu
-     * @param chatOptions 聊天配置
-     * @return Pangu
-     */
-    public static Optional<Pangu> getOrCreatePanguLLM(HuaweiAiPanguChatOptions chatOptions) {
-        return LLM_MAP.computeIfAbsent(LlmUtils.getUnionKey(chatOptions), unionKey -> {
-            // 判断是否为独立租户聊天配置
-            if(chatOptions instanceof HuaweiAiPanguChatTenantOptions tenantOptions){
-                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
-                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
-                HuaweiAiPanguModuleOptions moduleOptions = tenantOptions.getModuleOptions();
-                if(Objects.isNull(iamOptions) && Objects.isNull(moduleOptions) ){
-                    return Optional.empty();
-                }
-                // 构建LLMConfig
-                LLMConfig llmConfig = LLMConfig.builder()
-                        .iamConfig(ApiUtils.toIAMConfig(iamOptions))
-                        .llmParamConfig(ApiUtils.toLLMParamConfig(tenantOptions))
-                        .llmModuleConfig(ApiUtils.toLLMModuleConfig(moduleOptions))
-                        .build();
-                HuaweiAiPanguHttpProxyOptions httpProxyOptions = tenantOptions.getHttpProxyOptions();
-                if(Objects.nonNull(httpProxyOptions)){
-                    llmConfig.setHttpConfig(ApiUtils.toHTTPConfig(httpProxyOptions));
-                }
-                // 构建LLM
-                LLM pangu = LLMs.of(LLMs.PANGU, llmConfig);
-                // TODO 增加缓存配置
-                //llm.setCache(Caches.of(Caches.IN_MEMORY));
-                return Optional.ofNullable((Pangu) pangu);
-            }
-            return Optional.empty();
-        });
-    }
-
-    /**
-     * 获取或创建 PanguClient
-     * @param chatOptions 聊天配置
-     * @return PanguClient
+     * 构建租户 LLMConfig
+     * @param tenantOptions 租户聊天配置
+     * @return LLMConfig
      */
-    public static Optional<PanguClient> getOrCreatePanguClient(HuaweiAiPanguChatOptions chatOptions) {
-        return LLM_CHAT_CLIENT_MAP.computeIfAbsent(LlmUtils.getUnionKey(chatOptions), unionKey -> {
-            // 判断是否为独立租户聊天配置
-            if(chatOptions instanceof HuaweiAiPanguChatTenantOptions tenantOptions){
-                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
-                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
-                HuaweiAiPanguModuleOptions moduleOptions = tenantOptions.getModuleOptions();
-                if(Objects.isNull(iamOptions) && Objects.isNull(moduleOptions) ){
-                    return Optional.empty();
-                }
-                // 构建LLMConfig
-                LLMConfig llmConfig = LLMConfig.builder()
-                        .iamConfig(ApiUtils.toIAMConfig(iamOptions))
-                        .llmParamConfig(ApiUtils.toLLMParamConfig(tenantOptions))
-                        .llmModuleConfig(ApiUtils.toLLMModuleConfig(moduleOptions))
-                        .build();
-                HuaweiAiPanguHttpProxyOptions httpProxyOptions = tenantOptions.getHttpProxyOptions();
-                if(Objects.nonNull(httpProxyOptions)){
-                    llmConfig.setHttpConfig(ApiUtils.toHTTPConfig(httpProxyOptions));
-                }
-
-                EmbeddingConfig embeddingConfig = ApiUtils.toEmbeddingConfig(tenantOptions);
-                return Optional.ofNullable(new PanguClient(llmConfig, embeddingConfig));
-            }
-            return Optional.empty();
-        });
-    }
-
-    /**
-     * 获取或创建 PanguClient
-     * @param embeddingOptions 嵌入配置
-     * @return PanguClient
-     */
-    public static Optional<PanguClient> getOrCreatePanguClient(HuaweiAiPanguEmbeddingOptions embeddingOptions) {
-        return LLM_EMBEDDING_CLIENT_MAP.computeIfAbsent(LlmUtils.getUnionKey(embeddingOptions), key -> {
-            // 判断是否为独立租户 embedding 配置
-            if(embeddingOptions instanceof HuaweiAiPanguEmbeddingTenantOptions tenantOptions){
-                // 如果没有实时指定IAM配置、模型配置，则认为无需区分 LLM 客户端
-                HuaweiAiPanguIamOptions iamOptions = tenantOptions.getIamOptions();
-                if(Objects.isNull(iamOptions)){
-                    return Optional.empty();
-                }
-                Assert.hasText(tenantOptions.getBaseUrl(), "Huawei AI Pangu base URL must be set");
-
-                EmbeddingConfig embeddingConfig = EmbeddingConfig.builder()
-                        .url(tenantOptions.getBaseUrl())
-                        .embeddingName(tenantOptions.getModel())
-                        .iamConfig(ApiUtils.toIAMConfig(iamOptions))
-                        .build();
-                HuaweiAiPanguHttpProxyOptions httpProxyOptions = tenantOptions.getHttpProxyOptions();
-                if(Objects.nonNull(httpProxyOptions)){
-                    embeddingConfig.setHttpConfig(ApiUtils.toHTTPConfig(httpProxyOptions));
-                }
-                return Optional.ofNullable(new PanguClient(embeddingConfig));
-            }
-            return Optional.empty();
-        });
+    public static LLMConfig toLLMConfig(HuaweiAiPanguChatTenantOptions tenantOptions) {
+        LLMConfig llmConfig = LLMConfig.builder()
+                .iamConfig(ApiUtils.toIAMConfig(tenantOptions.getIamOptions()))
+                .llmParamConfig(ApiUtils.toLLMParamConfig(tenantOptions))
+                .llmModuleConfig(ApiUtils.toLLMModuleConfig(tenantOptions.getModuleOptions()))
+                .build();
+        HuaweiAiPanguHttpProxyOptions httpProxyOptions = tenantOptions.getHttpProxyOptions();
+        if(Objects.nonNull(httpProxyOptions)){
+            llmConfig.setHttpConfig(ApiUtils.toHTTPConfig(httpProxyOptions));
+        }
+        return llmConfig;
     }
 
 }
@@ -0,0 +1,153 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import com.huaweicloud.pangu.dev.sdk.llms.module.Pangu;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 预构建 Pangu LLM 实例池：流式回调绑定在 LLM 实例上，同一实例不能被并发的流式请求共享，
+ * 因此每个流式请求独占借出一个实例，结束后归还复用，避免每次请求都重新构建 SDK 客户端。
+ * 借出的实例数有上限，达到上限时借出请求等待有限时间，超时后被拒绝。
+ */
+public class PanguLlmPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PanguLlmPool.class);
+
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    public static final int DEFAULT_MAX_TOTAL = 256;
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(10);
+
+    private final Supplier<Pangu> factory;
+    private final int maxIdle;
+    private final int maxTotal;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Pangu> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    public PanguLlmPool(Supplier<Pangu> factory) {
+        this(factory, DEFAULT_MAX_IDLE);
+    }
+
+    public PanguLlmPool(Supplier<Pangu> factory, int maxIdle) {
+        this(factory, maxIdle, DEFAULT_MAX_TOTAL, DEFAULT_MAX_WAIT);
+    }
+
+    public PanguLlmPool(Supplier<Pangu> factory, int maxIdle, int maxTotal, Duration maxWait) {
+        Assert.notNull(factory, "Pangu factory must not be null");
+        Assert.isTrue(maxIdle >= 0, "maxIdle must not be negative");
+        Assert.isTrue(maxTotal > 0, "maxTotal must be positive");
+        Assert.notNull(maxWait, "maxWait must not be null");
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        this.maxTotal = maxTotal;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxTotal);
+    }
+
+    /**
+     * 借出一个 LLM 实例，池中没有空闲实例时新建；借出数达到上限时最多等待 maxWait
+     * @return Pangu，使用完毕后必须通过 {@link #release(Pangu)} 归还
+     * @throws RejectedExecutionException 等待超时或等待时被中断
+     */
+    public Pangu borrow() {
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Pangu LLM pool exhausted, maxTotal: " + maxTotal);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a pooled Pangu LLM", e);
+        }
+        try {
+            Pangu llm = idle.pollFirst();
+            if (Objects.nonNull(llm)) {
+                idleCount.decrementAndGet();
+                return llm;
+            }
+            return factory.get();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还借出的 LLM 实例，超出最大空闲数或池已关闭时丢弃
+     * @param llm Pangu
+     */
+    public void release(Pangu llm) {
+        if (Objects.isNull(llm)) {
+            return;
+        }
+        try {
+            // Drop the per-request callback so the pooled instance does not pin the finished stream.
+            llm.setStreamCallback(null);
+            if (closed) {
+                close(llm);
+                return;
+            }
+            if (idleCount.incrementAndGet() > maxIdle) {
+                idleCount.decrementAndGet();
+                close(llm);
+                return;
+            }
+            idle.offerFirst(llm);
+            // The pool may have been closed while the instance was returned, do not leave it behind.
+            if (closed) {
+                this.closeIdle();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * @return 已借出未归还的实例数
+     */
+    public int getBorrowedCount() {
+        return maxTotal - permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        this.closeIdle();
+    }
+
+    private void closeIdle() {
+        Pangu llm;
+        while ((llm = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            close(llm);
+        }
+    }
+
+    private void close(Pangu llm) {
+        if (llm instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close pooled Pangu LLM", e);
+            }
+        }
+    }
+
+}
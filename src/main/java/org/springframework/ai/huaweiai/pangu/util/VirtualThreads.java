@@ -0,0 +1,42 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具：SDK 调用均为阻塞调用，在虚拟线程上执行时等待网络与重试退避不会占用平台线程。
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return 当前 JVM 是否支持虚拟线程（JDK 21 及以上）
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * 创建虚拟线程工厂，用于需要限制并发的调度器
+     * @param threadNamePrefix 线程名前缀
+     * @return ThreadFactory
+     */
+    public static ThreadFactory newThreadFactory(String threadNamePrefix) {
+        return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的调度器，调度器本身不持有线程，无需释放
+     * @param threadNamePrefix 线程名前缀
+     * @return Scheduler
+     */
+    public static Scheduler newScheduler(String threadNamePrefix) {
+        return Schedulers.fromExecutor(new VirtualThreadTaskExecutor(threadNamePrefix));
+    }
+
+}
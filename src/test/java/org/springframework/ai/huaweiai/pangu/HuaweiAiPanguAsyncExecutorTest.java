@@ -0,0 +1,52 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HuaweiAiPanguAsyncExecutorTest {
+
+    @Test
+    void rejectsCallsBeyondTheQueueDepthOfAllThreads() throws Exception {
+        // One thread with a large per-thread queue, the executor bound must apply anyway.
+        try (HuaweiAiPanguAsyncExecutor executor = new HuaweiAiPanguAsyncExecutor(
+                Schedulers.newBoundedElastic(1, 100, "async-executor-test"), true, 1, null, 3,
+                Duration.ofMillis(500), Duration.ofSeconds(10), 0.5)) {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Mono<String> first = executor.submit(() -> {
+                running.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "first";
+            }).cache();
+            first.subscribe();
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            Mono<String> second = executor.submit(() -> "second").cache();
+            second.subscribe();
+            assertThat(executor.getPendingCalls()).isEqualTo(1);
+
+            AtomicInteger attempts = new AtomicInteger();
+            assertThatThrownBy(() -> executor.submitWithRetry(() -> {
+                attempts.incrementAndGet();
+                return "third";
+            }).block()).isInstanceOf(RejectedExecutionException.class);
+            assertThat(attempts).hasValue(0);
+
+            release.countDown();
+            assertThat(first.block()).isEqualTo("first");
+            assertThat(second.block()).isEqualTo("second");
+            assertThat(executor.getPendingCalls()).isZero();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.huaweiai.pangu.metrics.MicrometerHuaweiAiPanguCircuitBreakerMetrics;
+import org.springframework.ai.huaweiai.pangu.util.LlmUtils;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HuaweiAiPanguCircuitBreakerTest {
+
+    private static final String ENDPOINT = "tenant#https://pangu.example.com";
+
+    private HuaweiAiPanguCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new HuaweiAiPanguCircuitBreaker(4, 4, 50, Duration.ofSeconds(20), 80, Duration.ofMillis(100), 2,
+                1000, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void opensHalfOpensAndClosesAgain() throws Exception {
+        succeed();
+        succeed();
+        fail();
+        assertThat(circuitBreaker.getState(ENDPOINT)).isEqualTo(HuaweiAiPanguCircuitBreaker.State.CLOSED);
+        fail();
+        assertThat(circuitBreaker.getState(ENDPOINT)).isEqualTo(HuaweiAiPanguCircuitBreaker.State.OPEN);
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> circuitBreaker.execute(ENDPOINT, calls::incrementAndGet))
+                .isInstanceOf(HuaweiAiPanguCircuitOpenException.class)
+                .hasMessageNotContaining(ENDPOINT);
+        assertThat(calls).hasValue(0);
+
+        Thread.sleep(150);
+        succeed();
+        assertThat(circuitBreaker.getState(ENDPOINT)).isEqualTo(HuaweiAiPanguCircuitBreaker.State.HALF_OPEN);
+        succeed();
+        assertThat(circuitBreaker.getState(ENDPOINT)).isEqualTo(HuaweiAiPanguCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbesOpenAgain() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        Thread.sleep(150);
+        fail();
+        fail();
+
+        assertThat(circuitBreaker.getState(ENDPOINT)).isEqualTo(HuaweiAiPanguCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void rejectionEndsTheRetryOfAnotherThreadsAttempt() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(5).fixedBackoff(1).build();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.execute(ctx -> HuaweiAiPanguCircuitBreaker.attempt(ctx, () -> {
+            attempts.incrementAndGet();
+            // Like a hedged call, the rejection comes from a thread without the retry context.
+            Thread worker = new Thread(() -> circuitBreaker.execute(ENDPOINT, () -> "answer"));
+            HuaweiAiPanguCircuitOpenException[] rejection = new HuaweiAiPanguCircuitOpenException[1];
+            worker.setUncaughtExceptionHandler((thread, e) -> rejection[0] = (HuaweiAiPanguCircuitOpenException) e);
+            worker.start();
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            throw new IllegalStateException("Hedged attempt failed", rejection[0]);
+        }))).hasCauseInstanceOf(HuaweiAiPanguCircuitOpenException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void evictedEndpointsRemoveTheirMeters() throws Exception {
+        circuitBreaker = new HuaweiAiPanguCircuitBreaker(4, 4, 50, Duration.ofSeconds(20), 80, Duration.ofSeconds(30), 5,
+                1000, Duration.ofMillis(50));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        circuitBreaker.setCircuitBreakerMetrics(new MicrometerHuaweiAiPanguCircuitBreakerMetrics(registry));
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThatThrownBy(this::succeed).isInstanceOf(HuaweiAiPanguCircuitOpenException.class);
+        String endpointTag = LlmUtils.redactKey(ENDPOINT);
+        assertThat(registry.find("pangu.circuit.breaker.state").tag("endpoint", endpointTag).gauge()).isNotNull();
+        assertThat(registry.find("pangu.circuit.breaker.transitions").tag("endpoint", endpointTag).counter()).isNotNull();
+        assertThat(registry.find("pangu.circuit.breaker.rejected").tag("endpoint", endpointTag).counter()).isNotNull();
+
+        Thread.sleep(100);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!registry.find("pangu.circuit.breaker.state").tag("endpoint", endpointTag).meters().isEmpty()
+                && System.nanoTime() < deadline) {
+            // Accessing another endpoint runs the cache maintenance that expires the idle one.
+            circuitBreaker.execute("other", () -> "answer");
+            Thread.sleep(10);
+        }
+
+        assertThat(registry.getMeters())
+                .noneMatch(meter -> endpointTag.equals(meter.getId().getTag("endpoint")));
+    }
+
+    private void succeed() {
+        circuitBreaker.execute(ENDPOINT, () -> "answer");
+    }
+
+    private void fail() {
+        assertThatThrownBy(() -> circuitBreaker.execute(ENDPOINT, () -> {
+            throw new IllegalStateException("Service Unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+}
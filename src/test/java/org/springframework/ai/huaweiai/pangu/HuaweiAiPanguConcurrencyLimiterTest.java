@@ -0,0 +1,136 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HuaweiAiPanguConcurrencyLimiterTest {
+
+    private static final String TENANT = "tenant";
+
+    @Test
+    void saturatedSuccessesIncreaseTheLimitAdditively() {
+        HuaweiAiPanguConcurrencyLimiter limiter = limiter(1, Double.MAX_VALUE, 100, Duration.ofSeconds(5));
+
+        limiter.execute(TENANT, () -> "answer");
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(2.0, within(1e-9));
+        limiter.execute(TENANT, () -> "answer");
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(2.5, within(1e-9));
+
+        // One call at a time no longer uses half of the limit, so the limit stops growing.
+        for (int i = 0; i < 10; i++) {
+            limiter.execute(TENANT, () -> "answer");
+        }
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(2.5, within(1e-9));
+        assertThat(limiter.getInFlight(TENANT)).isZero();
+    }
+
+    @Test
+    void slowCallsAndThrottlingDecreaseTheLimitMultiplicatively() {
+        HuaweiAiPanguConcurrencyLimiter limiter = limiter(20, 2.0, 100, Duration.ofSeconds(5));
+
+        limiter.execute(TENANT, () -> "answer");
+        limiter.execute(TENANT, () -> {
+            sleep(50);
+            return "answer";
+        });
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(18.0, within(1e-9));
+
+        assertThatThrownBy(() -> limiter.execute(TENANT, () -> {
+            throw new PanguDevSDKException("Request failed with status code: 429");
+        })).isInstanceOf(PanguDevSDKException.class);
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(9.0, within(1e-9));
+
+        // Other failures say nothing about the tenant's capacity.
+        assertThatThrownBy(() -> limiter.execute(TENANT, () -> {
+            throw new PanguDevSDKException("Request failed with status code: 400");
+        })).isInstanceOf(PanguDevSDKException.class);
+        assertThat(limiter.getLimit(TENANT)).isCloseTo(9.0, within(1e-9));
+        assertThat(limiter.getInFlight(TENANT)).isZero();
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheQueueBound() throws Exception {
+        HuaweiAiPanguConcurrencyLimiter limiter = limiter(1, 2.0, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> limiter.execute(TENANT, () -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> limiter.execute(TENANT, () -> "second"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued(TENANT) < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(limiter.getQueued(TENANT)).isEqualTo(1);
+
+        assertThatThrownBy(() -> limiter.execute(TENANT, () -> "third"))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("1 requests queued");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(limiter.getInFlight(TENANT)).isZero();
+        assertThat(limiter.getQueued(TENANT)).isZero();
+    }
+
+    @Test
+    void rejectsRequestsWaitingLongerThanTheMaxWait() throws Exception {
+        HuaweiAiPanguConcurrencyLimiter limiter = limiter(1, 2.0, 100, Duration.ofMillis(50));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> limiter.execute(TENANT, () -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long startNanos = System.nanoTime();
+        assertThatThrownBy(() -> limiter.execute(TENANT, () -> "second"))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+        assertThat(limiter.getQueued(TENANT)).isZero();
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    private static HuaweiAiPanguConcurrencyLimiter limiter(int initialLimit, double latencyTolerance, int maxQueued, Duration maxWait) {
+        return new HuaweiAiPanguConcurrencyLimiter(initialLimit, 1, 200, maxWait, maxQueued,
+                latencyTolerance, 0.9, 0.5, 100, 1000, Duration.ofMinutes(30));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbedding;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbeddingReq;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.embedding.PanguEmbeddingResp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HuaweiAiPanguEmbeddingClientTest {
+
+    private static final List<String> TEXTS = List.of("t0", "t1", "t2", "t3", "t4");
+
+    private PanguClient panguClient;
+
+    private HuaweiAiPanguEmbeddingClient embeddingClient;
+
+    @BeforeEach
+    void setUp() {
+        panguClient = mock(PanguClient.class);
+        embeddingClient = new HuaweiAiPanguEmbeddingClient(panguClient, MetadataMode.EMBED,
+                HuaweiAiPanguEmbeddingOptions.builder().build(), RetryTemplate.builder().maxAttempts(1).build());
+        embeddingClient.setBatchLimits(2, 32_000, 4);
+    }
+
+    @Test
+    void splitsInputsIntoBatchesAndKeepsInputOrder() {
+        stubEmbeddings(inputs -> inputs);
+
+        EmbeddingResponse response = embeddingClient.call(new EmbeddingRequest(TEXTS, EmbeddingOptions.EMPTY));
+
+        verify(panguClient, times(3)).createEmbeddings(any());
+        assertThat(response.getResults()).hasSize(TEXTS.size());
+        for (int i = 0; i < TEXTS.size(); i++) {
+            assertThat(response.getResults().get(i).getIndex()).isEqualTo(i);
+            assertThat(response.getResults().get(i).getOutput()).containsExactly((double) i);
+        }
+    }
+
+    @Test
+    void failsWhenBatchReturnsNoEmbeddings() {
+        stubEmbeddings(inputs -> inputs.contains("t2") ? List.of() : inputs);
+
+        assertThatThrownBy(() -> embeddingClient.call(new EmbeddingRequest(TEXTS, EmbeddingOptions.EMPTY)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[2, 4)");
+    }
+
+    @Test
+    void failsWhenBatchReturnsFewerEmbeddingsThanInputs() {
+        stubEmbeddings(inputs -> inputs.contains("t2") ? inputs.subList(0, 1) : inputs);
+
+        assertThatThrownBy(() -> embeddingClient.embedToFloatArrays(TEXTS))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("input 3");
+    }
+
+    @Test
+    void callAsyncFailsInsteadOfReturningPartialResponse() {
+        stubEmbeddings(inputs -> inputs.contains("t4") ? List.of() : inputs);
+
+        assertThatThrownBy(() -> embeddingClient.callAsync(new EmbeddingRequest(TEXTS, EmbeddingOptions.EMPTY)).block())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[4, 5)");
+    }
+
+    @Test
+    void callAsyncSplitsInputsIntoBatchesAndKeepsInputOrder() {
+        stubEmbeddings(inputs -> inputs);
+
+        EmbeddingResponse response = embeddingClient.callAsync(new EmbeddingRequest(TEXTS, EmbeddingOptions.EMPTY)).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getResults()).hasSize(TEXTS.size());
+        for (int i = 0; i < TEXTS.size(); i++) {
+            assertThat(response.getResults().get(i).getOutput()).containsExactly((double) i);
+        }
+    }
+
+    @Test
+    void cachedVectorsAreNotAliasedWithReturnedVectors() {
+        stubEmbeddings(inputs -> inputs);
+        embeddingClient.setEmbeddingCache(new HuaweiAiPanguEmbeddingCache(10_000, Duration.ofHours(24), null, true));
+
+        float[][] missed = embeddingClient.embedToFloatArrays(List.of("t1", "t1"));
+        missed[0][0] = 42f;
+        missed[1][0] = 43f;
+        float[][] hit = embeddingClient.embedToFloatArrays(List.of("t1"));
+        hit[0][0] = 44f;
+
+        verify(panguClient, times(1)).createEmbeddings(any());
+        assertThat(embeddingClient.embedToFloatArrays(List.of("t1"))[0]).containsExactly(1f);
+    }
+
+    @Test
+    void duplicateTextsDoNotReadBackFromTheCache() {
+        stubEmbeddings(inputs -> inputs);
+        // A cache that admits nothing, like a full cache rejecting the new vectors.
+        HuaweiAiPanguEmbeddingCache embeddingCache = mock(HuaweiAiPanguEmbeddingCache.class);
+        when(embeddingCache.key(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        embeddingClient.setEmbeddingCache(embeddingCache);
+
+        float[][] vectors = embeddingClient.embedToFloatArrays(List.of("t1", "t2", "t1", "t2", "t1"));
+
+        verify(panguClient, times(1)).createEmbeddings(any());
+        assertThat(vectors).hasNumberOfRows(5);
+        assertThat(vectors[2]).containsExactly(1f).isNotSameAs(vectors[0]);
+        assertThat(vectors[3]).containsExactly(2f);
+        assertThat(vectors[4]).containsExactly(1f);
+    }
+
+    /**
+     * Answer each sub-batch with one vector per returned text, the value of a vector is the number of its text.
+     */
+    private void stubEmbeddings(Function<List<String>, List<String>> returnedTexts) {
+        when(panguClient.createEmbeddings(any())).thenAnswer(invocation -> {
+            PanguEmbeddingReq request = invocation.getArgument(0);
+            return embeddingResponse(returnedTexts.apply(request.getInput()));
+        });
+    }
+
+    static PanguEmbeddingResp embeddingResponse(List<String> texts) {
+        List<PanguEmbedding> data = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            PanguEmbedding embedding = mock(PanguEmbedding.class);
+            when(embedding.getIndex()).thenReturn(i);
+            when(embedding.getEmbedding()).thenReturn(List.of(Float.parseFloat(texts.get(i).substring(1))));
+            data.add(embedding);
+        }
+        PanguEmbeddingResp response = mock(PanguEmbeddingResp.class);
+        when(response.getData()).thenReturn(data);
+        return response;
+    }
+
+}
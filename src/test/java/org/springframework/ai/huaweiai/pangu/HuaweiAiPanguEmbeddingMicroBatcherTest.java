@@ -0,0 +1,118 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HuaweiAiPanguEmbeddingMicroBatcherTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private ExecutorService executor;
+
+    /**
+     * Like the virtual thread scheduler, an executor backed scheduler can not run delayed tasks.
+     */
+    private Scheduler batchScheduler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        batchScheduler = Schedulers.fromExecutor(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void flushesWindowOnBatchSchedulerWithoutTimeSupport() throws Exception {
+        HuaweiAiPanguEmbeddingMicroBatcher microBatcher = microBatcher(Schedulers.parallel(), 32);
+
+        CompletableFuture<float[]> first = microBatcher.submit("a");
+        CompletableFuture<float[]> second = microBatcher.submit("bb");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(1f);
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly(2f);
+        assertThat(batches).containsExactly(List.of("a", "bb"));
+        assertThat(microBatcher.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchesFullBatchBeforeWindowEnds() throws Exception {
+        HuaweiAiPanguEmbeddingMicroBatcher microBatcher = microBatcher(Schedulers.parallel(), 2, Duration.ofHours(1));
+
+        CompletableFuture<float[]> first = microBatcher.submit("a");
+        CompletableFuture<float[]> second = microBatcher.submit("bb");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(1f);
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly(2f);
+        assertThat(batches).containsExactly(List.of("a", "bb"));
+    }
+
+    @Test
+    void sharesOneInputBetweenIdenticalTexts() throws Exception {
+        HuaweiAiPanguEmbeddingMicroBatcher microBatcher = microBatcher(Schedulers.parallel(), 32);
+
+        CompletableFuture<float[]> first = microBatcher.submit("a");
+        CompletableFuture<float[]> second = microBatcher.submit("a");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(1f);
+        assertThat(second).isSameAs(first);
+        assertThat(batches).containsExactly(List.of("a"));
+    }
+
+    @Test
+    void dropsTextWhenTimerRejectsWindow() {
+        Scheduler timer = Schedulers.newSingle("micro-batch-test-timer");
+        timer.dispose();
+        HuaweiAiPanguEmbeddingMicroBatcher microBatcher = microBatcher(timer, 2);
+
+        assertThatThrownBy(() -> microBatcher.submit("a")).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> microBatcher.submit("bb")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void failsCallersWhenBatchSchedulerRejects() {
+        executor.shutdown();
+        HuaweiAiPanguEmbeddingMicroBatcher microBatcher = microBatcher(Schedulers.parallel(), 1);
+
+        assertThatThrownBy(() -> microBatcher.embed("a")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(batches).isEmpty();
+    }
+
+    private HuaweiAiPanguEmbeddingMicroBatcher microBatcher(Scheduler timer, int maxBatchSize) {
+        return microBatcher(timer, maxBatchSize, Duration.ofMillis(20));
+    }
+
+    /**
+     * The vector of a text holds its length, so each caller can check it got its own.
+     */
+    private HuaweiAiPanguEmbeddingMicroBatcher microBatcher(Scheduler timer, int maxBatchSize, Duration window) {
+        return new HuaweiAiPanguEmbeddingMicroBatcher(window, maxBatchSize, batchScheduler, timer, texts -> {
+            batches.add(List.copyOf(texts));
+            float[][] vectors = new float[texts.size()][];
+            for (int i = 0; i < texts.size(); i++) {
+                vectors[i] = new float[]{texts.get(i).length()};
+            }
+            return vectors;
+        });
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.huaweiai.pangu.metrics.HuaweiAiPanguHedgeMetrics;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HuaweiAiPanguHedgerTest {
+
+    private final RecordingHedgeMetrics hedgeMetrics = new RecordingHedgeMetrics();
+
+    @Test
+    void hedgesOnlyWithinTheBudget() {
+        HuaweiAiPanguHedger hedger = hedger(Duration.ofMillis(10), 10);
+
+        for (int i = 0; i < 20; i++) {
+            hedger.execute(hedge -> hedge ? Mono.just("hedge") : Mono.delay(Duration.ofMillis(100)).thenReturn("primary")).block();
+        }
+
+        // Ten percent: every tenth request saves up the credits of one hedge.
+        assertThat(hedgeMetrics.requests).hasValue(20);
+        assertThat(hedgeMetrics.hedges).hasValue(2);
+        assertThat(hedgeMetrics.wins).hasValue(2);
+        assertThat(hedgeMetrics.budgetExhausted).hasValue(18);
+    }
+
+    @Test
+    void refreshesTheDelayFromTheLatencyPercentile() {
+        HuaweiAiPanguHedger hedger = new HuaweiAiPanguHedger(0.5, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofSeconds(10), 10, 20, 0);
+
+        for (int i = 0; i < 9; i++) {
+            hedger.execute(hedge -> Mono.delay(Duration.ofMillis(50)).thenReturn("primary")).block();
+        }
+        assertThat(hedger.getDelayNanos()).isEqualTo(Duration.ofSeconds(5).toNanos());
+
+        hedger.execute(hedge -> Mono.delay(Duration.ofMillis(50)).thenReturn("primary")).block();
+        assertThat(hedger.getDelayNanos()).isBetween(Duration.ofMillis(50).toNanos(), Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void failsOnlyOnceNoAttemptIsLeft() {
+        HuaweiAiPanguHedger hedger = hedger(Duration.ofMillis(10), 100);
+
+        String winner = hedger.execute(hedge -> hedge
+                ? Mono.delay(Duration.ofMillis(100)).thenReturn("hedge")
+                : Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException("primary failed")))).block();
+        assertThat(winner).isEqualTo("hedge");
+        assertThat(hedgeMetrics.wins).hasValue(1);
+
+        assertThatThrownBy(() -> hedger.execute(hedge -> hedge
+                ? Mono.delay(Duration.ofMillis(100)).then(Mono.<String>error(new IllegalStateException("hedge failed")))
+                : Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException("primary failed")))).block())
+                .hasMessage("hedge failed");
+
+        // Without a hedge in flight the first error fails the request.
+        HuaweiAiPanguHedger unbudgeted = hedger(Duration.ofMillis(10), 0);
+        assertThatThrownBy(() -> unbudgeted.execute(hedge -> Mono.delay(Duration.ofMillis(50))
+                .then(Mono.<String>error(new IllegalStateException("primary failed")))).block())
+                .hasMessage("primary failed");
+    }
+
+    private HuaweiAiPanguHedger hedger(Duration initialDelay, double budgetPercent) {
+        // Keep the delay at its initial value, too few samples to refresh it.
+        HuaweiAiPanguHedger hedger = new HuaweiAiPanguHedger(0.95, initialDelay, Duration.ofMillis(1), Duration.ofSeconds(10), 1000, 1000, budgetPercent);
+        hedger.setHedgeMetrics(hedgeMetrics);
+        return hedger;
+    }
+
+    private static class RecordingHedgeMetrics implements HuaweiAiPanguHedgeMetrics {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger hedges = new AtomicInteger();
+        private final AtomicInteger wins = new AtomicInteger();
+        private final AtomicInteger budgetExhausted = new AtomicInteger();
+
+        @Override
+        public void onRequest() {
+            requests.incrementAndGet();
+        }
+
+        @Override
+        public void onHedge() {
+            hedges.incrementAndGet();
+        }
+
+        @Override
+        public void onHedgeWin() {
+            wins.incrementAndGet();
+        }
+
+        @Override
+        public void onBudgetExhausted() {
+            budgetExhausted.incrementAndGet();
+        }
+
+    }
+
+}
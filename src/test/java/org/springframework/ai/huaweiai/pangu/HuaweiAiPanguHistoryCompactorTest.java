@@ -0,0 +1,86 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HuaweiAiPanguHistoryCompactorTest {
+
+    // Ten tokens each: nine characters at one character per token, plus the role overhead.
+    private final Message system = new SystemMessage("s".repeat(9));
+    private final Message question1 = new UserMessage("1".repeat(9));
+    private final Message answer1 = new AssistantMessage("a".repeat(9));
+    private final Message question2 = new UserMessage("2".repeat(9));
+    private final Message answer2 = new AssistantMessage("b".repeat(9));
+    private final Message question3 = new UserMessage("3".repeat(9));
+
+    @Test
+    void estimatesTokensAndTheBudgetOfTheModel() {
+        HuaweiAiPanguHistoryCompactor compactor = new HuaweiAiPanguHistoryCompactor(60, Map.of("N2", 32768), 1, 1);
+
+        assertThat(compactor.estimateTokens(system)).isEqualTo(10);
+        assertThat(compactor.getContextTokens("N2")).isEqualTo(32768);
+        assertThat(compactor.getContextTokens("N1")).isEqualTo(60);
+        assertThat(compactor.getContextTokens(null)).isEqualTo(60);
+
+        // Sixty tokens fit exactly, unless ten of them are reserved for the answer.
+        Prompt prompt = new Prompt(List.of(system, question1, answer1, question2, answer2, question3));
+        assertThat(compactor.compact(prompt, null)).isSameAs(prompt);
+        assertThat(compactor.compact(prompt, 10).getInstructions()).hasSize(4);
+        assertThat(compactor.getCompactions()).isEqualTo(1);
+        assertThat(compactor.getCompactedTokens()).isEqualTo(20);
+    }
+
+    @Test
+    void keepsTheSystemMessagesAndTheRecentTurns() {
+        HuaweiAiPanguHistoryCompactor compactor = compactor(40, 1);
+
+        Prompt compacted = compactor.compact(new Prompt(List.of(system, question1, answer1, question2, answer2, question3)), null);
+
+        assertThat(compacted.getInstructions()).containsExactly(system, question2, answer2, question3);
+        assertThat(compactor.getOverBudget()).isZero();
+    }
+
+    @Test
+    void dropOldestNeverSendsAnAnswerWithoutItsQuestion() {
+        List<Message> olderMessages = List.of(question1, answer1, question2, answer2);
+
+        // Thirty tokens would fit the first answer as well, but not its question.
+        List<Message> kept = HuaweiAiPanguHistoryCompactionPolicy.DROP_OLDEST.compact(olderMessages, 30, message -> 10);
+
+        assertThat(kept).containsExactly(question2, answer2);
+        assertThat(HuaweiAiPanguHistoryCompactionPolicy.DROP_OLDEST.compact(olderMessages, 0, message -> 10)).isEmpty();
+    }
+
+    @Test
+    void recordsHistoryThatCannotBeCompactedIntoTheBudget() {
+        Message longQuestion = new UserMessage("q".repeat(99));
+        HuaweiAiPanguHistoryCompactor compactor = compactor(50, 2);
+
+        // Fewer turns than are always kept: nothing to compact.
+        Prompt prompt = new Prompt(List.of(system, longQuestion));
+        assertThat(compactor.compact(prompt, null)).isSameAs(prompt);
+        assertThat(compactor.getOverBudget()).isEqualTo(1);
+        assertThat(compactor.getCompactions()).isZero();
+
+        // The recent turn alone exceeds the budget: the older turns are dropped, the request still goes out too large.
+        compactor = compactor(50, 1);
+        Prompt compacted = compactor.compact(new Prompt(List.of(system, question1, answer1, longQuestion)), null);
+        assertThat(compacted.getInstructions()).containsExactly(system, longQuestion);
+        assertThat(compactor.getOverBudget()).isEqualTo(1);
+        assertThat(compactor.getCompactions()).isEqualTo(1);
+    }
+
+    private static HuaweiAiPanguHistoryCompactor compactor(int maxContextTokens, int keepRecentTurns) {
+        return new HuaweiAiPanguHistoryCompactor(maxContextTokens, Map.of(), 1, keepRecentTurns);
+    }
+
+}
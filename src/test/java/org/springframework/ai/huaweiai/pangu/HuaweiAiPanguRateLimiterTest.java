@@ -0,0 +1,87 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HuaweiAiPanguRateLimiterTest {
+
+    private static final String TENANT = "tenant";
+
+    private static final String MODEL = "model";
+
+    @Test
+    void reservesTheEstimateAndCorrectsItWithTheActualUsage() {
+        HuaweiAiPanguRateLimiter rateLimiter = rateLimiter(0, 600, Duration.ofMillis(100));
+
+        // Reserves the whole minute, the call then used only 100 tokens and 500 are returned.
+        assertThat(rateLimiter.execute(TENANT, MODEL, 600, () -> "answer", answer -> 100)).isEqualTo("answer");
+        rateLimiter.execute(TENANT, MODEL, 400, () -> "answer", answer -> -1);
+
+        // 100 tokens left, a 200 token reservation would wait ten seconds.
+        assertThatThrownBy(() -> rateLimiter.execute(TENANT, MODEL, 200, () -> "answer", answer -> -1))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(rateLimiter.execute(TENANT, MODEL, 100, () -> "answer", answer -> -1)).isEqualTo("answer");
+    }
+
+    @Test
+    void usageBeyondTheReservationLeavesADebtLaterRequestsWaitFor() {
+        HuaweiAiPanguRateLimiter rateLimiter = rateLimiter(0, 6000, Duration.ofSeconds(5));
+        rateLimiter.execute(TENANT, MODEL, 6000, () -> "answer", answer -> 6050);
+
+        long startNanos = System.nanoTime();
+        rateLimiter.execute(TENANT, MODEL, 0, () -> "answer", answer -> -1);
+
+        // 50 tokens of debt refill at 100 tokens per second.
+        assertThat(System.nanoTime() - startNanos).isBetween(TimeUnit.MILLISECONDS.toNanos(400), TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void throttlingDrainsTheBucketsOtherFailuresReturnTheReservation() {
+        HuaweiAiPanguRateLimiter rateLimiter = rateLimiter(600, 6000, Duration.ZERO);
+
+        assertThatThrownBy(() -> rateLimiter.execute(TENANT, MODEL, 6000, () -> {
+            throw new IllegalStateException("Service Unavailable");
+        }, answer -> -1)).isInstanceOf(IllegalStateException.class);
+        rateLimiter.execute(TENANT, MODEL, 6000, () -> "answer", answer -> 6000);
+
+        assertThatThrownBy(() -> rateLimiter.execute(TENANT, MODEL, 0, () -> {
+            throw new PanguDevSDKException("Request failed with status code: 429");
+        }, answer -> -1)).isInstanceOf(PanguDevSDKException.class);
+
+        // The request bucket had hundreds of requests left, after the 429 none is available.
+        assertThatThrownBy(() -> rateLimiter.execute(TENANT, MODEL, 0, () -> "answer", answer -> -1))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void streamsAreChargedForTheAnswerTheyRead() {
+        HuaweiAiPanguRateLimiter rateLimiter = rateLimiter(0, 600, Duration.ofMillis(100));
+
+        // Broke off after reading part of the answer: the prompt and the partial answer are charged.
+        assertThatThrownBy(() -> rateLimiter.run(TENANT, MODEL, 100, () -> {
+            throw new IllegalStateException("Stream broke off");
+        }, () -> 300)).isInstanceOf(IllegalStateException.class);
+        // Failed before any answer: the reservation is returned.
+        assertThatThrownBy(() -> rateLimiter.run(TENANT, MODEL, 100, () -> {
+            throw new IllegalStateException("Connection refused");
+        }, () -> -1)).isInstanceOf(IllegalStateException.class);
+        rateLimiter.run(TENANT, MODEL, 100, () -> { }, () -> 100);
+
+        // 200 tokens left.
+        assertThatThrownBy(() -> rateLimiter.execute(TENANT, MODEL, 300, () -> "answer", answer -> -1))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(rateLimiter.execute(TENANT, MODEL, 200, () -> "answer", answer -> -1)).isEqualTo("answer");
+    }
+
+    private static HuaweiAiPanguRateLimiter rateLimiter(int requestsPerMinute, long tokensPerMinute, Duration maxWait) {
+        return new HuaweiAiPanguRateLimiter("chat", requestsPerMinute, tokensPerMinute, 1.5, maxWait, 1000, Duration.ofMinutes(30));
+    }
+
+}
@@ -0,0 +1,161 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HuaweiAiPanguRequestCoalescerTest {
+
+    private static final String KEY = "tenant\u0000endpoint\u0000user:What is Pangu?";
+
+    private static final int CALLERS = 8;
+
+    private final HuaweiAiPanguRequestCoalescer coalescer = new HuaweiAiPanguRequestCoalescer(true);
+
+    @Test
+    void concurrentIdenticalCallsShareOneUpstreamCall() throws Exception {
+        ChatResponse response = response("Pangu is a family of models.");
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        List<Object> results = this.executeConcurrently(release -> () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            return response;
+        });
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result).isSameAs(response));
+        assertThat(coalescer.getLeaders()).isEqualTo(1);
+        assertThat(coalescer.getFollowers()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareTheUpstreamFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Service Unavailable");
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        List<Object> results = this.executeConcurrently(release -> () -> {
+            upstreamCalls.incrementAndGet();
+            await(release);
+            throw failure;
+        });
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result).isSameAs(failure));
+    }
+
+    @Test
+    void lateStreamSubscribersReplayTheAnswerSoFar() {
+        Sinks.Many<ChatResponse> upstream = Sinks.many().multicast().onBackpressureBuffer();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Supplier<Flux<ChatResponse>> stream = () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asFlux();
+        };
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> late = new CopyOnWriteArrayList<>();
+
+        coalescer.stream(KEY, stream).map(HuaweiAiPanguRequestCoalescerTest::content).subscribe(first::add);
+        upstream.tryEmitNext(response("Pangu "));
+        upstream.tryEmitNext(response("is "));
+        coalescer.stream(KEY, stream).map(HuaweiAiPanguRequestCoalescerTest::content).subscribe(late::add);
+        upstream.tryEmitNext(response("a model."));
+        upstream.tryEmitComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first).containsExactly("Pangu ", "is ", "a model.");
+        assertThat(late).containsExactly("Pangu ", "is ", "a model.");
+        assertThat(coalescer.getStreamLeaders()).isEqualTo(1);
+        assertThat(coalescer.getStreamFollowers()).isEqualTo(1);
+    }
+
+    @Test
+    void lastCancellationCancelsTheUpstreamStream() {
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Supplier<Flux<ChatResponse>> stream = () -> {
+            upstreamCalls.incrementAndGet();
+            return Flux.<ChatResponse>never().doOnCancel(() -> upstreamCancelled.set(true));
+        };
+
+        Disposable first = coalescer.stream(KEY, stream).subscribe();
+        Disposable second = coalescer.stream(KEY, stream).subscribe();
+        first.dispose();
+        assertThat(upstreamCancelled).isFalse();
+        second.dispose();
+        assertThat(upstreamCancelled).isTrue();
+
+        // The cancelled stream is no longer shared, the next request asks the model again.
+        coalescer.stream(KEY, stream).subscribe().dispose();
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Run identical calls on concurrent threads, release the upstream call once every caller joined.
+     * @return the response or exception each caller got
+     */
+    private List<Object> executeConcurrently(Function<CountDownLatch, Supplier<ChatResponse>> call) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ChatResponse> upstream = call.apply(release);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return coalescer.execute(KEY, upstream);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalescer.getLeaders() + coalescer.getFollowers() < CALLERS && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ChatResponse response(String content) {
+        return new ChatResponse(List.of(new Generation(content)));
+    }
+
+    private static String content(ChatResponse response) {
+        return response.getResult().getOutput().getContent();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
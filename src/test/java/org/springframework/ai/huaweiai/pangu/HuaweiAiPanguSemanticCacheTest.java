@@ -0,0 +1,107 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HuaweiAiPanguSemanticCacheTest {
+
+    private static final String TENANT = "tenant";
+
+    private final float[] embedded = {3f, 4f};
+
+    private HuaweiAiPanguSemanticCache semanticCache;
+
+    @BeforeEach
+    void setUp() {
+        HuaweiAiPanguEmbeddingClient embeddingClient = mock(HuaweiAiPanguEmbeddingClient.class);
+        when(embeddingClient.embedToFloatArrays(anyList())).thenAnswer(invocation -> new float[][]{embedded});
+        semanticCache = new HuaweiAiPanguSemanticCache(embeddingClient, 0.92f, 1000, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void hitsForTheSameQuestionSystemMessageAndOptions() {
+        Prompt prompt = prompt("You are terse.", "What is Pangu?");
+        cache(TENANT, prompt, options(0.2f, 100));
+
+        HuaweiAiPanguSemanticCache.Lookup lookup = semanticCache.lookup(TENANT, prompt, options(0.2f, 100));
+
+        assertThat(lookup.isHit()).isTrue();
+    }
+
+    @Test
+    void missesForAnotherSystemMessage() {
+        cache(TENANT, prompt("You are terse.", "What is Pangu?"), options(0.2f, 100));
+
+        assertThat(semanticCache.lookup(TENANT, prompt("Answer in French.", "What is Pangu?"), options(0.2f, 100)).isHit()).isFalse();
+    }
+
+    @Test
+    void missesForOtherGenerationOptions() {
+        Prompt prompt = prompt("You are terse.", "What is Pangu?");
+        cache(TENANT, prompt, options(0.2f, 100));
+
+        assertThat(semanticCache.lookup(TENANT, prompt, options(0.9f, 100)).isHit()).isFalse();
+        assertThat(semanticCache.lookup(TENANT, prompt, options(0.2f, 2000)).isHit()).isFalse();
+    }
+
+    @Test
+    void missesForAnotherTenant() {
+        Prompt prompt = prompt("You are terse.", "What is Pangu?");
+        cache(TENANT, prompt, options(0.2f, 100));
+
+        assertThat(semanticCache.lookup("other", prompt, options(0.2f, 100)).isHit()).isFalse();
+    }
+
+    @Test
+    void partitionsOfATenantShareItsEntryLimit() {
+        HuaweiAiPanguEmbeddingClient embeddingClient = mock(HuaweiAiPanguEmbeddingClient.class);
+        when(embeddingClient.embedToFloatArrays(anyList())).thenAnswer(invocation -> new float[][]{embedded});
+        semanticCache = new HuaweiAiPanguSemanticCache(embeddingClient, 0.92f, 2, 100, Duration.ofHours(1));
+        cache(TENANT, prompt("You are terse.", "What is Pangu?"), options(0.2f, 100));
+        cache(TENANT, prompt("Answer in French.", "What is Pangu?"), options(0.2f, 100));
+        cache(TENANT, prompt("Answer in German.", "What is Pangu?"), options(0.2f, 100));
+        cache("other", prompt("You are terse.", "What is Pangu?"), options(0.2f, 100));
+
+        assertThat(semanticCache.lookup(TENANT, prompt("You are terse.", "What is Pangu?"), options(0.2f, 100)).isHit()).isFalse();
+        assertThat(semanticCache.lookup(TENANT, prompt("Answer in French.", "What is Pangu?"), options(0.2f, 100)).isHit()).isTrue();
+        assertThat(semanticCache.lookup(TENANT, prompt("Answer in German.", "What is Pangu?"), options(0.2f, 100)).isHit()).isTrue();
+        assertThat(semanticCache.lookup("other", prompt("You are terse.", "What is Pangu?"), options(0.2f, 100)).isHit()).isTrue();
+    }
+
+    @Test
+    void normalizesACopyOfTheEmbeddedVector() {
+        HuaweiAiPanguSemanticCache.Lookup lookup = semanticCache.lookup(TENANT, prompt("You are terse.", "What is Pangu?"), options(0.2f, 100));
+
+        assertThat(embedded).containsExactly(3f, 4f);
+        assertThat(lookup.vector()).containsExactly(new float[]{0.6f, 0.8f}, within(1e-6f));
+    }
+
+    private void cache(String tenantKey, Prompt prompt, HuaweiAiPanguChatOptions options) {
+        HuaweiAiPanguSemanticCache.Lookup lookup = semanticCache.lookup(tenantKey, prompt, options);
+        assertThat(lookup.isHit()).isFalse();
+        semanticCache.put(lookup, new ChatResponse(List.of(new Generation("Pangu is a family of models."))));
+    }
+
+    private static Prompt prompt(String system, String question) {
+        return new Prompt(List.of(new SystemMessage(system), new UserMessage(question)));
+    }
+
+    private static HuaweiAiPanguChatOptions options(float temperature, int maxTokens) {
+        return HuaweiAiPanguChatOptions.builder().withTemperature(temperature).withMaxToken(maxTokens).build();
+    }
+
+}
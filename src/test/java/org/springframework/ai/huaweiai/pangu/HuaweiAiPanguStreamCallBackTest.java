@@ -0,0 +1,183 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
+import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.ai.chat.ChatResponse;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HuaweiAiPanguStreamCallBackTest {
+
+    private final List<Throwable> droppedErrors = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean aborted = new AtomicBoolean();
+
+    private final AtomicBoolean tokenAfterAbortFailed = new AtomicBoolean();
+
+    private final CountDownLatch producerDone = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        Hooks.onErrorDropped(droppedErrors::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Hooks.resetOnErrorDropped();
+    }
+
+    @Test
+    void cancellationAbortsTheCallWithoutErrors() throws Exception {
+        HuaweiAiPanguStreamExecutor executor = new HuaweiAiPanguStreamExecutor(Schedulers.boundedElastic(), false);
+        CountDownLatch firstToken = new CountDownLatch(1);
+        List<ChatResponse> received = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = executor.execute("tenant", null, callBack -> this.produce(callBack, () -> {
+            callBack.onNewToken("id", token("t0"));
+            firstToken.countDown();
+            // Blocks like the SDK reading the HTTP stream until the call is aborted.
+            new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+        })).subscribe(received::add, errors::add);
+        assertThat(firstToken.await(5, TimeUnit.SECONDS)).isTrue();
+        subscription.dispose();
+
+        assertThat(producerDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(aborted).isTrue();
+        assertThat(tokenAfterAbortFailed).isTrue();
+        assertThat(received).hasSize(1);
+        assertThat(errors).isEmpty();
+        assertThat(droppedErrors).isEmpty();
+    }
+
+    @Test
+    void overflowSignalsOneErrorAndAbortsTheCall() throws Exception {
+        HuaweiAiPanguStreamExecutor executor = new HuaweiAiPanguStreamExecutor(Schedulers.boundedElastic(), false,
+                2, HuaweiAiPanguStreamOverflowStrategy.ERROR);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch terminated = new CountDownLatch(1);
+
+        executor.execute("tenant", null, callBack -> this.produce(callBack, () -> {
+            for (int i = 0; i < 100 && !Thread.currentThread().isInterrupted(); i++) {
+                callBack.onNewToken("id", token("t" + i));
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        })).subscribe(new BaseSubscriber<>() {
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // No demand, so the buffer fills up.
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                errors.add(throwable);
+                terminated.countDown();
+            }
+
+        });
+
+        assertThat(terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(producerDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(aborted).isTrue();
+        assertThat(tokenAfterAbortFailed).isTrue();
+        assertThat(errors).hasSize(1);
+        assertThat(Exceptions.isOverflow(errors.get(0))).isTrue();
+        assertThat(droppedErrors).isEmpty();
+    }
+
+    @Test
+    void cancellationUnwindsAReadThatIgnoresInterrupts() throws Exception {
+        HuaweiAiPanguStreamExecutor executor = new HuaweiAiPanguStreamExecutor(Schedulers.boundedElastic(), false);
+        CountDownLatch firstToken = new CountDownLatch(1);
+        AtomicInteger tokensRead = new AtomicInteger();
+        AtomicInteger tokensReadAfterCancel = new AtomicInteger();
+        AtomicBoolean cancelRequested = new AtomicBoolean();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = executor.execute("tenant", null, callBack -> {
+            try {
+                // Like a classic socket read: the interrupt neither wakes nor ends the loop, only a failing callback does.
+                for (int i = 0; i < 1000; i++) {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+                    while (System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    if (cancelRequested.get()) {
+                        tokensReadAfterCancel.incrementAndGet();
+                    }
+                    tokensRead.incrementAndGet();
+                    callBack.onNewToken("id", token("t" + i));
+                    firstToken.countDown();
+                }
+                callBack.onEnd("id", null, token(""));
+            } finally {
+                producerDone.countDown();
+            }
+        }).subscribe(response -> { }, errors::add);
+        assertThat(firstToken.await(5, TimeUnit.SECONDS)).isTrue();
+        cancelRequested.set(true);
+        subscription.dispose();
+
+        assertThat(producerDone.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(tokensRead.get()).isLessThan(1000);
+        assertThat(tokensReadAfterCancel.get()).isLessThanOrEqualTo(1);
+        assertThat(errors).isEmpty();
+        assertThat(droppedErrors).isEmpty();
+    }
+
+    /**
+     * Mimic the SDK: an interrupted read delivers one more token, reports the error to the callback and fails the call.
+     */
+    private void produce(HuaweiAiPanguStreamCallBack callBack, InterruptibleCall call) {
+        try {
+            call.run();
+            callBack.onEnd("id", null, token(""));
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            try {
+                callBack.onNewToken("id", token("late"));
+            } catch (RuntimeException tokenError) {
+                tokenAfterAbortFailed.set(true);
+            }
+            callBack.onError("id", null);
+            throw new PanguDevSDKException("Stream read interrupted");
+        } finally {
+            producerDone.countDown();
+        }
+    }
+
+    private static LLMResp token(String answer) {
+        LLMResp llmResp = mock(LLMResp.class);
+        when(llmResp.getAnswer()).thenReturn(answer);
+        return llmResp;
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleCall {
+
+        void run() throws InterruptedException;
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.springframework.ai.huaweiai.pangu;
+
+import com.huaweicloud.pangu.dev.sdk.api.llms.response.LLMResp;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.ChatResponse;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HuaweiAiPanguStreamExecutorTest {
+
+    @Test
+    void rejectsStreamsBeyondTheQueueDepthOfAllThreads() throws Exception {
+        // One thread with a large per-thread queue, the executor bound must apply anyway.
+        try (HuaweiAiPanguStreamExecutor executor = new HuaweiAiPanguStreamExecutor(
+                Schedulers.newBoundedElastic(1, 100, "stream-executor-test"), true)) {
+            executor.setQueueDepth(1);
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<ChatResponse> received = new CopyOnWriteArrayList<>();
+
+            executor.execute("tenant", null, callBack -> {
+                running.countDown();
+                await(release);
+                callBack.onEnd("id", null, token("first"));
+            }).subscribe(received::add);
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute("tenant", null, callBack -> callBack.onEnd("id", null, token("second"))).subscribe(received::add);
+            assertThat(executor.getPendingStreams()).isEqualTo(1);
+
+            assertThatThrownBy(() -> executor.execute("tenant", null, callBack -> callBack.onEnd("id", null, token("third"))).blockLast())
+                    .isInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getRejectedStreams()).isEqualTo(1);
+
+            release.countDown();
+            executor.execute("tenant", null, callBack -> callBack.onEnd("id", null, token("fourth"))).blockLast();
+            assertThat(executor.getPendingStreams()).isZero();
+            assertThat(executor.getStartedStreams()).isEqualTo(3);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LLMResp token(String answer) {
+        LLMResp llmResp = mock(LLMResp.class);
+        when(llmResp.getAnswer()).thenReturn(answer);
+        return llmResp;
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.springframework.ai.huaweiai.pangu.load;
+
+import java.util.Arrays;
+
+/**
+ * 单线程延迟记录器，每个压测线程独占一个实例，结束后合并计算分位数。
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int size;
+    private long errors;
+
+    void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    static Summary summarize(Iterable<LatencyRecorder> recorders, long elapsedNanos) {
+        int total = 0;
+        long errors = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.size;
+            errors += recorder.errors;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(merged);
+        double seconds = elapsedNanos / 1_000_000_000d;
+        return new Summary(total, errors, total / seconds,
+                percentile(merged, 0.50), percentile(merged, 0.99), percentile(merged, 0.999),
+                total == 0 ? 0 : merged[total - 1]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(long requests, long errors, double throughput, long p50, long p99, long p999, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                    requests, errors, throughput, p50 / 1e6, p99 / 1e6, p999 / 1e6, max / 1e6);
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package org.springframework.ai.huaweiai.pangu.load;
+
+import com.huaweicloud.pangu.dev.sdk.api.config.IAMConfig;
+import com.huaweicloud.pangu.dev.sdk.api.embedings.Embeddings;
+import com.huaweicloud.pangu.dev.sdk.api.embedings.config.EmbeddingConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMModuleConfig;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguCachedChatClient;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatClient;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatOptions;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguEmbeddingClient;
+import org.springframework.ai.huaweiai.pangu.util.ApiUtils;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 离线压测：在本地 {@link PanguStubServer} 上以固定并发驱动聊天、缓存聊天与向量客户端，输出吞吐与 p50/p99/p999 延迟。
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.springframework.ai.huaweiai.pangu.load.PanguLoadHarness \
+ *     -Dpangu.load.client=chat -Dpangu.load.mode=stream -Dpangu.load.concurrency=64 \
+ *     -Dpangu.stub.latency-median=PT0.05S -Dpangu.stub.throttle-rate=0.01
+ * </pre>
+ * 桩服务参数见 {@link StubOptions}，压测参数使用 {@code pangu.load.*} 系统属性：
+ * client（chat、cached、embedding）、mode（call、stream）、concurrency、warmup、duration、embedding-batch、max-attempts。
+ */
+public class PanguLoadHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(PanguLoadHarness.class);
+
+    private static final String PREFIX = "pangu.load.";
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        String client = System.getProperty(PREFIX + "client", "chat");
+        boolean stream = "stream".equals(System.getProperty(PREFIX + "mode", "call"));
+        int concurrency = Integer.getInteger(PREFIX + "concurrency", 16);
+        Duration warmup = Duration.parse(System.getProperty(PREFIX + "warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty(PREFIX + "duration", "PT60S"));
+        int embeddingBatch = Integer.getInteger(PREFIX + "embedding-batch", 16);
+        int maxAttempts = Integer.getInteger(PREFIX + "max-attempts", 3);
+
+        try (PanguStubServer stub = new PanguStubServer(StubOptions.fromSystemProperties()).start()) {
+            RetryTemplate retryTemplate = RetryTemplate.builder()
+                    .maxAttempts(maxAttempts)
+                    .exponentialBackoff(100, 2, 2000)
+                    .build();
+            Runnable operation = switch (client) {
+                case "chat" -> chatOperation(new HuaweiAiPanguChatClient(new PanguClient(llmConfig(stub)),
+                        defaultOptions(), retryTemplate), stream);
+                case "cached" -> chatOperation(new HuaweiAiPanguCachedChatClient(llmConfig(stub),
+                        defaultOptions(), retryTemplate), stream);
+                case "embedding" -> embeddingOperation(new HuaweiAiPanguEmbeddingClient(new PanguClient(embeddingConfig(stub))), embeddingBatch);
+                default -> throw new IllegalArgumentException("Unsupported client: " + client);
+            };
+
+            log.info("Warming up {} ({}) with concurrency {} for {}", client, stream ? "stream" : "call", concurrency, warmup);
+            run(operation, concurrency, warmup);
+            log.info("Measuring for {}", duration);
+            long stubRequests = stub.getRequests();
+            LatencyRecorder.Summary summary = run(operation, concurrency, duration);
+            log.info("{} ({}) concurrency={}: {}", client, stream ? "stream" : "call", concurrency, summary);
+            log.info("Stub: requests={} injectedErrors={} injectedStalls={}",
+                    stub.getRequests() - stubRequests, stub.getInjectedErrors(), stub.getInjectedStalls());
+        }
+    }
+
+    static LatencyRecorder.Summary run(Runnable operation, int concurrency, Duration duration) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "pangu-load-" + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<LatencyRecorder> recorders = new ArrayList<>(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            operation.run();
+                            recorder.record(System.nanoTime() - begin);
+                        } catch (RuntimeException e) {
+                            recorder.recordError();
+                            log.debug("Load request failed: {}", e.getMessage());
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        return LatencyRecorder.summarize(recorders, elapsed);
+    }
+
+    private static <T extends ChatClient & StreamingChatClient> Runnable chatOperation(T chatClient, boolean stream) {
+        AtomicInteger sequence = new AtomicInteger();
+        return () -> {
+            // Distinct prompts, so response caches do not short-circuit the measurement.
+            Prompt prompt = new Prompt("Load test question #" + sequence.incrementAndGet());
+            if (stream) {
+                chatClient.stream(prompt).blockLast();
+            } else {
+                chatClient.call(prompt);
+            }
+        };
+    }
+
+    private static Runnable embeddingOperation(HuaweiAiPanguEmbeddingClient embeddingClient, int batchSize) {
+        AtomicInteger sequence = new AtomicInteger();
+        return () -> {
+            List<String> texts = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                texts.add("Load test document #" + sequence.incrementAndGet());
+            }
+            embeddingClient.embed(texts);
+        };
+    }
+
+    private static HuaweiAiPanguChatOptions defaultOptions() {
+        return HuaweiAiPanguChatOptions.builder()
+                .withTemperature(ApiUtils.DEFAULT_TEMPERATURE)
+                .withTopP(ApiUtils.DEFAULT_TOP_P)
+                .build();
+    }
+
+    private static IAMConfig iamConfig(PanguStubServer stub) {
+        return IAMConfig.builder()
+                .iamUrl(stub.getIamUrl())
+                .iamDomain("stub-domain")
+                .iamUser("stub-user")
+                .iamPwd("stub-password")
+                .projectName("stub-project")
+                .build();
+    }
+
+    private static LLMConfig llmConfig(PanguStubServer stub) {
+        LLMConfig llmConfig = LLMConfig.builder()
+                .iamConfig(iamConfig(stub))
+                .build();
+        llmConfig.setLlmModuleConfig(LLMModuleConfig.builder()
+                .url(stub.getChatUrl())
+                .moduleVersion("stub")
+                .build());
+        llmConfig.setLlmParamConfig(ApiUtils.toLLMParamConfig(defaultOptions()));
+        return llmConfig;
+    }
+
+    private static EmbeddingConfig embeddingConfig(PanguStubServer stub) {
+        return EmbeddingConfig.builder()
+                .url(stub.getEmbeddingUrl())
+                .embeddingName(Embeddings.PANGU)
+                .iamConfig(iamConfig(stub))
+                .build();
+    }
+
+}
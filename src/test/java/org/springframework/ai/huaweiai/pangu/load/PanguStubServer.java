@@ -0,0 +1,272 @@
+package org.springframework.ai.huaweiai.pangu.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地盘古桩服务：模拟 IAM 令牌、对话（含 SSE 流式）与向量接口，用于离线压测，不消耗云端 token。
+ * <ul>
+ *     <li>{@code POST .../auth/tokens}：返回 {@code X-Subject-Token} 响应头</li>
+ *     <li>路径包含 {@code embedding}：按请求的 input 数量返回随机向量</li>
+ *     <li>其他路径：对话接口，请求体 {@code stream=true} 时按 token 速率输出 SSE</li>
+ * </ul>
+ * 响应延迟服从对数正态分布，可按比例注入 429/5xx 错误与流式中途停顿。
+ */
+public class PanguStubServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PanguStubServer.class);
+
+    private final StubOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedStalls = new LongAdder();
+
+    public PanguStubServer(StubOptions options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.getPort()), options.getBacklog());
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public PanguStubServer start() {
+        server.start();
+        log.info("Pangu stub server listening on {}", getBaseUrl());
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getIamUrl() {
+        return getBaseUrl() + "/v3/auth/tokens";
+    }
+
+    public String getChatUrl() {
+        return getBaseUrl() + "/v1/stub-project/deployments/stub-chat";
+    }
+
+    public String getEmbeddingUrl() {
+        return getBaseUrl() + "/v1/stub-project/deployments/stub-embedding";
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public long getInjectedStalls() {
+        return injectedStalls.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            JsonNode body = readBody(exchange.getRequestBody());
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/auth/tokens")) {
+                handleToken(exchange);
+                return;
+            }
+            sleep(sampleLatency());
+            if (injectError(exchange)) {
+                return;
+            }
+            if (path.contains("embedding")) {
+                handleEmbedding(exchange, body);
+            } else if (body.path("stream").asBoolean(false)) {
+                handleStream(exchange);
+            } else {
+                handleChat(exchange);
+            }
+        } catch (IOException e) {
+            // The client went away, typically a cancelled stream.
+            log.debug("Stub exchange aborted: {}", e.getMessage());
+        }
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        ObjectNode token = objectMapper.createObjectNode();
+        token.putObject("token").put("expires_at", Instant.now().plus(Duration.ofHours(24)).toString());
+        exchange.getResponseHeaders().add("X-Subject-Token", "stub-token-" + UUID.randomUUID());
+        writeJson(exchange, 201, token);
+    }
+
+    private void handleChat(HttpExchange exchange) throws IOException {
+        int tokens = options.getCompletionTokens();
+        // Non-streaming responses still take as long as generating every token.
+        sleep(generationNanos(tokens));
+        ObjectNode resp = newChatChunk(answer(tokens));
+        resp.set("usage", usage(tokens));
+        writeJson(exchange, 200, resp);
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream;charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0);
+        int tokens = options.getCompletionTokens();
+        int stallAt = ThreadLocalRandom.current().nextDouble() < options.getStallRate()
+                ? ThreadLocalRandom.current().nextInt(tokens) : -1;
+        OutputStream out = exchange.getResponseBody();
+        for (int i = 0; i < tokens; i++) {
+            if (i == stallAt) {
+                injectedStalls.increment();
+                sleep(options.getStallDuration().toNanos());
+            }
+            sleep(generationNanos(1));
+            ObjectNode chunk = newChatChunk("tok" + i + " ");
+            if (i == tokens - 1) {
+                chunk.set("usage", usage(tokens));
+            }
+            out.write(("data:" + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        out.write("data:[DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void handleEmbedding(HttpExchange exchange, JsonNode body) throws IOException {
+        JsonNode input = body.path("input");
+        int count = input.isArray() ? input.size() : 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode resp = objectMapper.createObjectNode();
+        resp.put("id", UUID.randomUUID().toString());
+        resp.put("created", System.currentTimeMillis() / 1000);
+        ArrayNode data = resp.putArray("data");
+        for (int i = 0; i < count; i++) {
+            ObjectNode item = data.addObject();
+            item.put("index", i);
+            item.put("object", "embedding");
+            ArrayNode embedding = item.putArray("embedding");
+            for (int j = 0; j < options.getDimensions(); j++) {
+                embedding.add(random.nextFloat());
+            }
+        }
+        resp.set("usage", usage(count * 16));
+        writeJson(exchange, 200, resp);
+    }
+
+    private boolean injectError(HttpExchange exchange) throws IOException {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        int status;
+        if (roll < options.getThrottleRate()) {
+            status = 429;
+        } else if (roll < options.getThrottleRate() + options.getServerErrorRate()) {
+            status = 500 + ThreadLocalRandom.current().nextInt(4);
+        } else {
+            return false;
+        }
+        injectedErrors.increment();
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("error_code", status == 429 ? "PANGU.0429" : "PANGU.0500");
+        error.put("error_msg", "Injected by PanguStubServer");
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+        }
+        writeJson(exchange, status, error);
+        return true;
+    }
+
+    private ObjectNode newChatChunk(String content) {
+        ObjectNode resp = objectMapper.createObjectNode();
+        resp.put("id", UUID.randomUUID().toString());
+        resp.put("created", System.currentTimeMillis() / 1000);
+        ObjectNode choice = resp.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        return resp;
+    }
+
+    private ObjectNode usage(int completionTokens) {
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", options.getPromptTokens());
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", options.getPromptTokens() + completionTokens);
+        return usage;
+    }
+
+    private String answer(int tokens) {
+        StringBuilder answer = new StringBuilder(tokens * 5);
+        for (int i = 0; i < tokens; i++) {
+            answer.append("tok").append(i).append(' ');
+        }
+        return answer.toString();
+    }
+
+    private JsonNode readBody(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+    }
+
+    private void writeJson(HttpExchange exchange, int status, JsonNode json) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(json);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Log-normal latency around the configured median.
+     */
+    private long sampleLatency() {
+        double factor = Math.exp(options.getLatencySigma() * ThreadLocalRandom.current().nextGaussian());
+        return (long) (options.getLatencyMedian().toNanos() * factor);
+    }
+
+    private long generationNanos(int tokens) {
+        return options.getTokensPerSecond() <= 0 ? 0 : (long) (tokens * 1_000_000_000d / options.getTokensPerSecond());
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        PanguStubServer server = new PanguStubServer(StubOptions.fromSystemProperties()).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+
+}
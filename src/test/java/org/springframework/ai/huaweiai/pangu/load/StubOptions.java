@@ -0,0 +1,184 @@
+package org.springframework.ai.huaweiai.pangu.load;
+
+import java.time.Duration;
+
+/**
+ * 桩服务配置，可通过 {@code pangu.stub.*} 系统属性覆盖。
+ */
+public class StubOptions {
+
+    public static final String PREFIX = "pangu.stub.";
+
+    /**
+     * 监听端口，0 表示随机端口
+     */
+    private int port = 0;
+    /**
+     * 连接等待队列长度
+     */
+    private int backlog = 1024;
+    /**
+     * 首字节延迟的中位数
+     */
+    private Duration latencyMedian = Duration.ofMillis(50);
+    /**
+     * 对数正态分布的 sigma，越大长尾越明显
+     */
+    private double latencySigma = 0.5;
+    /**
+     * 每次回复生成的 token 数
+     */
+    private int completionTokens = 64;
+    /**
+     * 每次请求计入的提示词 token 数
+     */
+    private int promptTokens = 32;
+    /**
+     * token 生成速率（个/秒），小于等于 0 表示不限速
+     */
+    private double tokensPerSecond = 200;
+    /**
+     * 返回 429 的请求比例
+     */
+    private double throttleRate = 0;
+    /**
+     * 返回 5xx 的请求比例
+     */
+    private double serverErrorRate = 0;
+    /**
+     * 流式请求中途停顿的比例
+     */
+    private double stallRate = 0;
+    /**
+     * 流式停顿时长
+     */
+    private Duration stallDuration = Duration.ofSeconds(5);
+    /**
+     * 向量维度
+     */
+    private int dimensions = 1024;
+
+    public static StubOptions fromSystemProperties() {
+        StubOptions options = new StubOptions();
+        options.setPort(Integer.getInteger(PREFIX + "port", options.getPort()));
+        options.setBacklog(Integer.getInteger(PREFIX + "backlog", options.getBacklog()));
+        options.setLatencyMedian(duration("latency-median", options.getLatencyMedian()));
+        options.setLatencySigma(decimal("latency-sigma", options.getLatencySigma()));
+        options.setCompletionTokens(Integer.getInteger(PREFIX + "completion-tokens", options.getCompletionTokens()));
+        options.setPromptTokens(Integer.getInteger(PREFIX + "prompt-tokens", options.getPromptTokens()));
+        options.setTokensPerSecond(decimal("tokens-per-second", options.getTokensPerSecond()));
+        options.setThrottleRate(decimal("throttle-rate", options.getThrottleRate()));
+        options.setServerErrorRate(decimal("server-error-rate", options.getServerErrorRate()));
+        options.setStallRate(decimal("stall-rate", options.getStallRate()));
+        options.setStallDuration(duration("stall-duration", options.getStallDuration()));
+        options.setDimensions(Integer.getInteger(PREFIX + "dimensions", options.getDimensions()));
+        return options;
+    }
+
+    static Duration duration(String name, Duration defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        return value == null ? defaultValue : Duration.parse(value);
+    }
+
+    static double decimal(String name, double defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public Duration getLatencyMedian() {
+        return latencyMedian;
+    }
+
+    public void setLatencyMedian(Duration latencyMedian) {
+        this.latencyMedian = latencyMedian;
+    }
+
+    public double getLatencySigma() {
+        return latencySigma;
+    }
+
+    public void setLatencySigma(double latencySigma) {
+        this.latencySigma = latencySigma;
+    }
+
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(int promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    public void setTokensPerSecond(double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    public double getServerErrorRate() {
+        return serverErrorRate;
+    }
+
+    public void setServerErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    public double getStallRate() {
+        return stallRate;
+    }
+
+    public void setStallRate(double stallRate) {
+        this.stallRate = stallRate;
+    }
+
+    public Duration getStallDuration() {
+        return stallDuration;
+    }
+
+    public void setStallDuration(Duration stallDuration) {
+        this.stallDuration = stallDuration;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+}
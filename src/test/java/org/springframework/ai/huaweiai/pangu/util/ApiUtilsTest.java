@@ -0,0 +1,82 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import com.huaweicloud.pangu.dev.sdk.api.config.IAMConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMConfig;
+import com.huaweicloud.pangu.dev.sdk.api.llms.config.LLMModuleConfig;
+import com.huaweicloud.pangu.dev.sdk.client.pangu.PanguClient;
+import com.huaweicloud.pangu.dev.sdk.exception.PanguDevSDKException;
+import org.apache.http.client.HttpResponseException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.huaweiai.pangu.load.PanguStubServer;
+import org.springframework.ai.huaweiai.pangu.load.StubOptions;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiUtilsTest {
+
+    @Test
+    void throttledByHttpStatusCode() {
+        assertThat(ApiUtils.isThrottled(new IllegalStateException(new HttpResponseException(429, "Too Many Requests")))).isTrue();
+        assertThat(ApiUtils.isThrottled(new HttpResponseException(503, "Service Unavailable, retry after 429 ms"))).isFalse();
+    }
+
+    @Test
+    void throttledBySdkErrorStatus() {
+        assertThat(ApiUtils.isThrottled(new PanguDevSDKException("Request failed with status code: 429"))).isTrue();
+        assertThat(ApiUtils.isThrottled(new PanguDevSDKException("{\"error_code\":\"PANGU.0429\",\"error_msg\":\"busy\"}"))).isTrue();
+    }
+
+    @Test
+    void throttledByTheSdkCallingAThrottlingServer() throws Exception {
+        StubOptions options = new StubOptions();
+        options.setLatencyMedian(Duration.ofMillis(1));
+        options.setThrottleRate(1);
+        try (PanguStubServer stub = new PanguStubServer(options).start()) {
+            PanguClient panguClient = new PanguClient(llmConfig(stub));
+
+            assertThatThrownBy(() -> panguClient.createChat("hello"))
+                    .satisfies(e -> assertThat(ApiUtils.isThrottled(e)).isTrue());
+        }
+    }
+
+    @Test
+    void notThrottledByTheSdkCallingAFailingServer() throws Exception {
+        StubOptions options = new StubOptions();
+        options.setLatencyMedian(Duration.ofMillis(1));
+        options.setServerErrorRate(1);
+        try (PanguStubServer stub = new PanguStubServer(options).start()) {
+            PanguClient panguClient = new PanguClient(llmConfig(stub));
+
+            assertThatThrownBy(() -> panguClient.createChat("hello"))
+                    .satisfies(e -> assertThat(ApiUtils.isThrottled(e)).isFalse());
+        }
+    }
+
+    @Test
+    void notThrottledByOtherNumbers() {
+        assertThat(ApiUtils.isThrottled(new PanguDevSDKException("Prompt of 4290 tokens exceeds the limit"))).isFalse();
+        assertThat(ApiUtils.isThrottled(new PanguDevSDKException("Request 429 failed with status code: 500"))).isFalse();
+        assertThat(ApiUtils.isThrottled(new IllegalArgumentException("status code: 429"))).isFalse();
+    }
+
+    private static LLMConfig llmConfig(PanguStubServer stub) {
+        LLMConfig llmConfig = LLMConfig.builder()
+                .iamConfig(IAMConfig.builder()
+                        .iamUrl(stub.getIamUrl())
+                        .iamDomain("stub-domain")
+                        .iamUser("stub-user")
+                        .iamPwd("stub-password")
+                        .projectName("stub-project")
+                        .build())
+                .build();
+        llmConfig.setLlmModuleConfig(LLMModuleConfig.builder()
+                .url(stub.getChatUrl())
+                .moduleVersion("stub")
+                .build());
+        return llmConfig;
+    }
+
+}
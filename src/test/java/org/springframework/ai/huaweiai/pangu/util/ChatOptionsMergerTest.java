@@ -0,0 +1,46 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.huaweiai.pangu.HuaweiAiPanguChatOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatOptionsMergerTest {
+
+    @Test
+    void mergeResultsCannotCorruptLaterMerges() {
+        List<String> stop = new ArrayList<>(List.of("</s>"));
+        HuaweiAiPanguChatOptions defaultOptions = HuaweiAiPanguChatOptions.builder().withTemperature(0.5f).withStop(stop).build();
+        ChatOptionsMerger merger = new ChatOptionsMerger(defaultOptions);
+
+        HuaweiAiPanguChatOptions first = merger.merge(null, false);
+        first.setTemperature(1.0f);
+        assertThatThrownBy(() -> first.getStop().add("###")).isInstanceOf(UnsupportedOperationException.class);
+        stop.add("###");
+
+        HuaweiAiPanguChatOptions second = merger.merge(null, false);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTemperature()).isEqualTo(0.5f);
+        assertThat(second.getStop()).containsExactly("</s>");
+        assertThat(merger.merge(null, true).getStream()).isTrue();
+    }
+
+    @Test
+    void runtimeOptionsOverrideTheDefaults() {
+        ChatOptionsMerger merger = new ChatOptionsMerger(HuaweiAiPanguChatOptions.builder().withTemperature(0.5f).withMaxToken(512).build());
+        List<String> stop = new ArrayList<>(List.of("</s>"));
+
+        HuaweiAiPanguChatOptions merged = merger.merge(HuaweiAiPanguChatOptions.builder().withTemperature(0.9f).withStop(stop).build(), true);
+        stop.clear();
+
+        assertThat(merged.getTemperature()).isEqualTo(0.9f);
+        assertThat(merged.getMaxTokens()).isEqualTo(512);
+        assertThat(merged.getStop()).containsExactly("</s>");
+        assertThat(merged.getStream()).isTrue();
+    }
+
+}
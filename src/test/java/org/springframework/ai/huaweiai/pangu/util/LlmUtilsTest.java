@@ -0,0 +1,21 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmUtilsTest {
+
+    @Test
+    void redactsKeysWithoutHashCodeCollisions() {
+        String key = "ak\u0000sk\u0000project";
+
+        assertThat(LlmUtils.redactKey(key)).matches("[0-9a-f]{16}").isEqualTo(LlmUtils.redactKey(key));
+        // Same String#hashCode, different tenants.
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(LlmUtils.redactKey("Aa")).isNotEqualTo(LlmUtils.redactKey("BB"));
+        assertThat(LlmUtils.redactKey(null)).isEqualTo(LlmUtils.DEFAULT_TENANT_KEY);
+        assertThat(LlmUtils.redactKey(LlmUtils.DEFAULT_TENANT_KEY)).isEqualTo(LlmUtils.DEFAULT_TENANT_KEY);
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.springframework.ai.huaweiai.pangu.util;
+
+import com.huaweicloud.pangu.dev.sdk.llms.module.Pangu;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class PanguLlmPoolTest {
+
+    @Test
+    void rejectsBorrowWhenMaxTotalIsReachedAfterWaiting() {
+        PanguLlmPool pool = new PanguLlmPool(() -> mock(Pangu.class), 1, 2, Duration.ofMillis(50));
+        pool.borrow();
+        pool.borrow();
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(RejectedExecutionException.class);
+        assertThat(pool.getBorrowedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingBorrowGetsTheReleasedInstance() throws Exception {
+        PanguLlmPool pool = new PanguLlmPool(() -> mock(Pangu.class), 1, 1, Duration.ofSeconds(5));
+        Pangu llm = pool.borrow();
+
+        CompletableFuture<Pangu> waiting = CompletableFuture.supplyAsync(pool::borrow);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        pool.release(llm);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(llm);
+    }
+
+    @Test
+    void failedCreationGivesThePermitBack() {
+        PanguLlmPool pool = new PanguLlmPool(() -> {
+            throw new IllegalStateException("IAM unavailable");
+        }, 1, 1, Duration.ZERO);
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(pool::borrow).isInstanceOf(IllegalStateException.class);
+        assertThat(pool.getBorrowedCount()).isZero();
+    }
+
+    @Test
+    void keepsIdleCountConsistentAcrossClose() {
+        PanguLlmPool pool = new PanguLlmPool(() -> mock(Pangu.class), 1, 3, Duration.ZERO);
+        Pangu first = pool.borrow();
+        Pangu second = pool.borrow();
+        Pangu third = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+
+        pool.close();
+        pool.release(third);
+
+        assertThat(pool.getIdleCount()).isZero();
+        assertThat(pool.getBorrowedCount()).isZero();
+    }
+
+}